@@ -27,15 +27,46 @@ repositories {
     mavenCentral()
 }
 
+// JMH benchmarks live in src/jmh/java and see the main classes and their dependencies
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+// The HTTP load test lives in src/loadTest/java and boots the whole application
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+for (sourceSet in listOf(jmh, loadTest)) {
+    configurations[sourceSet.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+    configurations[sourceSet.compileOnlyConfigurationName].extendsFrom(configurations.compileOnly.get())
+    configurations[sourceSet.annotationProcessorConfigurationName]
+        .extendsFrom(configurations.annotationProcessor.get())
+}
+
 dependencies {
     // Spring Boot Starters
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
+
+    // Metrics
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+    runtimeOnly("org.hibernate.orm:hibernate-micrometer")
+
+    // Caching
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    // Hibernate second-level cache, through JCache with Caffeine as the provider
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("com.github.ben-manes.caffeine:jcache")
 
     // Database
-    runtimeOnly("org.postgresql:postgresql")
+    // Compile scope: the bulk import uses the driver's COPY API
+    implementation("org.postgresql:postgresql")
     implementation("org.flywaydb:flyway-core")
     implementation("org.flywaydb:flyway-database-postgresql")
 
@@ -59,6 +90,12 @@ dependencies {
     testImplementation("org.seleniumhq.selenium:selenium-java:4.24.0")
     testImplementation("io.github.bonigarcia:webdrivermanager:5.9.2")
 
+    // Benchmarks
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    "jmhRuntimeOnly"("com.h2database:h2")
+    "loadTestRuntimeOnly"("com.h2database:h2")
+
     // Static Analysis
     checkstyle("com.puppycrawl.tools:checkstyle:10.18.1")
 }
@@ -80,6 +117,70 @@ tasks.register<Test>("testWithoutE2E") {
     }
 }
 
+// Task for running the JMH benchmarks. Results are written as JSON so runs on different commits can be
+// compared; pass -PjmhResults=<file> to keep a run, and -PjmhIncludes=<regex> to select benchmarks
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks"
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+
+    val resultsFile = providers.gradleProperty("jmhResults")
+        .map { file(it) }
+        .orElse(layout.buildDirectory.file("reports/jmh/results.json").map { it.asFile })
+    val includes = providers.gradleProperty("jmhIncludes")
+    outputs.upToDateWhen { false }
+    doFirst {
+        resultsFile.get().parentFile.mkdirs()
+    }
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf("-rf", "json", "-rff", resultsFile.get().absolutePath) + includes.map { listOf(it) }.getOrElse(listOf())
+    })
+}
+
+// Task for running the HTTP load test against the application on H2. Every -PloadTest.<key>=<value>
+// property is passed on as a setting: rate, warmup, duration, products, categories, mix, results, profiles
+fun JavaExec.runLoadTest(defaults: Map<String, String>) {
+    group = "benchmark"
+    classpath = loadTest.runtimeClasspath
+    mainClass = "cue.edu.co.inventariopruebas.loadtest.LoadTest"
+    outputs.upToDateWhen { false }
+
+    val settings = providers.gradlePropertiesPrefixedBy("loadTest.")
+    argumentProviders.add(CommandLineArgumentProvider {
+        val values = settings.get().mapKeys { it.key.removePrefix("loadTest.") }.toMutableMap()
+        defaults.forEach { (key, value) -> values.putIfAbsent(key, value) }
+        values.map { "${it.key}=${it.value}" }
+    })
+}
+
+val loadTestReports = layout.buildDirectory.dir("reports/loadtest").get().asFile
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the open-loop HTTP load test and reports latency percentiles per endpoint"
+    runLoadTest(mapOf("results" to loadTestReports.resolve("results.json").absolutePath))
+}
+
+// The same load against request handling on the Tomcat thread pool and on virtual threads; each mode
+// keeps its own report so throughput and tail latencies can be compared side by side
+val threadModes = mapOf("PlatformThreads" to "", "VirtualThreads" to "virtual-threads")
+for ((mode, profiles) in threadModes) {
+    tasks.register<JavaExec>("loadTest$mode") {
+        description = "Runs the HTTP load test with requests handled on $mode"
+        runLoadTest(mapOf(
+            "profiles" to profiles,
+            "results" to loadTestReports.resolve("results-${mode.lowercase()}.json").absolutePath))
+    }
+}
+tasks.named("loadTestVirtualThreads") {
+    mustRunAfter("loadTestPlatformThreads")
+}
+tasks.register("loadTestThreadModes") {
+    group = "benchmark"
+    description = "Runs the HTTP load test on platform threads, then on virtual threads"
+    dependsOn("loadTestPlatformThreads", "loadTestVirtualThreads")
+}
+
 // Checkstyle Configuration
 checkstyle {
     toolVersion = "10.18.1"
@@ -107,3 +208,17 @@ tasks.withType<com.github.spotbugs.snom.SpotBugsTask> {
         required.set(true)
     }
 }
+
+// Benchmark and load test harnesses, and the code JMH generates, are not production code
+tasks.named("spotbugsJmh") {
+    enabled = false
+}
+tasks.named("pmdJmh") {
+    enabled = false
+}
+tasks.named("spotbugsLoadTest") {
+    enabled = false
+}
+tasks.named("pmdLoadTest") {
+    enabled = false
+}
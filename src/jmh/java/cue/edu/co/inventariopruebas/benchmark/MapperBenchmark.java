@@ -0,0 +1,64 @@
+package cue.edu.co.inventariopruebas.benchmark;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.mapper.CategoryMapper;
+import cue.edu.co.inventariopruebas.application.mapper.ProductMapper;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of converting one entity to its response DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+
+    private Category category;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30);
+        category = new Category("Electronics");
+        category.setId(1L);
+        category.setCreatedAt(timestamp);
+        category.setUpdatedAt(timestamp);
+
+        product = new Product("Laptop", "High performance laptop", new BigDecimal("999.99"), 10, category);
+        product.setId(1L);
+        product.setCreatedAt(timestamp);
+        product.setUpdatedAt(timestamp);
+    }
+
+    @Benchmark
+    public ProductDTO productToDTO() {
+        return productMapper.toDTO(product);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToDTO() {
+        return categoryMapper.toDTO(category);
+    }
+}
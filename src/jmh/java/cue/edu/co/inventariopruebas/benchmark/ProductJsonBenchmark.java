@@ -0,0 +1,102 @@
+package cue.edu.co.inventariopruebas.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import cue.edu.co.inventariopruebas.application.cache.ProductJsonCache;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.infrastructure.config.ProductJsonCacheProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing a product listing response, as the controllers do.
+ * The mapper is built with Spring's defaults and the output is discarded, so only serialization is measured.
+ * {@code serializeList} encodes every row with Jackson; {@code writeCachedFragments} writes the same list
+ * from the warmed {@link ProductJsonCache}, and {@code writeTenPercentChanged} alternates between two
+ * listings that differ in a tenth of their rows, so every call re-encodes those rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<ProductDTO> products;
+    private List<ProductDTO> changedProducts;
+    private ProductJsonCache productJsonCache;
+    private boolean changed;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ProductDTO.class));
+
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30);
+        products = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            products.add(new ProductDTO(id, "Product " + id, "Description of product " + id,
+                    new BigDecimal("19.99"), (int) (id % 100), 10, id % 20 + 1, "Category " + (id % 20 + 1),
+                    timestamp, timestamp, 0L));
+        }
+
+        changedProducts = new ArrayList<>(products);
+        for (int i = 0; i < size; i += 10) {
+            ProductDTO product = products.get(i);
+            changedProducts.set(i, new ProductDTO(product.getId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getStock(), product.getReorderPoint(), product.getCategoryId(),
+                    product.getCategoryName(), product.getCreatedAt(), timestamp.plusMinutes(1),
+                    product.getVersion() + 1));
+        }
+
+        ProductJsonCacheProperties properties = new ProductJsonCacheProperties();
+        properties.setMaxSize(DataSize.ofMegabytes(256));
+        productJsonCache = new ProductJsonCache(objectMapper, properties);
+        try {
+            productJsonCache.writeJsonArray(products, OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public void serializeList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), products);
+    }
+
+    @Benchmark
+    public void writeCachedFragments() throws IOException {
+        productJsonCache.writeJsonArray(products, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeTenPercentChanged() throws IOException {
+        changed = !changed;
+        productJsonCache.writeJsonArray(changed ? changedProducts : products, OutputStream.nullOutputStream());
+    }
+}
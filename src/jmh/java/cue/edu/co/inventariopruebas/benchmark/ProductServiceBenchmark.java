@@ -0,0 +1,100 @@
+package cue.edu.co.inventariopruebas.benchmark;
+
+import cue.edu.co.inventariopruebas.InventarioPruebasApplication;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.service.ProductService;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the product read paths through the service, repository and an in-memory H2 database seeded
+ * with {@code catalogSize} products across {@value #CATEGORIES} categories.
+ * The application runs with the {@code benchmark} profile and without the web server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int SEED_CHUNK_SIZE = 5000;
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventarioPruebasApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .run();
+        productService = context.getBean(ProductService.class);
+        seed(context.getBean(CategoryRepository.class), context.getBean(ProductRepository.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public List<ProductDTO> searchProductsByName() {
+        // Matches one product in ten
+        return productService.searchProductsByName("item 7");
+    }
+
+    private void seed(CategoryRepository categoryRepository, ProductRepository productRepository) {
+        List<Long> categoryIds = new ArrayList<>(CATEGORIES);
+        for (int i = 0; i < CATEGORIES; i++) {
+            categoryIds.add(categoryRepository.save(new Category("Benchmark Category " + i)).getId());
+        }
+        List<ProductRequestDTO> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < catalogSize; i++) {
+            ProductRequestDTO product = new ProductRequestDTO();
+            product.setName("Benchmark item " + i);
+            product.setDescription("Seeded product " + i);
+            product.setPrice(new BigDecimal("19.99"));
+            product.setStock(i % 100);
+            product.setCategoryId(categoryIds.get(i % CATEGORIES));
+            chunk.add(product);
+            if (chunk.size() == SEED_CHUNK_SIZE) {
+                productRepository.insertAll(chunk);
+                chunk.clear();
+            }
+        }
+        productRepository.insertAll(chunk);
+    }
+}
@@ -0,0 +1,77 @@
+package cue.edu.co.inventariopruebas.benchmark;
+
+import cue.edu.co.inventariopruebas.InventarioPruebasApplication;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.service.ProductService;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the service metrics, measured on the cheapest service call: a product cache hit.
+ * {@code instrumented} goes through the service proxy and its metrics aspect, {@code uninstrumented}
+ * calls the same service instance directly; the difference is the per-call cost of the instrumentation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceMetricsBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ProductService instrumented;
+    private ProductService uninstrumented;
+    private Long productId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventarioPruebasApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .run();
+        instrumented = context.getBean(ProductService.class);
+        uninstrumented = (ProductService) AopProxyUtils.getSingletonTarget(instrumented);
+
+        Category category = context.getBean(CategoryRepository.class).save(new Category("Metrics Benchmark"));
+        productId = context.getBean(ProductRepository.class).save(new Product("Metrics Benchmark Product",
+                null, new BigDecimal("9.99"), 10, category)).getId();
+        // Load the product into the cache so both variants measure a hit
+        instrumented.getProductById(productId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDTO instrumented() {
+        return instrumented.getProductById(productId);
+    }
+
+    @Benchmark
+    public ProductDTO uninstrumented() {
+        return uninstrumented.getProductById(productId);
+    }
+}
@@ -0,0 +1,70 @@
+package cue.edu.co.inventariopruebas.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Every latency sample of one endpoint, kept exactly so percentiles need no bucketing.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long latencyNanos, boolean error) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    /**
+     * Add every sample of this recorder to another one, e.g. to summarize all endpoints together.
+     *
+     * @param target the recorder to add the samples to
+     */
+    synchronized void copyTo(LatencyRecorder target) {
+        long remainingErrors = errors;
+        for (int i = 0; i < count; i++) {
+            target.record(samples[i], remainingErrors-- > 0);
+        }
+    }
+
+    /**
+     * Summarize the recorded samples.
+     *
+     * @param endpoint       the endpoint name
+     * @param measuredMillis the length of the measurement window, for the throughput
+     * @return the request count, error count, throughput and latency percentiles
+     */
+    synchronized EndpointReport summarize(String endpoint, long measuredMillis) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new EndpointReport(endpoint, count, errors, count * 1000.0 / measuredMillis,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(percentile(sorted, 0.999)), millis(count == 0 ? 0 : sorted[count - 1]));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Nearest rank: the smallest sample with at least the quantile of samples at or below it
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    /**
+     * Latency summary of one endpoint, in milliseconds.
+     */
+    record EndpointReport(String endpoint, long requests, long errors, double throughputPerSecond,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+}
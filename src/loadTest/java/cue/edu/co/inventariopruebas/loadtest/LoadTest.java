@@ -0,0 +1,161 @@
+package cue.edu.co.inventariopruebas.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import cue.edu.co.inventariopruebas.InventarioPruebasApplication;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.loadtest.LatencyRecorder.EndpointReport;
+import cue.edu.co.inventariopruebas.loadtest.LoadTestTraffic.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load test of every product and category endpoint.
+ * <p>
+ * Boots the application on an in-memory H2 database ({@code loadtest} profile), seeds a synthetic
+ * catalog and drives it with an open-loop generator: requests are started on a fixed schedule of
+ * {@code rate} per second whatever the response times, and each latency is measured from the moment the
+ * request was due, not from when it was actually sent. A slow server therefore shows up in the
+ * percentiles instead of silently lowering the offered load (coordinated omission).
+ * <p>
+ * Writes p50, p99 and p99.9 latency and throughput per endpoint to a JSON file and prints them.
+ * Settings are {@code key=value} arguments, see {@link LoadTestConfig}; the {@code profiles} setting runs
+ * the same load against another configuration, such as the virtual-thread mode.
+ */
+public final class LoadTest {
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(LoadTestConfig.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        List<String> profiles = new ArrayList<>(List.of("loadtest"));
+        profiles.addAll(config.profiles());
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventarioPruebasApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run()) {
+            System.out.printf("Running with profiles %s%n", profiles);
+            System.out.printf("Seeding %d products in %d categories%n", config.products(), config.categories());
+            SyntheticCatalog catalog = SyntheticCatalog.seed(config, context.getBean(CategoryRepository.class),
+                    context.getBean(ProductRepository.class), context.getBean(TransactionTemplate.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadTestTraffic traffic = new LoadTestTraffic(baseUrl, objectMapper, catalog, config.mix());
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient client = HttpClient.newBuilder().executor(executor).build();
+                generate(client, traffic);
+            }
+            writeReport();
+        }
+    }
+
+    /**
+     * Start one request every {@code 1 / rate} seconds on a fixed schedule, then wait for the last responses.
+     */
+    private void generate(HttpClient client, LoadTestTraffic traffic) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        System.out.printf("Sending %d requests/s for %s after a %s warmup%n",
+                config.rate(), config.duration(), config.warmup());
+
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (long i = 0; ; i++) {
+            long due = start + i * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = traffic.next();
+            boolean measured = due >= measureFrom;
+            HttpRequest request = operation.request().get();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - due;
+                        boolean error = failure != null || response.statusCode() >= 400;
+                        if (!error) {
+                            traffic.onResponse(operation, response.body());
+                        }
+                        if (measured) {
+                            recorders.computeIfAbsent(operation.name(), name -> new LatencyRecorder())
+                                    .record(latency, error);
+                        }
+                    }));
+            if (i % 1000 == 0) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            System.out.println("Some requests did not complete: " + e);
+        }
+    }
+
+    private void writeReport() throws IOException {
+        long measuredMillis = config.duration().toMillis();
+        List<EndpointReport> endpoints = new ArrayList<>();
+        LatencyRecorder total = new LatencyRecorder();
+        new TreeMap<>(recorders).forEach((name, recorder) -> {
+            endpoints.add(recorder.summarize(name, measuredMillis));
+            recorder.copyTo(total);
+        });
+        LoadTestReport report = new LoadTestReport(config.rate(), config.warmup().toString(),
+                config.duration().toString(), config.products(), config.mix(), config.profiles(), endpoints,
+                total.summarize("total", measuredMillis));
+
+        Files.createDirectories(config.results().toAbsolutePath().getParent());
+        objectMapper.writeValue(config.results().toFile(), report);
+
+        System.out.printf("%n%-40s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms");
+        for (EndpointReport endpoint : endpoints) {
+            print(endpoint);
+        }
+        print(report.total());
+        System.out.println("Report written to " + config.results().toAbsolutePath());
+    }
+
+    private static void print(EndpointReport endpoint) {
+        System.out.printf("%-40s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", endpoint.endpoint(), endpoint.requests(),
+                endpoint.errors(), endpoint.throughputPerSecond(), endpoint.p50Ms(), endpoint.p99Ms(),
+                endpoint.p999Ms());
+    }
+
+    /**
+     * The load test report written to the results file.
+     */
+    record LoadTestReport(int rate, String warmup, String duration, int products, Map<String, Integer> mix,
+                          List<String> profiles, List<EndpointReport> endpoints, EndpointReport total) {
+    }
+}
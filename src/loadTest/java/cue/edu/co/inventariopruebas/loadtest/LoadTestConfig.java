@@ -0,0 +1,80 @@
+package cue.edu.co.inventariopruebas.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code key=value} program arguments.
+ *
+ * @param rate       requests started per second, whatever the response times
+ * @param warmup     time spent under load before latencies are recorded
+ * @param duration   time during which latencies are recorded
+ * @param products   number of products in the synthetic catalog
+ * @param categories number of categories in the synthetic catalog
+ * @param mix        relative share of each HTTP method ({@code get}, {@code post}, {@code put},
+ *                   {@code patch}, {@code delete})
+ * @param results    file the report is written to
+ * @param profiles   Spring profiles activated on top of {@code loadtest}, e.g. {@code virtual-threads}
+ */
+record LoadTestConfig(int rate, Duration warmup, Duration duration, int products, int categories,
+                      Map<String, Integer> mix, Path results, List<String> profiles) {
+
+    static final String DEFAULT_MIX = "get=80,post=6,put=6,patch=4,delete=4";
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                Integer.parseInt(values.getOrDefault("products", "10000")),
+                Integer.parseInt(values.getOrDefault("categories", "50")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(values.getOrDefault("results", "build/reports/loadtest/results.json")),
+                parseProfiles(values.getOrDefault("profiles", "")));
+        if (config.rate() <= 0 || config.duration().isZero() || config.products() <= 0 || config.categories() <= 0) {
+            throw new IllegalArgumentException("rate, duration, products and categories must be positive");
+        }
+        return config;
+    }
+
+    /**
+     * Total requests the generator will start, warmup included.
+     */
+    long plannedRequests() {
+        return (warmup.toMillis() + duration.toMillis()) * rate / 1000;
+    }
+
+    private static List<String> parseProfiles(String profiles) {
+        return Arrays.stream(profiles.split(","))
+                .map(String::trim)
+                .filter(profile -> !profile.isEmpty())
+                .toList();
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected method=weight in mix, got: " + entry);
+            }
+            weights.put(parts[0].trim().toLowerCase(Locale.ROOT), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,227 @@
+package cue.edu.co.inventariopruebas.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The requests the load test sends: one or more operations per route of {@code ProductController} and
+ * {@code CategoryController}, weighted within their HTTP method by how often clients call them.
+ * <p>
+ * Reads and updates target the seeded catalog, which they never shrink. Deletes consume products and
+ * categories created for that purpose, by the seeding or by the POST operations, so they always hit an
+ * existing row.
+ */
+final class LoadTestTraffic {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final List<Long> productIds;
+    private final List<Long> categoryIds;
+    private final Queue<Long> disposableProductIds = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> disposableCategoryIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Operation> operations = new ArrayList<>();
+    private final int totalWeight;
+
+    LoadTestTraffic(String baseUrl, ObjectMapper objectMapper, SyntheticCatalog catalog, Map<String, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.productIds = catalog.productIds();
+        this.categoryIds = catalog.categoryIds();
+        disposableProductIds.addAll(catalog.disposableProductIds());
+        disposableCategoryIds.addAll(catalog.disposableCategoryIds());
+
+        List<Operation> gets = List.of(
+                operation("GET /api/products/{id}", 30, () -> get("/api/products/" + productId())),
+                operation("GET /api/products", 12, () -> get("/api/products?limit=50")),
+                operation("GET /api/products?categoryId", 10, () -> get("/api/products?limit=50&categoryId="
+                        + categoryId())),
+                operation("GET /api/products?search", 5, () -> get("/api/products?limit=50&search=item+"
+                        + random(100))),
+                operation("GET /api/products/search", 10, () -> get("/api/products/search?q=item+" + random(1000))),
+                operation("GET /api/products/suggest", 15, () -> get("/api/products/suggest?prefix=load+item+"
+                        + random(100))),
+                operation("GET /api/products/low-stock", 4, () -> get("/api/products/low-stock?threshold=1005")),
+                operation("GET /api/products/below-reorder-point", 4,
+                        () -> get("/api/products/below-reorder-point")),
+                operation("GET /api/products/export", 1, () -> get("/api/products/export?format=ndjson")),
+                operation("GET /api/categories", 6, () -> get("/api/categories?limit=50")),
+                operation("GET /api/categories/{id}", 3, () -> get("/api/categories/" + categoryId())));
+        List<Operation> posts = List.of(
+                operation("POST /api/products", 8, () -> send("POST", "/api/products", productBody()),
+                        this::addDisposableProduct),
+                operation("POST /api/products/import", 1, this::importRequest),
+                operation("POST /api/categories", 1, () -> send("POST", "/api/categories", categoryBody()),
+                        this::addDisposableCategory));
+        List<Operation> puts = List.of(
+                operation("PUT /api/products/{id}", 8, () -> send("PUT", "/api/products/" + productId(),
+                        productBody())),
+                operation("PUT /api/categories/{id}", 1, () -> send("PUT", "/api/categories/" + categoryId(),
+                        categoryBody())));
+        List<Operation> patches = List.of(
+                operation("PATCH /api/products/{id}/stock", 1, () -> send("PATCH",
+                        "/api/products/" + productId() + "/stock", Map.of("delta", random(2) == 0 ? -1 : 1))));
+        List<Operation> deletes = List.of(
+                operation("DELETE /api/products/{id}", 8, () -> delete("/api/products/", disposableProductIds)),
+                operation("DELETE /api/categories/{id}", 1, () -> delete("/api/categories/", disposableCategoryIds)));
+
+        addGroup(gets, mix.getOrDefault("get", 0));
+        addGroup(posts, mix.getOrDefault("post", 0));
+        addGroup(puts, mix.getOrDefault("put", 0));
+        addGroup(patches, mix.getOrDefault("patch", 0));
+        addGroup(deletes, mix.getOrDefault("delete", 0));
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("The traffic mix selects no requests");
+        }
+    }
+
+    /**
+     * Pick the next operation at random, following the mix.
+     */
+    Operation next() {
+        int pick = random(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    /**
+     * Record the ID of a resource returned by a successful POST, so a later DELETE can remove it.
+     */
+    void onResponse(Operation operation, String body) {
+        if (operation.onCreated() == null) {
+            return;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null) {
+                operation.onCreated().accept(id.asLong());
+            }
+        } catch (Exception e) {
+            // Not a created resource; nothing to remember
+        }
+    }
+
+    private void addGroup(List<Operation> group, int share) {
+        int groupWeight = group.stream().mapToInt(Operation::weight).sum();
+        for (Operation operation : group) {
+            // Scale so the group as a whole gets its share of the mix
+            int weight = share * operation.weight() * 1000 / groupWeight;
+            if (weight > 0) {
+                operations.add(new Operation(operation.name(), weight, operation.request(), operation.onCreated()));
+            }
+        }
+    }
+
+    private Operation operation(String name, int weight, Supplier<HttpRequest> request) {
+        return new Operation(name, weight, request, null);
+    }
+
+    private Operation operation(String name, int weight, Supplier<HttpRequest> request, Consumer<Long> onCreated) {
+        return new Operation(name, weight, request, onCreated);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method(method, BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpRequest delete(String path, Queue<Long> disposableIds) {
+        Long id = disposableIds.poll();
+        // Once every disposable row is gone the request hits a missing ID and is reported as an error
+        return HttpRequest.newBuilder(URI.create(baseUrl + path + (id == null ? Long.MAX_VALUE : id)))
+                .timeout(REQUEST_TIMEOUT)
+                .DELETE()
+                .build();
+    }
+
+    private HttpRequest importRequest() {
+        StringBuilder csv = new StringBuilder("name,price,stock,categoryId\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("Imported item ").append(sequence.incrementAndGet()).append(",9.99,50,")
+                    .append(categoryId()).append('\n');
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/products/import"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "text/csv")
+                .POST(BodyPublishers.ofString(csv.toString()))
+                .build();
+    }
+
+    private Map<String, Object> productBody() {
+        return Map.of(
+                "name", "Load item " + sequence.incrementAndGet(),
+                "description", "Written by the load test",
+                "price", "19.99",
+                "stock", 100,
+                "reorderPoint", 10,
+                "categoryId", categoryId());
+    }
+
+    private Map<String, Object> categoryBody() {
+        return Map.of("name", "Load category " + sequence.incrementAndGet());
+    }
+
+    private void addDisposableProduct(Long id) {
+        disposableProductIds.add(id);
+    }
+
+    private void addDisposableCategory(Long id) {
+        disposableCategoryIds.add(id);
+    }
+
+    private Long productId() {
+        return productIds.get(random(productIds.size()));
+    }
+
+    private Long categoryId() {
+        return categoryIds.get(random(categoryIds.size()));
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    /**
+     * One kind of request, reported as its own endpoint.
+     *
+     * @param name      the endpoint name used in the report
+     * @param weight    the relative frequency of the operation
+     * @param request   builds a new request
+     * @param onCreated receives the ID of the resource a successful request created, may be null
+     */
+    record Operation(String name, int weight, Supplier<HttpRequest> request, Consumer<Long> onCreated) {
+    }
+}
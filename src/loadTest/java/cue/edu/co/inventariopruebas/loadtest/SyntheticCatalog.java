@@ -0,0 +1,92 @@
+package cue.edu.co.inventariopruebas.loadtest;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.IdAndName;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The catalog the load test runs against, written straight to the database before the run.
+ *
+ * @param productIds            products that reads and updates target
+ * @param categoryIds           categories that reads, updates and new products target
+ * @param disposableProductIds  products reserved for the DELETE requests
+ * @param disposableCategoryIds empty categories reserved for the DELETE requests
+ */
+record SyntheticCatalog(List<Long> productIds, List<Long> categoryIds, List<Long> disposableProductIds,
+                        List<Long> disposableCategoryIds) {
+
+    static final String PRODUCT_NAME_PREFIX = "Load item ";
+    static final String DISPOSABLE_NAME_PREFIX = "Disposable item ";
+
+    private static final int CHUNK_SIZE = 5000;
+
+    /**
+     * Seed the catalog: the configured number of products spread over the categories, plus enough
+     * disposable products and categories for the DELETE share of the planned requests.
+     */
+    static SyntheticCatalog seed(LoadTestConfig config, CategoryRepository categoryRepository,
+                                 ProductRepository productRepository, TransactionTemplate transactionTemplate) {
+        long plannedDeletes = config.plannedRequests() * config.mix().getOrDefault("delete", 0)
+                / Math.max(1, config.mix().values().stream().mapToInt(Integer::intValue).sum());
+        int disposable = (int) Math.min(Integer.MAX_VALUE, plannedDeletes + 100);
+
+        List<Long> categoryIds = new ArrayList<>(config.categories());
+        for (int i = 0; i < config.categories(); i++) {
+            categoryIds.add(categoryRepository.save(new Category("Load category " + i)).getId());
+        }
+        List<Long> disposableCategoryIds = new ArrayList<>(disposable);
+        for (int i = 0; i < disposable; i++) {
+            disposableCategoryIds.add(categoryRepository.save(new Category("Disposable category " + i)).getId());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            insert(productRepository, PRODUCT_NAME_PREFIX, config.products(), categoryIds);
+            insert(productRepository, DISPOSABLE_NAME_PREFIX, disposable, categoryIds);
+        });
+
+        List<Long> productIds = new ArrayList<>(config.products());
+        List<Long> disposableProductIds = new ArrayList<>(disposable);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<IdAndName> products = productRepository.streamIdsAndNames()) {
+                products.forEach(product -> {
+                    if (product.getName().startsWith(PRODUCT_NAME_PREFIX)) {
+                        productIds.add(product.getId());
+                    } else if (product.getName().startsWith(DISPOSABLE_NAME_PREFIX)) {
+                        disposableProductIds.add(product.getId());
+                    }
+                });
+            }
+        });
+        return new SyntheticCatalog(List.copyOf(productIds), List.copyOf(categoryIds),
+                disposableProductIds, disposableCategoryIds);
+    }
+
+    private static void insert(ProductRepository productRepository, String namePrefix, int count,
+                               List<Long> categoryIds) {
+        List<ProductRequestDTO> chunk = new ArrayList<>(Math.min(count, CHUNK_SIZE));
+        for (int i = 0; i < count; i++) {
+            ProductRequestDTO product = new ProductRequestDTO();
+            product.setName(namePrefix + i);
+            product.setDescription("Synthetic product " + i + " for load testing");
+            product.setPrice(new BigDecimal("19.99"));
+            product.setStock(1000 + i % 100);
+            // One product in fifty starts below its reorder point
+            product.setReorderPoint(i % 50 == 0 ? 2000 : 10);
+            product.setCategoryId(categoryIds.get(i % categoryIds.size()));
+            chunk.add(product);
+            if (chunk.size() == CHUNK_SIZE) {
+                productRepository.insertAll(chunk);
+                chunk.clear();
+            }
+        }
+        productRepository.insertAll(chunk);
+    }
+}
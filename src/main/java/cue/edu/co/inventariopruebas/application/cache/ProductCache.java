@@ -0,0 +1,209 @@
+package cue.edu.co.inventariopruebas.application.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import cue.edu.co.inventariopruebas.application.dto.ProductCacheStats;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.StockChangedEvent;
+import cue.edu.co.inventariopruebas.infrastructure.config.ProductCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache of {@link ProductDTO}s by product ID, backed by Caffeine (W-TinyLFU eviction).
+ * <p>
+ * Writes are applied twice: the entry is evicted as soon as a change is published, so later reads in
+ * the writing transaction see the change, and it is written through (or evicted again) once the
+ * transaction commits, replacing anything a concurrent reader loaded in between. Renaming or deleting a
+ * category evicts every cached product of that category, since the DTO carries the category name.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics tagged {@code cache=products}.
+ * <p>
+ * Loads run on the calling thread outside any lock: the cache only holds a future while the first caller
+ * queries the database, and concurrent callers wait on that future. A virtual thread blocked on the query
+ * is therefore never pinned to its carrier, as it would be inside a synchronous cache's compute.
+ */
+@Component
+@Slf4j
+public class ProductCache implements MeterBinder {
+
+    static final String CACHE_NAME = "products";
+
+    private final AsyncCache<Long, ProductDTO> asyncCache;
+    private final Cache<Long, ProductDTO> cache;
+
+    public ProductCache(ProductCacheProperties properties) {
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.cache = asyncCache.synchronous();
+    }
+
+    /**
+     * Get a product from the cache, loading and caching it on a miss.
+     * Concurrent misses for the same ID share one load.
+     *
+     * @param id     the product ID
+     * @param loader loads the product, returning null if it does not exist
+     * @return the product DTO, or null if the loader found nothing
+     */
+    public ProductDTO get(Long id, Function<Long, ProductDTO> loader) {
+        CompletableFuture<ProductDTO> load = new CompletableFuture<>();
+        CompletableFuture<ProductDTO> cached = asyncCache.get(id, (key, executor) -> load);
+        if (cached == load) {
+            // This caller registered the load, so it runs it; a null or failed result is not kept
+            try {
+                load.complete(loader.apply(id));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            // Another caller's load failed; surface its exception as if this caller had loaded
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the cached products among several IDs, without loading the others.
+     * Each ID is counted as a hit or a miss in the statistics.
+     *
+     * @param ids the product IDs
+     * @return the cached product DTOs by ID
+     */
+    public Map<Long, ProductDTO> getAllPresent(Collection<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    /**
+     * Get a cached product without loading it on a miss or counting the lookup in the statistics.
+     *
+     * @param id the product ID
+     * @return the cached product DTO, or null if it is not cached
+     */
+    public ProductDTO peek(Long id) {
+        return cache.asMap().get(id);
+    }
+
+    /**
+     * Evict every cached product that belongs to a category.
+     *
+     * @param categoryId the category ID
+     */
+    public void evictCategory(Long categoryId) {
+        cache.asMap().values().removeIf(product -> categoryId.equals(product.getCategoryId()));
+    }
+
+    /**
+     * Get the size and hit statistics of the cache.
+     *
+     * @return the cache statistics
+     */
+    public ProductCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        return new ProductCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.missRate(), stats.evictionCount());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Evict a product as soon as a change to it is published.
+     *
+     * @param event the product change
+     */
+    @EventListener
+    public void onProductChanging(ProductChangedEvent event) {
+        cache.invalidate(event.getProductId());
+    }
+
+    /**
+     * Write a committed product change through to the cache.
+     *
+     * @param event the product change
+     */
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getProduct() == null) {
+            cache.invalidate(event.getProductId());
+        } else {
+            cache.put(event.getProductId(), event.getProduct());
+        }
+    }
+
+    /**
+     * Evict a product once a stock change to it is committed. Stock changes are published after their own
+     * statement has committed, outside any transaction, so one eviction suffices. The entry is not patched
+     * with the new stock: commits of concurrent changes can be delivered out of order. Changes to stock held
+     * in memory keep the entry, as reads take that stock from memory.
+     *
+     * @param event the stock change
+     */
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.isInMemory()) {
+            return;
+        }
+        cache.invalidate(event.getProductId());
+    }
+
+    /**
+     * Evict the products of a category as soon as its rename or deletion is published.
+     *
+     * @param event the category change
+     */
+    @EventListener
+    public void onCategoryChanging(CategoryChangedEvent event) {
+        if (affectsProducts(event)) {
+            evictCategory(event.getCategoryId());
+        }
+    }
+
+    /**
+     * Evict the products of a category again once its rename or deletion is committed.
+     *
+     * @param event the category change
+     */
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (affectsProducts(event)) {
+            log.debug("Evicting cached products of category id: {}", event.getCategoryId());
+            evictCategory(event.getCategoryId());
+        }
+    }
+
+    private static boolean affectsProducts(CategoryChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            return true;
+        }
+        return event.getType() == ChangeType.UPDATED
+                && !Objects.equals(event.getPreviousName(), event.getCategory().getName());
+    }
+}
@@ -0,0 +1,126 @@
+package cue.edu.co.inventariopruebas.application.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.infrastructure.config.ProductJsonCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cache of each product's JSON encoding, so listings re-encode only the rows that changed.
+ * <p>
+ * Fragments are keyed by product ID and hold the version and {@code updatedAt} they were encoded from, with
+ * the stock and category, which can change without touching the product's {@code updatedAt} (in-memory
+ * stock, category renames). A fragment is only reused while all of them match the row being written, so
+ * a stale fragment is never served. Memory is bounded by the total size of the fragments, and hit, miss
+ * and eviction counts are published as {@code cache.*} metrics tagged {@code cache=product-json}.
+ * Fragments are encoded with the application's {@link ObjectMapper}, so the output is byte for byte what
+ * Jackson would write for the list.
+ */
+@Component
+public class ProductJsonCache implements MeterBinder {
+
+    static final String CACHE_NAME = "product-json";
+
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final Cache<Long, Fragment> cache;
+
+    public ProductJsonCache(ObjectMapper objectMapper, ProductJsonCacheProperties properties) {
+        this.writer = objectMapper.writerFor(ProductDTO.class);
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Long id, Fragment fragment) -> fragment.json().length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Check whether listings should be written from cached fragments.
+     *
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the JSON encoding of a product, from the cache while the product is unchanged.
+     *
+     * @param product the product DTO
+     * @return the product encoded as a JSON object, in UTF-8
+     */
+    public byte[] getJson(ProductDTO product) {
+        if (product.getId() == null || product.getUpdatedAt() == null) {
+            return encode(product);
+        }
+        Fragment cached = cache.getIfPresent(product.getId());
+        if (cached != null && cached.matches(product)) {
+            return cached.json();
+        }
+        byte[] json = encode(product);
+        cache.put(product.getId(), new Fragment(product.getVersion(), product.getUpdatedAt(), product.getStock(),
+                product.getCategoryId(), product.getCategoryName(), json));
+        return json;
+    }
+
+    /**
+     * Write a product listing as a JSON array by concatenating the products' fragments.
+     *
+     * @param products the products to write
+     * @param out      the stream to write to; not closed
+     * @throws IOException if writing fails
+     */
+    public void writeJsonArray(List<ProductDTO> products, OutputStream out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < products.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(getJson(products.get(i)));
+        }
+        out.write(']');
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private byte[] encode(ProductDTO product) {
+        try {
+            return writer.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A product's encoding and the values it was encoded from.
+     */
+    private record Fragment(Long version, LocalDateTime updatedAt, Integer stock, Long categoryId,
+                            String categoryName, byte[] json) {
+
+        boolean matches(ProductDTO product) {
+            return updatedAt.equals(product.getUpdatedAt())
+                    && Objects.equals(version, product.getVersion())
+                    && Objects.equals(stock, product.getStock())
+                    && Objects.equals(categoryId, product.getCategoryId())
+                    && Objects.equals(categoryName, product.getCategoryName());
+        }
+    }
+}
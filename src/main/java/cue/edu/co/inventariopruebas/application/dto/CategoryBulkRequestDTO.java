@@ -0,0 +1,24 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a bulk category sync: the names of the categories that must exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBulkRequestDTO {
+
+    @NotEmpty(message = "At least one category name is required")
+    @Size(max = 1000, message = "At most 1000 category names can be synced at once")
+    private List<@NotBlank(message = "Category name is required")
+            @Size(min = 2, max = 100, message = "Category name must be between 2 and 100 characters") String> names;
+}
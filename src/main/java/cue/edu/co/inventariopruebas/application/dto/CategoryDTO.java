@@ -17,4 +17,5 @@ public class CategoryDTO {
     private String name;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for the product aggregates of a category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStatsDTO {
+    private Long categoryId;
+    private String categoryName;
+    private Long productCount;
+    private Long totalStock;
+    private BigDecimal stockValue;
+}
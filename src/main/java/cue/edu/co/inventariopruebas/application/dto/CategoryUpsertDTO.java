@@ -0,0 +1,17 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one category of a bulk sync, with whether the sync created it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryUpsertDTO {
+    private Long id;
+    private String name;
+    private boolean created;
+}
@@ -0,0 +1,55 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Formats supported by the catalog export and import.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    /**
+     * Resolve a format from its request parameter value.
+     *
+     * @param value the format name, case-insensitive
+     * @return the matching format
+     * @throws InvalidRequestException if the format is not supported
+     */
+    public static ExportFormat fromParameter(String value) {
+        for (ExportFormat format : values()) {
+            if (format.fileExtension.equals(value.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unsupported export format: " + value);
+    }
+
+    /**
+     * Resolve a format from a request {@code Content-Type}, ignoring parameters such as the charset.
+     *
+     * @param contentType the content type header value, may be null
+     * @return the matching format
+     * @throws InvalidRequestException if the content type is missing or not supported
+     */
+    public static ExportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            for (ExportFormat format : values()) {
+                if (format.contentType.equals(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new InvalidRequestException("Unsupported import content type: " + contentType);
+    }
+}
@@ -0,0 +1,21 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a committed inventory change pushed to the web UI: the product after the change, the category
+ * after the change or the new stock level, depending on the event. Deletions carry only the ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryEventDTO {
+    private ChangeType change;
+    private Long id;
+    private ProductDTO product;
+    private CategoryDTO category;
+    private Integer stock;
+}
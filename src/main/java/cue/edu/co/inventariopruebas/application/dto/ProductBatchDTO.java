@@ -0,0 +1,18 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a multi-get of products: the products found, in request order, and the IDs that do not exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchDTO {
+    private List<ProductDTO> products;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,20 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Size and hit statistics of the product read cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCacheStats {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private double missRate;
+    private long evictionCount;
+}
@@ -0,0 +1,21 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the product change feed: the products created or updated and the IDs deleted
+ * after the cursor, and the cursor to continue from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesDTO {
+    private List<ProductDTO> products;
+    private List<Long> deletedIds;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -19,8 +19,10 @@ public class ProductDTO {
     private String description;
     private BigDecimal price;
     private Integer stock;
+    private Integer reorderPoint;
     private Long categoryId;
     private String categoryName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row rejected by the bulk product import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportErrorDTO {
+
+    /**
+     * 1-based position of the row in the body, not counting the CSV header.
+     */
+    private long row;
+    private String field;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+    private long imported;
+    private long rejected;
+    private List<ProductImportErrorDTO> errors;
+
+    /**
+     * True when more rows were rejected than errors are listed.
+     */
+    private boolean errorsTruncated;
+}
@@ -31,6 +31,13 @@ public class ProductRequestDTO {
     @Min(value = 0, message = "Stock cannot be negative")
     private Integer stock;
 
+    /**
+     * Stock level below which the product should be reordered. Defaults to 0 (never) on creation
+     * and keeps the current value on update when omitted.
+     */
+    @Min(value = 0, message = "Reorder point cannot be negative")
+    private Integer reorderPoint;
+
     @NotNull(message = "Category ID is required")
     private Long categoryId;
 }
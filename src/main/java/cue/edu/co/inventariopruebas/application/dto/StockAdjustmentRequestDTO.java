@@ -0,0 +1,23 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for relative stock change requests.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequestDTO {
+
+    /**
+     * Amount added to the stock; negative to take units out. Bounded so its negation is an {@code int}.
+     */
+    @NotNull(message = "Delta is required")
+    @Min(value = -Integer.MAX_VALUE, message = "Delta cannot be less than -" + Integer.MAX_VALUE)
+    private Integer delta;
+}
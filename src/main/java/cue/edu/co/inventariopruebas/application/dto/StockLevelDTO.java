@@ -0,0 +1,16 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the stock of a product after a change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelDTO {
+    private Long productId;
+    private Integer stock;
+}
@@ -0,0 +1,26 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for typeahead suggestions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+
+    /**
+     * Kind of resource a suggestion points to.
+     */
+    public enum Type {
+        PRODUCT,
+        CATEGORY
+    }
+
+    private Type type;
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,18 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Size and estimated memory footprint of the typeahead index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionIndexStats {
+    private int entries;
+    private int keys;
+    private int nodes;
+    private long estimatedBytes;
+}
@@ -0,0 +1,47 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Periods a valuation time series can be downsampled to.
+ */
+public enum ValuationGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * Resolve a granularity from its request parameter value.
+     *
+     * @param value the granularity name, case-insensitive
+     * @return the matching granularity
+     * @throws InvalidRequestException if the granularity is not supported
+     */
+    public static ValuationGranularity fromParameter(String value) {
+        for (ValuationGranularity granularity : values()) {
+            if (granularity.name().equals(value.toUpperCase(Locale.ROOT))) {
+                return granularity;
+            }
+        }
+        throw new InvalidRequestException("Unsupported granularity: " + value);
+    }
+
+    /**
+     * Get the first day of the period a day belongs to; weeks start on Monday.
+     *
+     * @param date the day
+     * @return the start of its period
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package cue.edu.co.inventariopruebas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for one period of a valuation time series.
+ * The counts and stock value are those of the period's last snapshot (its closing values); the average
+ * stock value is taken over every snapshot in the period.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationPointDTO {
+    private LocalDate periodStart;
+    private LocalDate snapshotDate;
+    private Long productCount;
+    private Long totalStock;
+    private BigDecimal stockValue;
+    private BigDecimal averageStockValue;
+    private Integer snapshotCount;
+}
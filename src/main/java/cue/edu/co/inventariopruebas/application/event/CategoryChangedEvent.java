@@ -0,0 +1,30 @@
+package cue.edu.co.inventariopruebas.application.event;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Event published by {@code CategoryService} whenever a category is created, updated or deleted.
+ * Listeners that keep derived state in sync should use {@code @TransactionalEventListener} so they
+ * only see committed changes.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+
+    private final ChangeType type;
+    private final Long categoryId;
+
+    /**
+     * The category name before the change; null for creations.
+     */
+    private final String previousName;
+
+    /**
+     * The category after the change; null for deletions.
+     */
+    private final CategoryDTO category;
+}
@@ -0,0 +1,10 @@
+package cue.edu.co.inventariopruebas.application.event;
+
+/**
+ * Kind of change applied to an inventory resource.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
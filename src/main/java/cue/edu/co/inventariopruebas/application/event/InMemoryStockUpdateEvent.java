@@ -0,0 +1,19 @@
+package cue.edu.co.inventariopruebas.application.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Event published by {@code ProductService} when an update changes the stock of a product held in memory.
+ * The change is relative to the stock the client saw, so reservations made since then are kept; it is
+ * applied to the in-memory stock once the update has committed.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class InMemoryStockUpdateEvent {
+
+    private final Long productId;
+    private final int delta;
+}
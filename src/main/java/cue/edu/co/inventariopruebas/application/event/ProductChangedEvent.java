@@ -0,0 +1,30 @@
+package cue.edu.co.inventariopruebas.application.event;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Event published by {@code ProductService} whenever a product is created, updated or deleted.
+ * Listeners that keep derived state in sync should use {@code @TransactionalEventListener} so they
+ * only see committed changes.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+
+    private final ChangeType type;
+    private final Long productId;
+
+    /**
+     * The product name before the change; null for creations.
+     */
+    private final String previousName;
+
+    /**
+     * The product after the change; null for deletions.
+     */
+    private final ProductDTO product;
+}
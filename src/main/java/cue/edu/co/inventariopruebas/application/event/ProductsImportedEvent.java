@@ -0,0 +1,18 @@
+package cue.edu.co.inventariopruebas.application.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Event published by {@code ProductImportService} after a bulk import wrote products. Each chunk of the
+ * import commits on its own, so the event is published once the last one has, outside any transaction.
+ * It carries only the number of products, so listeners holding derived state should reload it.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ProductsImportedEvent {
+
+    private final long imported;
+}
@@ -0,0 +1,29 @@
+package cue.edu.co.inventariopruebas.application.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Event published by {@code ProductService} when a relative stock change has been applied, to the database
+ * or to a product held in memory.
+ * Unlike {@link ProductChangedEvent} it carries only the stock, as the change never loads the product.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class StockChangedEvent {
+
+    private final Long productId;
+    private final int delta;
+
+    /**
+     * The stock after the change.
+     */
+    private final int stock;
+
+    /**
+     * Whether the product's stock is held in memory, where reads take it from rather than from the product.
+     */
+    private final boolean inMemory;
+}
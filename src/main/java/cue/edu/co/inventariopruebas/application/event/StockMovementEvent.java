@@ -0,0 +1,28 @@
+package cue.edu.co.inventariopruebas.application.event;
+
+import cue.edu.co.inventariopruebas.domain.entity.StockMovementReason;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published by {@code ProductService} whenever the stock of a product changes, for the stock ledger.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class StockMovementEvent {
+
+    private final Long productId;
+    private final int delta;
+
+    /**
+     * The stock after the change.
+     */
+    private final int stockAfter;
+
+    private final StockMovementReason reason;
+    private final LocalDateTime occurredAt;
+}
@@ -0,0 +1,108 @@
+package cue.edu.co.inventariopruebas.application.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader: comma separators, double-quoted fields with {@code ""} escapes and
+ * line breaks inside quotes, and LF or CRLF record ends. Blank lines are skipped.
+ * Not thread-safe.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private int pending = -2;
+
+    /**
+     * Create a reader over a character stream; the stream should be buffered.
+     *
+     * @param reader the CSV text
+     */
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return the record fields, or null at the end of the input
+     * @throws IOException           if reading fails
+     * @throws MalformedCsvException if a quoted field is not closed before the end of the input
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean sawAny = false;
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                if (inQuotes) {
+                    throw new MalformedCsvException("Unterminated quoted field");
+                }
+                if (!sawAny) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    int following = next();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        pending = following;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int following = next();
+                    if (following != '\n') {
+                        pending = following;
+                    }
+                }
+                if (!sawAny) {
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            sawAny = true;
+            if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int next() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    /**
+     * Thrown when the CSV input is structurally invalid.
+     */
+    public static class MalformedCsvException extends IOException {
+
+        public MalformedCsvException(String message) {
+            super(message);
+        }
+    }
+}
@@ -25,7 +25,8 @@ public class CategoryMapper {
                 category.getId(),
                 category.getName(),
                 category.getCreatedAt(),
-                category.getUpdatedAt()
+                category.getUpdatedAt(),
+                category.getVersion()
         );
     }
 
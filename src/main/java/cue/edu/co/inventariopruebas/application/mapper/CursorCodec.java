@@ -0,0 +1,136 @@
+package cue.edu.co.inventariopruebas.application.mapper;
+
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset-paginated listings.
+ */
+@Component
+public class CursorCodec {
+
+    private static final String PREFIX = "id:";
+    private static final String CHANGE_PREFIX = "changed:";
+
+    /**
+     * Position in the product change feed before any change.
+     */
+    public static final ChangePosition FEED_START = new ChangePosition(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    /**
+     * Encode the last seen ID as an opaque cursor.
+     *
+     * @param lastId the ID of the last item on the current page
+     * @return the cursor string
+     */
+    public String encode(Long lastId) {
+        String raw = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor back into the ID the next page starts after.
+     *
+     * @param cursor the cursor sent by the client, may be null or blank
+     * @return the ID to seek past, or 0 for the first page
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    public long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidRequestException("Invalid pagination cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encode a change feed position as an opaque cursor.
+     *
+     * @param position the time and product ID of the last change returned
+     * @return the cursor string
+     */
+    public String encodeChange(ChangePosition position) {
+        String raw = CHANGE_PREFIX + position.changedAt() + "," + position.id();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a change feed cursor back into the position the feed continues after.
+     *
+     * @param cursor the cursor sent by the client, may be null or blank
+     * @return the position to seek past, or {@link #FEED_START} to read the feed from the beginning
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    public ChangePosition decodeChange(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FEED_START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(',');
+            if (!raw.startsWith(CHANGE_PREFIX) || separator < 0) {
+                throw new InvalidRequestException("Invalid change feed cursor: " + cursor);
+            }
+            return new ChangePosition(LocalDateTime.parse(raw.substring(CHANGE_PREFIX.length(), separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidRequestException("Invalid change feed cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Build a page from rows fetched with one extra element as look-ahead.
+     *
+     * @param rows        the rows fetched, at most {@code limit + 1}
+     * @param limit       the page size
+     * @param idExtractor function returning the keyset ID of a row
+     * @param mapper      function converting a row to its DTO
+     * @param <E>         the row type
+     * @param <D>         the DTO type
+     * @return the page, with a next cursor when more rows exist
+     */
+    public <E, D> CursorPage<D> toPage(List<E> rows, int limit,
+                                       Function<E, Long> idExtractor, Function<E, D> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        List<D> items = pageRows.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? encode(idExtractor.apply(pageRows.get(limit - 1))) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Position in the product change feed: the change time and product ID of the last change seen.
+     * Changes are ordered by time, then product ID.
+     *
+     * @param changedAt the update or deletion time
+     * @param id        the product ID
+     */
+    public record ChangePosition(LocalDateTime changedAt, long id) implements Comparable<ChangePosition> {
+
+        @Override
+        public int compareTo(ChangePosition other) {
+            int byTime = changedAt.compareTo(other.changedAt);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package cue.edu.co.inventariopruebas.application.mapper;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the entity tags ({@code ETag} values) that let clients revalidate cached responses.
+ * <p>
+ * A tag is a digest of the values a representation changes with, such as its update time, so equal
+ * inputs give equal tags on every instance and across restarts, and the tag can be derived either from
+ * a loaded DTO or from a metadata query without loading the resource. Timestamps are rounded to the
+ * microseconds the database stores, so a timestamp set in memory and the same one read back agree.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Build a tag from the values a representation changes with.
+     *
+     * @param parts the version values, in a fixed order; nulls are allowed
+     * @return the tag, without quotes
+     */
+    public static String of(Object... parts) {
+        String joined = Arrays.stream(parts)
+                .map(EntityTags::normalize)
+                .collect(Collectors.joining("|"));
+        return DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String normalize(Object part) {
+        if (part instanceof LocalDateTime timestamp) {
+            return timestamp.plusNanos(500).truncatedTo(ChronoUnit.MICROS).toString();
+        }
+        return String.valueOf(part);
+    }
+}
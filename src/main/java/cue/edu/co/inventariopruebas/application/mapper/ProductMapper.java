@@ -28,10 +28,12 @@ public class ProductMapper {
                 product.getDescription(),
                 product.getPrice(),
                 product.getStock(),
+                product.getReorderPoint(),
                 product.getCategory().getId(),
                 product.getCategory().getName(),
                 product.getCreatedAt(),
-                product.getUpdatedAt()
+                product.getUpdatedAt(),
+                product.getVersion()
         );
     }
 
@@ -46,13 +48,17 @@ public class ProductMapper {
         if (requestDTO == null) {
             return null;
         }
-        return new Product(
+        Product product = new Product(
                 requestDTO.getName(),
                 requestDTO.getDescription(),
                 requestDTO.getPrice(),
                 requestDTO.getStock(),
                 category
         );
+        if (requestDTO.getReorderPoint() != null) {
+            product.setReorderPoint(requestDTO.getReorderPoint());
+        }
+        return product;
     }
 
     /**
@@ -68,6 +74,9 @@ public class ProductMapper {
             product.setDescription(requestDTO.getDescription());
             product.setPrice(requestDTO.getPrice());
             product.setStock(requestDTO.getStock());
+            if (requestDTO.getReorderPoint() != null) {
+                product.setReorderPoint(requestDTO.getReorderPoint());
+            }
             if (category != null) {
                 product.setCategory(category);
             }
@@ -0,0 +1,239 @@
+package cue.edu.co.inventariopruebas.application.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact prefix tree mapping string keys to values.
+ * Children are kept in sorted parallel arrays, so a lookup walks one binary search per character
+ * and completions come out in lexicographic order (shorter keys first).
+ * Not thread-safe: callers must synchronize access.
+ *
+ * @param <V> the value type; values must implement equals/hashCode for removal and de-duplication
+ */
+public class PrefixTrie<V> {
+
+    private static final char[] NO_KEYS = new char[0];
+
+    // Rough HotSpot sizes with compressed oops, used for the footprint estimate
+    private static final int NODE_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int LIST_BYTES = 24 + ARRAY_HEADER_BYTES;
+    private static final int REFERENCE_BYTES = 4;
+
+    private final Node<V> root = new Node<>();
+    private int nodes = 1;
+    private int keys;
+    private int values;
+
+    /**
+     * Associate a value with a key. Adding the same key/value pair twice stores it twice.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void add(String key, V value) {
+        insert(key, value, false);
+    }
+
+    /**
+     * Associate a value with a key unless that key/value pair is already stored.
+     * Costs a scan of the key's values, so bulk loads of distinct pairs should use {@link #add}.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the pair was added
+     */
+    public boolean addIfAbsent(String key, V value) {
+        return insert(key, value, true);
+    }
+
+    /**
+     * Remove one association between a key and a value, pruning nodes that become empty.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the association existed
+     */
+    public boolean remove(String key, V value) {
+        Node<V>[] path = newPath(key.length() + 1);
+        Node<V> node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            path[i + 1] = node;
+        }
+        if (node.values == null || !node.values.remove(value)) {
+            return false;
+        }
+        values--;
+        if (node.values.isEmpty()) {
+            node.values = null;
+            keys--;
+        }
+        for (int i = key.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(key.charAt(i - 1));
+            nodes--;
+        }
+        return true;
+    }
+
+    /**
+     * Collect up to {@code limit} distinct values whose keys start with the prefix.
+     *
+     * @param prefix the key prefix
+     * @param limit  the maximum number of values
+     * @return distinct values in key order
+     */
+    public List<V> search(String prefix, int limit) {
+        Node<V> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        Set<V> found = new LinkedHashSet<>();
+        if (node != null) {
+            collect(node, found, limit);
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Remove every key and value.
+     */
+    public void clear() {
+        root.keys = NO_KEYS;
+        root.children = null;
+        root.values = null;
+        nodes = 1;
+        keys = 0;
+        values = 0;
+    }
+
+    public int getNodeCount() {
+        return nodes;
+    }
+
+    public int getKeyCount() {
+        return keys;
+    }
+
+    public int getValueCount() {
+        return values;
+    }
+
+    /**
+     * Estimate the heap used by the tree structure itself, excluding the value objects.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateBytes() {
+        int edges = nodes - 1;
+        return (long) nodes * NODE_BYTES
+                + (long) nodes * 2 * ARRAY_HEADER_BYTES
+                + (long) edges * (Character.BYTES + REFERENCE_BYTES)
+                + (long) keys * LIST_BYTES
+                + (long) values * REFERENCE_BYTES;
+    }
+
+    private boolean insert(String key, V value, boolean ifAbsent) {
+        Node<V> node = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node<V> child = node.child(key.charAt(i));
+            if (child == null) {
+                child = node.addChild(key.charAt(i));
+                nodes++;
+            }
+            node = child;
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<>(1);
+            keys++;
+        } else if (ifAbsent && node.values.contains(value)) {
+            return false;
+        }
+        node.values.add(value);
+        values++;
+        return true;
+    }
+
+    private boolean collect(Node<V> node, Set<V> found, int limit) {
+        if (node.values != null) {
+            for (V value : node.values) {
+                found.add(value);
+                if (found.size() >= limit) {
+                    return true;
+                }
+            }
+        }
+        for (int i = 0; i < node.keys.length; i++) {
+            if (collect(node.children[i], found, limit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newPath(int length) {
+        return (Node<V>[]) new Node[length];
+    }
+
+    private static final class Node<V> {
+        private char[] keys = NO_KEYS;
+        private Node<V>[] children;
+        private List<V> values;
+
+        Node<V> child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node<V> addChild(char c) {
+            int insertAt = -(Arrays.binarySearch(keys, c) + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node<V>[] newChildren = newPath(keys.length + 1);
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            if (children != null) {
+                System.arraycopy(children, 0, newChildren, 0, insertAt);
+                System.arraycopy(children, insertAt, newChildren, insertAt + 1, keys.length - insertAt);
+            }
+            Node<V> child = new Node<>();
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return;
+            }
+            if (keys.length == 1) {
+                keys = NO_KEYS;
+                children = null;
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node<V>[] newChildren = newPath(keys.length - 1);
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, keys.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return values == null && keys.length == 0;
+        }
+    }
+}
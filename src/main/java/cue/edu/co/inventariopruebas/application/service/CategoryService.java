@@ -2,17 +2,38 @@ package cue.edu.co.inventariopruebas.application.service;
 
 import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
 import cue.edu.co.inventariopruebas.application.dto.CategoryRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.CategoryUpsertDTO;
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
 import cue.edu.co.inventariopruebas.application.mapper.CategoryMapper;
+import cue.edu.co.inventariopruebas.application.mapper.CursorCodec;
+import cue.edu.co.inventariopruebas.application.mapper.EntityTags;
 import cue.edu.co.inventariopruebas.domain.entity.Category;
 import cue.edu.co.inventariopruebas.domain.exception.DuplicateResourceException;
+import cue.edu.co.inventariopruebas.domain.exception.PreconditionFailedException;
+import cue.edu.co.inventariopruebas.domain.exception.ResourceInUseException;
 import cue.edu.co.inventariopruebas.domain.exception.ResourceNotFoundException;
 import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.TableVersion;
+import cue.edu.co.inventariopruebas.domain.repository.UpsertedCategory;
+import cue.edu.co.inventariopruebas.infrastructure.config.PaginationProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +46,9 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CursorCodec cursorCodec;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all categories.
@@ -39,6 +63,23 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of categories using keyset pagination.
+     *
+     * @param after the cursor returned with the previous page, null for the first page
+     * @param limit the requested page size, capped by the configured maximum
+     * @return the page of category DTOs and the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CategoryDTO> getCategoriesPage(String after, Integer limit) {
+        int pageSize = paginationProperties.resolveLimit(limit);
+        long afterId = cursorCodec.decode(after);
+        log.debug("Getting categories page after id: {} with limit: {}", afterId, pageSize);
+
+        List<Category> rows = categoryRepository.findPageAfter(afterId, PageRequest.of(0, pageSize + 1));
+        return cursorCodec.toPage(rows, pageSize, Category::getId, categoryMapper::toDTO);
+    }
+
     /**
      * Get a category by ID.
      *
@@ -54,8 +95,42 @@ public class CategoryService {
         return categoryMapper.toDTO(category);
     }
 
+    /**
+     * Get the entity tag of a category's current representation, from its version alone.
+     *
+     * @param id the category ID
+     * @return the entity tag, or empty if the category does not exist
+     */
+    public Optional<String> findCategoryETag(Long id) {
+        return categoryRepository.findVersionById(id)
+                .map(version -> EntityTags.of(id, version));
+    }
+
+    /**
+     * Get the entity tag of a category representation already loaded.
+     *
+     * @param category the category DTO
+     * @return the entity tag, equal to the one {@link #findCategoryETag(Long)} returns while it is unchanged
+     */
+    public String getCategoryETag(CategoryDTO category) {
+        return EntityTags.of(category.getId(), category.getVersion());
+    }
+
+    /**
+     * Get the entity tag shared by the category listings, from the latest update time, row count and sum of
+     * row versions.
+     *
+     * @return the entity tag
+     */
+    public String getCategoriesETag() {
+        TableVersion version = categoryRepository.findTableVersion();
+        return EntityTags.of(version.getLastUpdatedAt(), version.getRowCount(), version.getVersionSum());
+    }
+
     /**
      * Create a new category.
+     * The name is not checked beforehand: the unique constraint rejects a duplicate in the INSERT itself,
+     * which also covers two concurrent creations of the same name.
      *
      * @param requestDTO the category request DTO
      * @return the created category DTO
@@ -65,57 +140,135 @@ public class CategoryService {
     public CategoryDTO createCategory(CategoryRequestDTO requestDTO) {
         log.debug("Creating category with name: {}", requestDTO.getName());
 
-        if (categoryRepository.existsByName(requestDTO.getName())) {
+        Category category = categoryMapper.toEntity(requestDTO);
+        Category savedCategory;
+        try {
+            savedCategory = categoryRepository.save(category);
+        } catch (DataIntegrityViolationException e) {
             throw new DuplicateResourceException("Category", "name", requestDTO.getName());
         }
-
-        Category category = categoryMapper.toEntity(requestDTO);
-        Category savedCategory = categoryRepository.save(category);
         log.info("Category created with id: {}", savedCategory.getId());
-        return categoryMapper.toDTO(savedCategory);
+        CategoryDTO categoryDTO = categoryMapper.toDTO(savedCategory);
+        eventPublisher.publishEvent(
+                new CategoryChangedEvent(ChangeType.CREATED, savedCategory.getId(), null, categoryDTO));
+        return categoryDTO;
     }
 
     /**
-     * Update an existing category.
+     * Make sure categories with the given names exist, creating the missing ones in one statement.
+     * Duplicate names are synced once. A category deleted by a concurrent transaction after the upsert found
+     * it is upserted once more.
      *
-     * @param id         the category ID
-     * @param requestDTO the category request DTO
+     * @param names the category names
+     * @return one entry per distinct name, in request order, with its ID and whether it was created
+     * @throws OptimisticLockingFailureException if a category is deleted concurrently again
+     */
+    @Transactional
+    public List<CategoryUpsertDTO> upsertCategories(List<String> names) {
+        List<String> distinctNames = names.stream().distinct().toList();
+        log.debug("Upserting {} categories", distinctNames.size());
+
+        Map<String, UpsertedCategory> byName = upsertByName(distinctNames);
+        List<String> deleted = distinctNames.stream().filter(name -> !byName.containsKey(name)).toList();
+        if (!deleted.isEmpty()) {
+            log.debug("Upserting {} categories deleted concurrently again", deleted.size());
+            byName.putAll(upsertByName(deleted));
+        }
+        List<CategoryUpsertDTO> result = new ArrayList<>(distinctNames.size());
+        int created = 0;
+        for (String name : distinctNames) {
+            UpsertedCategory upserted = byName.get(name);
+            if (upserted == null) {
+                throw new OptimisticLockingFailureException("Category " + name + " was deleted concurrently");
+            }
+            Long id = upserted.category().getId();
+            if (upserted.created()) {
+                created++;
+                eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.CREATED, id, null,
+                        categoryMapper.toDTO(upserted.category())));
+            }
+            result.add(new CategoryUpsertDTO(id, name, upserted.created()));
+        }
+        log.info("Upserted {} categories, {} created", result.size(), created);
+        return result;
+    }
+
+    /**
+     * Update an existing category, optionally only if it still has one of the given entity tags.
+     * The update applies to the version that was read: if another write commits in between, it fails
+     * instead of overwriting that write.
+     *
+     * @param id            the category ID
+     * @param requestDTO    the category request DTO
+     * @param expectedETags the entity tags the client's copy may have, or null for an unconditional update
      * @return the updated category DTO
-     * @throws ResourceNotFoundException  if category not found
-     * @throws DuplicateResourceException if category name already exists
+     * @throws ResourceNotFoundException         if category not found
+     * @throws DuplicateResourceException        if category name already exists
+     * @throws PreconditionFailedException       if the category's entity tag is not one of the expected ones,
+     *                                           or the category changes before the update is written
+     * @throws OptimisticLockingFailureException if an unconditional update races with another write
      */
     @Transactional
-    public CategoryDTO updateCategory(Long id, CategoryRequestDTO requestDTO) {
+    public CategoryDTO updateCategory(Long id, CategoryRequestDTO requestDTO, Collection<String> expectedETags) {
         log.debug("Updating category with id: {}", id);
 
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", id));
+        if (expectedETags != null && !expectedETags.contains(EntityTags.of(id, category.getVersion()))) {
+            throw new PreconditionFailedException("Category", id);
+        }
 
         if (!category.getName().equals(requestDTO.getName()) &&
                 categoryRepository.existsByName(requestDTO.getName())) {
             throw new DuplicateResourceException("Category", "name", requestDTO.getName());
         }
 
+        String previousName = category.getName();
         categoryMapper.updateEntityFromDTO(category, requestDTO);
-        Category updatedCategory = categoryRepository.save(category);
+        Category updatedCategory;
+        try {
+            // Flushed here, so a version conflict surfaces now and the DTO carries the new version
+            updatedCategory = categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException e) {
+            // The name was taken by a category created after the check above
+            throw new DuplicateResourceException("Category", "name", requestDTO.getName());
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedETags != null) {
+                throw new PreconditionFailedException("Category", id);
+            }
+            throw e;
+        }
         log.info("Category updated with id: {}", updatedCategory.getId());
-        return categoryMapper.toDTO(updatedCategory);
+        CategoryDTO categoryDTO = categoryMapper.toDTO(updatedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.UPDATED, id, previousName, categoryDTO));
+        return categoryDTO;
     }
 
     /**
-     * Delete a category by ID.
+     * Delete a category by ID. Only an empty category can be deleted: its products must be deleted first,
+     * through the product deletion that records their tombstones, events and stock movements.
      *
      * @param id the category ID
      * @throws ResourceNotFoundException if category not found
+     * @throws ResourceInUseException    if the category still has products
      */
     @Transactional
     public void deleteCategory(Long id) {
         log.debug("Deleting category with id: {}", id);
-        if (!categoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Category", id);
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", id));
+        if (categoryRepository.hasProducts(id)) {
+            throw new ResourceInUseException("Category", id, "products");
+        }
+        try {
+            categoryRepository.delete(category);
+            // Flushed here, so a product created after the check above is refused by the foreign key
+            categoryRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceInUseException("Category", id, "products");
         }
-        categoryRepository.deleteById(id);
         log.info("Category deleted with id: {}", id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.DELETED, id, category.getName(), null));
     }
 
     /**
@@ -130,4 +283,10 @@ public class CategoryService {
         return categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", id));
     }
+
+    private Map<String, UpsertedCategory> upsertByName(List<String> names) {
+        return categoryRepository.upsertAllByName(names).stream()
+                .collect(Collectors.toMap(upserted -> upserted.category().getName(), Function.identity(),
+                        (first, second) -> first, HashMap::new));
+    }
 }
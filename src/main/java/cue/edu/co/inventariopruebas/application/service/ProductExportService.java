@@ -0,0 +1,130 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import cue.edu.co.inventariopruebas.application.dto.ExportFormat;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.ExportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service that streams the full product catalog to an output stream.
+ * Rows are written as they are read from the database cursor, so memory use does not
+ * depend on the catalog size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportService {
+
+    private static final String CSV_HEADER =
+            "id,name,description,price,stock,reorderPoint,categoryId,categoryName,createdAt,updatedAt";
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Write every product to the output stream in the given format.
+     *
+     * @param format the export format
+     * @param out    the stream to write to; it is flushed but not closed
+     * @return the number of products written
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(ExportFormat format, OutputStream out) throws IOException {
+        log.debug("Exporting products as {} with fetch size: {}", format, exportProperties.getFetchSize());
+        long count;
+        try (Stream<ProductDTO> rows = productRepository.streamAllForExport(exportProperties.getFetchSize())) {
+            count = format == ExportFormat.CSV
+                    ? writeCsv(rows.iterator(), out)
+                    : writeNdjson(rows.iterator(), out);
+        }
+        log.info("Exported {} products as {}", count, format);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<ProductDTO> rows, OutputStream out) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                rowWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+            generator.flush();
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<ProductDTO> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            ProductDTO product = rows.next();
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writeCsvField(writer, product.getName());
+            writer.write(',');
+            writeCsvField(writer, product.getDescription());
+            writer.write(',');
+            writer.write(product.getPrice().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(product.getStock()));
+            writer.write(',');
+            writer.write(String.valueOf(product.getReorderPoint()));
+            writer.write(',');
+            writer.write(String.valueOf(product.getCategoryId()));
+            writer.write(',');
+            writeCsvField(writer, product.getCategoryName());
+            writer.write(',');
+            writer.write(String.valueOf(product.getCreatedAt()));
+            writer.write(',');
+            writer.write(String.valueOf(product.getUpdatedAt()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Write a text field, quoting it as RFC 4180 requires when it contains separators or quotes.
+     */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
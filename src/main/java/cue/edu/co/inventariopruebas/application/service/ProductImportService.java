@@ -0,0 +1,274 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import cue.edu.co.inventariopruebas.application.dto.ExportFormat;
+import cue.edu.co.inventariopruebas.application.dto.ProductImportErrorDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductImportResultDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.event.ProductsImportedEvent;
+import cue.edu.co.inventariopruebas.application.importer.CsvRecordReader;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.IdAndName;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.ImportProperties;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Service that bulk-loads products from a streamed CSV or NDJSON body.
+ * <p>
+ * Rows are validated against the {@link ProductRequestDTO} constraints and buffered in chunks that are
+ * written with a single COPY (PostgreSQL) or JDBC batch each, so memory use is bounded by the chunk size.
+ * Categories are resolved from one map loaded up front, by {@code categoryId} or, when the ID is absent,
+ * by {@code categoryName}. Invalid rows are skipped and reported.
+ * <p>
+ * Each chunk commits in its own transaction as soon as it is written, so its rows reach the change feed
+ * within its settle time however long the body takes to stream; a failure leaves the earlier chunks
+ * imported. {@code ProductBulkRepositoryImpl} also writes the {@code CREATED} stock movement of each row
+ * with stock, in the row's transaction, so no movement goes through the stock movement ledger.
+ * <p>
+ * CSV bodies need a header row; columns are matched by name, case-insensitively, and unknown columns
+ * such as those of the export ({@code id}, {@code createdAt}) are ignored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties importProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Import every valid row of the body, one committed chunk at a time.
+     *
+     * @param format the body format
+     * @param in     the request body; it is read to the end but not closed
+     * @return the number of imported and rejected rows, with the first row errors
+     * @throws IOException if reading the body fails
+     */
+    public ProductImportResultDTO importProducts(ExportFormat format, InputStream in) throws IOException {
+        Map<String, Long> categoryIdsByName = new HashMap<>();
+        for (IdAndName category : categoryRepository.findAllIdsAndNames()) {
+            categoryIdsByName.put(normalize(category.getName()), category.getId());
+        }
+
+        ImportRun run = new ImportRun(categoryIdsByName);
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+
+        log.info("Imported {} products as {}, rejected {} rows", run.imported, format, run.rejected);
+        if (run.imported > 0) {
+            eventPublisher.publishEvent(new ProductsImportedEvent(run.imported));
+        }
+        return new ProductImportResultDTO(run.imported, run.rejected, run.errors,
+                run.rejected > run.errors.size());
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header;
+        try {
+            header = csv.readRecord();
+        } catch (CsvRecordReader.MalformedCsvException e) {
+            run.reject(1, null, e.getMessage());
+            return;
+        }
+        if (header == null) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String column : header) {
+            columns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+
+        long row = 0;
+        while (true) {
+            List<String> values;
+            try {
+                values = csv.readRecord();
+            } catch (CsvRecordReader.MalformedCsvException e) {
+                // The rest of the body cannot be split into records reliably
+                run.reject(row + 1, null, e.getMessage());
+                return;
+            }
+            if (values == null) {
+                return;
+            }
+            row++;
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                fields.put(columns.get(i), values.get(i).isEmpty() ? null : values.get(i));
+            }
+            run.accept(row, fields);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        ObjectReader jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            JsonNode node;
+            try {
+                node = jsonReader.readTree(line);
+            } catch (JsonProcessingException e) {
+                run.reject(row, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                run.reject(row, null, "Row must be a JSON object");
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            node.fields().forEachRemaining(entry -> {
+                if (!entry.getValue().isNull()) {
+                    fields.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue().asText());
+                }
+            });
+            run.accept(row, fields);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * State of one import: the chunk being buffered, counts and reported errors.
+     */
+    private final class ImportRun {
+
+        private final Map<String, Long> categoryIdsByName;
+        private final Set<Long> categoryIds;
+        private final List<ProductRequestDTO> chunk = new ArrayList<>();
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+        private final Set<String> rowErrorFields = new HashSet<>();
+        private long imported;
+        private long rejected;
+
+        ImportRun(Map<String, Long> categoryIdsByName) {
+            this.categoryIdsByName = categoryIdsByName;
+            this.categoryIds = new HashSet<>(categoryIdsByName.values());
+        }
+
+        void accept(long row, Map<String, String> fields) {
+            rowErrorFields.clear();
+            ProductRequestDTO product = new ProductRequestDTO();
+            product.setName(fields.get("name"));
+            product.setDescription(fields.get("description"));
+            product.setPrice(parse(row, "price", fields.get("price"), BigDecimal::new));
+            product.setStock(parse(row, "stock", fields.get("stock"), Integer::valueOf));
+            product.setReorderPoint(parse(row, "reorderPoint", fields.get("reorderpoint"), Integer::valueOf));
+            product.setCategoryId(resolveCategory(row, fields));
+
+            for (ConstraintViolation<ProductRequestDTO> violation : validator.validate(product)) {
+                String field = violation.getPropertyPath().toString();
+                // A field that failed to parse is null; do not report it twice
+                if (!rowErrorFields.contains(field)) {
+                    fieldError(row, field, violation.getMessage());
+                }
+            }
+            if (!rowErrorFields.isEmpty()) {
+                rejected++;
+                return;
+            }
+            chunk.add(product);
+            if (chunk.size() >= importProperties.getChunkSize()) {
+                flush();
+            }
+        }
+
+        void reject(long row, String field, String message) {
+            addError(row, field, message);
+            rejected++;
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            productRepository.insertAll(chunk);
+            imported += chunk.size();
+            chunk.clear();
+        }
+
+        private Long resolveCategory(long row, Map<String, String> fields) {
+            String categoryName = fields.get("categoryname");
+            if (fields.get("categoryid") == null && categoryName != null) {
+                Long categoryId = categoryIdsByName.get(normalize(categoryName));
+                if (categoryId == null) {
+                    fieldError(row, "categoryId", "Category not found with name: " + categoryName);
+                }
+                return categoryId;
+            }
+            Long categoryId = parse(row, "categoryId", fields.get("categoryid"), Long::valueOf);
+            if (categoryId != null && !categoryIds.contains(categoryId)) {
+                fieldError(row, "categoryId", "Category not found with id: " + categoryId);
+                return null;
+            }
+            return categoryId;
+        }
+
+        private <T> T parse(long row, String field, String value, Function<String, T> parser) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value.trim());
+            } catch (NumberFormatException e) {
+                fieldError(row, field, "Invalid number: " + value);
+                return null;
+            }
+        }
+
+        private void fieldError(long row, String field, String message) {
+            rowErrorFields.add(field);
+            addError(row, field, message);
+        }
+
+        private void addError(long row, String field, String message) {
+            if (errors.size() < importProperties.getMaxErrors()) {
+                errors.add(new ProductImportErrorDTO(row, field, message));
+            }
+        }
+    }
+}
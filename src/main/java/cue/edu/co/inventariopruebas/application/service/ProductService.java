@@ -1,22 +1,70 @@
 package cue.edu.co.inventariopruebas.application.service;
 
+import cue.edu.co.inventariopruebas.application.cache.ProductCache;
+import cue.edu.co.inventariopruebas.application.dto.CategoryStatsDTO;
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import cue.edu.co.inventariopruebas.application.dto.ProductBatchDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductChangesDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.StockLevelDTO;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.InMemoryStockUpdateEvent;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.StockChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.StockMovementEvent;
+import cue.edu.co.inventariopruebas.application.mapper.CursorCodec;
+import cue.edu.co.inventariopruebas.application.mapper.CursorCodec.ChangePosition;
+import cue.edu.co.inventariopruebas.application.mapper.EntityTags;
 import cue.edu.co.inventariopruebas.application.mapper.ProductMapper;
+import cue.edu.co.inventariopruebas.application.stock.InMemoryStockCounters;
 import cue.edu.co.inventariopruebas.domain.entity.Category;
 import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.entity.ProductTombstone;
+import cue.edu.co.inventariopruebas.domain.entity.StockMovementReason;
+import cue.edu.co.inventariopruebas.domain.exception.InsufficientStockException;
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import cue.edu.co.inventariopruebas.domain.exception.PreconditionFailedException;
 import cue.edu.co.inventariopruebas.domain.exception.ResourceNotFoundException;
+import cue.edu.co.inventariopruebas.domain.repository.CatalogVersion;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryStats;
 import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductTombstoneRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.ChangeFeedProperties;
+import cue.edu.co.inventariopruebas.infrastructure.config.PaginationProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Service class for Product business logic.
+ * Read paths use the repository's DTO projections, so each runs a single SQL statement.
+ * Products whose stock is held in memory ({@link InMemoryStockCounters}) are returned with their live stock.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,6 +74,13 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final CategoryService categoryService;
+    private final CursorCodec cursorCodec;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductCache productCache;
+    private final InMemoryStockCounters stockCounters;
+    private final ProductTombstoneRepository productTombstoneRepository;
+    private final ChangeFeedProperties changeFeedProperties;
 
     /**
      * Get all products.
@@ -35,24 +90,189 @@ public class ProductService {
     @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
         log.debug("Getting all products");
-        return productRepository.findAllWithCategory().stream()
-                .map(productMapper::toDTO)
-                .collect(Collectors.toList());
+        return withLiveStock(productRepository.findAllDTOs());
+    }
+
+    /**
+     * Get one page of products using keyset pagination, optionally filtered by category or name.
+     * The category filter takes precedence over the name search, as in the unpaginated listings.
+     *
+     * @param categoryId the category ID to filter by, may be null
+     * @param search     the name to search for, may be null
+     * @param after      the cursor returned with the previous page, null for the first page
+     * @param limit      the requested page size, capped by the configured maximum
+     * @return the page of product DTOs and the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDTO> getProductsPage(Long categoryId, String search, String after, Integer limit) {
+        int pageSize = paginationProperties.resolveLimit(limit);
+        long afterId = cursorCodec.decode(after);
+        log.debug("Getting products page after id: {} with limit: {}", afterId, pageSize);
+
+        Pageable window = PageRequest.of(0, pageSize + 1);
+        List<ProductDTO> rows;
+        if (categoryId != null) {
+            rows = productRepository.findPageByCategoryIdAfter(categoryId, afterId, window);
+        } else if (search != null && !search.trim().isEmpty()) {
+            rows = productRepository.findPageByNameContainingAfter(search, afterId, window);
+        } else {
+            rows = productRepository.findPageAfter(afterId, window);
+        }
+        return cursorCodec.toPage(withLiveStock(rows), pageSize, ProductDTO::getId, Function.identity());
     }
 
     /**
      * Get a product by ID.
+     * Served from the product cache; not transactional, so a cache hit never touches the database.
      *
      * @param id the product ID
      * @return the product DTO
      * @throws ResourceNotFoundException if product not found
      */
-    @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
         log.debug("Getting product with id: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", id));
-        return productMapper.toDTO(product);
+        ProductDTO product = productCache.get(id, key -> productRepository.findDTOById(key).orElse(null));
+        if (product == null) {
+            throw new ResourceNotFoundException("Product", id);
+        }
+        return withLiveStock(product);
+    }
+
+    /**
+     * Get several products by ID.
+     * Cached products are taken from the product cache and the rest are loaded in one statement. Each
+     * product is returned once, in the order its ID first appears in the request.
+     *
+     * @param ids the product IDs, at most the configured maximum
+     * @return the products found and the IDs that do not exist
+     * @throws InvalidRequestException if no ID, a null ID or too many IDs are given
+     */
+    public ProductBatchDTO getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("At least one product ID is required and IDs must not be empty");
+        }
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > paginationProperties.getMaxBatchIds()) {
+            throw new InvalidRequestException(
+                    "At most " + paginationProperties.getMaxBatchIds() + " product IDs can be requested at once");
+        }
+        log.debug("Getting {} products by id", requested.size());
+
+        Map<Long, ProductDTO> found = new HashMap<>(productCache.getAllPresent(requested));
+        List<Long> uncached = requested.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!uncached.isEmpty()) {
+            productRepository.findDTOsByIdIn(uncached).forEach(product -> found.put(product.getId(), product));
+        }
+
+        List<ProductDTO> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO product = found.get(id);
+            if (product == null) {
+                missingIds.add(id);
+            } else {
+                products.add(withLiveStock(product));
+            }
+        }
+        return new ProductBatchDTO(products, missingIds);
+    }
+
+    /**
+     * Get the products created, updated or deleted after a change feed cursor, oldest change first.
+     * Updates and deletions are read through their (time, product ID) indexes and merged, so a page costs
+     * two statements however large the catalog. Changes younger than the configured settle time are left
+     * for the next call, as their transactions may not have committed yet.
+     *
+     * @param since the cursor returned by the previous call, null to read the feed from the beginning
+     * @param limit the requested number of changes, capped by the configured maximum
+     * @return the changed products, the deleted IDs and the cursor for the next call
+     * @throws InvalidRequestException if the cursor is malformed or the limit is not positive
+     */
+    @Transactional(readOnly = true)
+    public ProductChangesDTO getProductChanges(String since, Integer limit) {
+        int pageSize = paginationProperties.resolveLimit(limit);
+        ChangePosition start = cursorCodec.decodeChange(since);
+        LocalDateTime until = LocalDateTime.now().minus(changeFeedProperties.getSettleTime());
+        log.debug("Getting up to {} product changes after {}", pageSize, start);
+
+        Pageable window = PageRequest.of(0, pageSize + 1);
+        List<ProductDTO> updated = productRepository.findDTOsChangedAfter(start.changedAt(), start.id(), until, window);
+        List<ProductTombstone> deleted =
+                productTombstoneRepository.findDeletedAfter(start.changedAt(), start.id(), until, window);
+
+        List<ProductDTO> products = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        ChangePosition last = null;
+        int u = 0;
+        int d = 0;
+        while (products.size() + deletedIds.size() < pageSize && (u < updated.size() || d < deleted.size())) {
+            ChangePosition update = u < updated.size()
+                    ? new ChangePosition(updated.get(u).getUpdatedAt(), updated.get(u).getId()) : null;
+            ChangePosition deletion = d < deleted.size()
+                    ? new ChangePosition(deleted.get(d).getDeletedAt(), deleted.get(d).getProductId()) : null;
+            if (deletion == null || (update != null && update.compareTo(deletion) < 0)) {
+                products.add(updated.get(u++));
+                last = update;
+            } else {
+                deletedIds.add(deleted.get(d++).getProductId());
+                last = deletion;
+            }
+        }
+        // Each list was read one row past the page, so a row left over in either means more changes
+        boolean hasMore = u < updated.size() || d < deleted.size();
+        String nextCursor = last == null ? since : cursorCodec.encodeChange(last);
+        return new ProductChangesDTO(withLiveStock(products), deletedIds, nextCursor, hasMore);
+    }
+
+    /**
+     * Get the entity tag of a product's current representation, without loading the product.
+     * Taken from the product cache when the product is cached, so it matches what a read would return,
+     * and otherwise from a metadata query on the product's version, stock and category.
+     * The tag is a digest of the version and category followed by the stock, which stays in the tag so reads
+     * revalidate when stock held in memory changes; update preconditions only compare the digest.
+     *
+     * @param id the product ID
+     * @return the entity tag, or empty if the product does not exist
+     */
+    public Optional<String> findProductETag(Long id) {
+        ProductDTO cached = productCache.peek(id);
+        if (cached != null) {
+            return Optional.of(getProductETag(withLiveStock(cached)));
+        }
+        return productRepository.findVersionById(id)
+                .map(version -> productETag(id, version.getVersion(),
+                        stockCounters.getStock(id).orElse(version.getStock()),
+                        version.getCategoryId(), version.getCategoryName()));
+    }
+
+    /**
+     * Get the entity tag of a product representation already loaded.
+     *
+     * @param product the product DTO
+     * @return the entity tag, equal to the one {@link #findProductETag(Long)} returns while it is unchanged
+     */
+    public String getProductETag(ProductDTO product) {
+        return productETag(product.getId(), product.getVersion(), product.getStock(),
+                product.getCategoryId(), product.getCategoryName());
+    }
+
+    /**
+     * Get the entity tag shared by the product listings, from the latest update time, row count and sum of
+     * row versions of the products and categories. It changes whenever any listed product or category name
+     * changes, even when a change commits after one stamped later.
+     *
+     * @return the entity tag
+     */
+    public String getProductsETag() {
+        CatalogVersion version = productRepository.findCatalogVersion();
+        List<Object> parts = new ArrayList<>(Arrays.asList(
+                version.getProductsUpdatedAt(), version.getProductCount(), version.getProductVersionSum(),
+                version.getCategoriesUpdatedAt(), version.getCategoryCount(), version.getCategoryVersionSum()));
+        // Stock held in memory changes without touching the update time until the next flush
+        for (Long id : stockCounters.getManagedProductIds().stream().sorted().toList()) {
+            parts.add(id + "=" + stockCounters.getStock(id).orElse(0));
+        }
+        return EntityTags.of(parts.toArray());
     }
 
     /**
@@ -64,9 +284,7 @@ public class ProductService {
     @Transactional(readOnly = true)
     public List<ProductDTO> getProductsByCategoryId(Long categoryId) {
         log.debug("Getting products for category id: {}", categoryId);
-        return productRepository.findByCategoryId(categoryId).stream()
-                .map(productMapper::toDTO)
-                .collect(Collectors.toList());
+        return withLiveStock(productRepository.findDTOsByCategoryId(categoryId));
     }
 
     /**
@@ -78,9 +296,25 @@ public class ProductService {
     @Transactional(readOnly = true)
     public List<ProductDTO> searchProductsByName(String name) {
         log.debug("Searching products with name containing: {}", name);
-        return productRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(productMapper::toDTO)
-                .collect(Collectors.toList());
+        return withLiveStock(productRepository.findDTOsByNameContaining(name));
+    }
+
+    /**
+     * Search products by name and description, ranked by similarity and tolerant of typos.
+     *
+     * @param query the text to search for
+     * @param limit the maximum number of results, capped by the configured maximum
+     * @return matching product DTOs, best matches first
+     * @throws InvalidRequestException if the query is blank
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> searchProductsRanked(String query, Integer limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new InvalidRequestException("Search query is required");
+        }
+        int resultLimit = paginationProperties.resolveLimit(limit);
+        log.debug("Ranked search for: {} with limit: {}", query, resultLimit);
+        return withLiveStock(productRepository.searchRanked(query.trim(), resultLimit));
     }
 
     /**
@@ -98,29 +332,140 @@ public class ProductService {
         Product product = productMapper.toEntity(requestDTO, category);
         Product savedProduct = productRepository.save(product);
         log.info("Product created with id: {}", savedProduct.getId());
-        return productMapper.toDTO(savedProduct);
+        ProductDTO productDTO = productMapper.toDTO(savedProduct);
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(ChangeType.CREATED, savedProduct.getId(), null, productDTO));
+        publishStockMovement(savedProduct.getId(), savedProduct.getStock(), savedProduct.getStock(),
+                StockMovementReason.CREATED);
+        return productDTO;
     }
 
     /**
-     * Update an existing product.
+     * Update an existing product, optionally only if it still has one of the given entity tags.
+     * The update applies to the version that was read: if another write commits in between, it fails
+     * instead of overwriting that write. The stock is not part of the precondition: it changes the version
+     * whenever it is written to the column, while stock held in memory changes on every reservation.
+     * For such a product the requested stock is applied as a change relative to the stock the client saw,
+     * the one in its entity tag (or the live stock for an unconditional update), once the update has
+     * committed, so reservations made in between are kept rather than overwritten.
      *
-     * @param id         the product ID
-     * @param requestDTO the product request DTO
+     * @param id            the product ID
+     * @param requestDTO    the product request DTO
+     * @param expectedETags the entity tags the client's copy may have, or null for an unconditional update
      * @return the updated product DTO
-     * @throws ResourceNotFoundException if product or category not found
+     * @throws ResourceNotFoundException         if product or category not found
+     * @throws PreconditionFailedException       if the product's entity tag is not one of the expected ones,
+     *                                           or the product changes before the update is written
+     * @throws InsufficientStockException        if the change to stock held in memory would leave it negative
+     * @throws InvalidRequestException           if it would take stock held in memory above {@link Integer#MAX_VALUE}
+     * @throws OptimisticLockingFailureException if an unconditional update races with another write
      */
     @Transactional
-    public ProductDTO updateProduct(Long id, ProductRequestDTO requestDTO) {
+    public ProductDTO updateProduct(Long id, ProductRequestDTO requestDTO, Collection<String> expectedETags) {
         log.debug("Updating product with id: {}", id);
 
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", id));
+        String versionTag = productVersionTag(id, product.getVersion(),
+                product.getCategory().getId(), product.getCategory().getName());
+        OptionalInt taggedStock = expectedETags == null ? OptionalInt.empty() : taggedStock(expectedETags, versionTag);
+        if (expectedETags != null && taggedStock.isEmpty()) {
+            throw new PreconditionFailedException("Product", id);
+        }
 
+        String previousName = product.getName();
         Category category = categoryService.getCategoryEntityById(requestDTO.getCategoryId());
+        Integer storedStock = product.getStock();
+        int previousStock = stockCounters.getStock(id).orElse(storedStock);
         productMapper.updateEntityFromDTO(product, requestDTO, category);
-        Product updatedProduct = productRepository.save(product);
+        boolean managed = stockCounters.isManaged(id);
+        int stockDelta = requestDTO.getStock() - taggedStock.orElse(previousStock);
+        if (managed) {
+            long stockAfter = (long) previousStock + stockDelta;
+            if (stockAfter < 0 || stockAfter > Integer.MAX_VALUE) {
+                throw refusedStockChange(id, stockDelta);
+            }
+            // Left unchanged, so the update does not write the column, which only the flush writes
+            product.setStock(storedStock);
+        }
+        Product updatedProduct;
+        try {
+            // Flushed here, so a version conflict surfaces now and the DTO carries the new version
+            updatedProduct = productRepository.saveAndFlush(product);
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedETags != null) {
+                throw new PreconditionFailedException("Product", id);
+            }
+            throw e;
+        }
         log.info("Product updated with id: {}", updatedProduct.getId());
-        return productMapper.toDTO(updatedProduct);
+        ProductDTO productDTO = productMapper.toDTO(updatedProduct);
+        if (managed) {
+            // The in-memory stock takes the change from the event once the update commits
+            productDTO.setStock(previousStock + stockDelta);
+            eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED, id, previousName, productDTO));
+            if (stockDelta != 0) {
+                eventPublisher.publishEvent(new InMemoryStockUpdateEvent(id, stockDelta));
+            }
+            return productDTO;
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED, id, previousName, productDTO));
+        publishStockMovement(id, requestDTO.getStock() - previousStock, requestDTO.getStock(),
+                StockMovementReason.UPDATED);
+        return productDTO;
+    }
+
+    /**
+     * Apply the stock change of a committed update to a product held in memory, publish the stock it
+     * leaves and record it in the stock ledger. Reservations made since the client's read may have taken
+     * the units a negative change removes; only the units left are then taken out, and the ledger records
+     * the change actually applied.
+     *
+     * @param event the stock change of the update
+     */
+    @TransactionalEventListener
+    public void onInMemoryStockUpdate(InMemoryStockUpdateEvent event) {
+        Long id = event.getProductId();
+        OptionalInt applied = stockCounters.adjustUpToAvailable(id, event.getDelta());
+        if (applied.isEmpty()) {
+            return;
+        }
+        if (applied.getAsInt() != event.getDelta()) {
+            log.warn("Stock of product id: {} changed by {} instead of {}: reservations took the rest",
+                    id, applied.getAsInt(), event.getDelta());
+        }
+        int stock = stockCounters.getStock(id).orElse(0);
+        eventPublisher.publishEvent(new StockChangedEvent(id, applied.getAsInt(), stock, true));
+        publishStockMovement(id, applied.getAsInt(), stock, StockMovementReason.UPDATED);
+    }
+
+    /**
+     * Add a delta to the stock of a product atomically, without loading it.
+     * Products held in memory are changed without touching the database; the change is flushed later.
+     *
+     * @param id    the product ID
+     * @param delta the amount to add, negative to take units out
+     * @return the stock after the change
+     * @throws ResourceNotFoundException  if product not found
+     * @throws InsufficientStockException if the change would leave the stock negative
+     * @throws InvalidRequestException    if the change would take the stock above {@link Integer#MAX_VALUE}
+     */
+    public StockLevelDTO adjustStock(Long id, int delta) {
+        log.debug("Adjusting stock of product with id: {} by: {}", id, delta);
+        if (stockCounters.isManaged(id)) {
+            int stock = stockCounters.tryAdjust(id, delta)
+                    .orElseThrow(() -> refusedStockChange(id, delta));
+            eventPublisher.publishEvent(new StockChangedEvent(id, delta, stock, true));
+            publishStockMovement(id, delta, stock, StockMovementReason.ADJUSTED);
+            return new StockLevelDTO(id, stock);
+        }
+        Integer stock = productRepository.adjustStock(id, delta)
+                .orElseThrow(() -> productRepository.existsById(id)
+                        ? refusedStockChange(id, delta)
+                        : new ResourceNotFoundException("Product", id));
+        eventPublisher.publishEvent(new StockChangedEvent(id, delta, stock, false));
+        publishStockMovement(id, delta, stock, StockMovementReason.ADJUSTED);
+        return new StockLevelDTO(id, stock);
     }
 
     /**
@@ -132,11 +477,14 @@ public class ProductService {
     @Transactional
     public void deleteProduct(Long id) {
         log.debug("Deleting product with id: {}", id);
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product", id);
-        }
-        productRepository.deleteById(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", id));
+        int remainingStock = stockCounters.getStock(id).orElse(product.getStock());
+        productRepository.delete(product);
+        productTombstoneRepository.save(new ProductTombstone(id));
         log.info("Product deleted with id: {}", id);
+        eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.DELETED, id, product.getName(), null));
+        publishStockMovement(id, -remainingStock, 0, StockMovementReason.DELETED);
     }
 
     /**
@@ -148,8 +496,140 @@ public class ProductService {
     @Transactional(readOnly = true)
     public List<ProductDTO> getLowStockProducts(Integer threshold) {
         log.debug("Getting products with stock below: {}", threshold);
-        return productRepository.findByStockLessThan(threshold).stream()
-                .map(productMapper::toDTO)
-                .collect(Collectors.toList());
+        return withLiveStock(productRepository.findDTOsByStockLessThan(threshold),
+                product -> product.getStock() < threshold);
+    }
+
+    /**
+     * Get the products whose stock is below their own reorder point.
+     *
+     * @return list of product DTOs to reorder
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsBelowReorderPoint() {
+        log.debug("Getting products below their reorder point");
+        return withLiveStock(productRepository.findDTOsBelowReorderPoint(),
+                product -> product.getStock() < product.getReorderPoint());
+    }
+
+    /**
+     * Get the product count, total stock and stock value of every category, aggregated by the database in
+     * one grouped query. Stock held in memory is counted at its live value.
+     *
+     * @return the aggregates of each category, ordered by category ID
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryStatsDTO> getCategoryStats() {
+        log.debug("Getting category stats");
+        Map<Long, CategoryStatsDTO> stats = new LinkedHashMap<>();
+        for (CategoryStats row : productRepository.findCategoryStats()) {
+            stats.put(row.getCategoryId(), new CategoryStatsDTO(row.getCategoryId(), row.getCategoryName(),
+                    row.getProductCount(),
+                    row.getTotalStock() == null ? 0L : row.getTotalStock(),
+                    row.getStockValue() == null ? BigDecimal.ZERO : row.getStockValue()));
+        }
+        // The column lags behind the in-memory stock until the next flush; add the unflushed difference
+        Set<Long> managedIds = stockCounters.getManagedProductIds();
+        if (!managedIds.isEmpty()) {
+            for (ProductDTO stored : productRepository.findDTOsByIdIn(managedIds)) {
+                int unflushed = stockCounters.getStock(stored.getId()).orElse(stored.getStock()) - stored.getStock();
+                CategoryStatsDTO category = stats.get(stored.getCategoryId());
+                if (unflushed != 0 && category != null) {
+                    category.setTotalStock(category.getTotalStock() + unflushed);
+                    category.setStockValue(category.getStockValue()
+                            .add(stored.getPrice().multiply(BigDecimal.valueOf(unflushed))));
+                }
+            }
+        }
+        return new ArrayList<>(stats.values());
+    }
+
+    private static String productETag(Long id, Long version, Integer stock, Long categoryId, String categoryName) {
+        return productVersionTag(id, version, categoryId, categoryName) + "-" + stock;
+    }
+
+    private static String productVersionTag(Long id, Long version, Long categoryId, String categoryName) {
+        return EntityTags.of(id, version, categoryId, categoryName);
+    }
+
+    private static RuntimeException refusedStockChange(Long id, int delta) {
+        // Only a restock can overflow the stock, and only a reservation can leave it negative
+        if (delta > 0) {
+            return new InvalidRequestException(
+                    String.format("Stock of product with id: %d cannot exceed %d", id, Integer.MAX_VALUE));
+        }
+        return new InsufficientStockException(id, delta);
+    }
+
+    /**
+     * Find the stock carried by the first of the given entity tags that has the product's version tag.
+     */
+    private static OptionalInt taggedStock(Collection<String> eTags, String versionTag) {
+        String prefix = versionTag + "-";
+        for (String tag : eTags) {
+            if (tag.startsWith(prefix)) {
+                try {
+                    return OptionalInt.of(Integer.parseInt(tag.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    // Not a tag this service issued
+                }
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Publish a stock change for the stock ledger, which writes it once the change has committed.
+     */
+    private void publishStockMovement(Long id, int delta, int stockAfter, StockMovementReason reason) {
+        if (delta != 0) {
+            eventPublisher.publishEvent(new StockMovementEvent(id, delta, stockAfter, reason, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Apply the live stock to the result of a stock-filtered query.
+     * The column lags behind the in-memory stock until the next flush, so products held in memory are
+     * filtered again on their live value, including those the query did not return.
+     */
+    private List<ProductDTO> withLiveStock(List<ProductDTO> products, Predicate<ProductDTO> filter) {
+        if (!stockCounters.hasManagedProducts()) {
+            return products;
+        }
+        List<ProductDTO> filtered = new ArrayList<>(withLiveStock(products));
+        filtered.removeIf(filter.negate());
+        Set<Long> returnedIds = products.stream().map(ProductDTO::getId).collect(Collectors.toSet());
+        List<Long> missingIds = stockCounters.getManagedProductIds().stream()
+                .filter(id -> !returnedIds.contains(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            productRepository.findDTOsByIdIn(missingIds).stream()
+                    .map(this::withLiveStock)
+                    .filter(filter)
+                    .forEach(filtered::add);
+        }
+        filtered.sort(Comparator.comparing(ProductDTO::getId));
+        return filtered;
+    }
+
+    private List<ProductDTO> withLiveStock(List<ProductDTO> products) {
+        if (!stockCounters.hasManagedProducts()) {
+            return products;
+        }
+        return products.stream().map(this::withLiveStock).toList();
+    }
+
+    /**
+     * Replace the stored stock of a product held in memory with its live stock.
+     * Returns a copy, so cached DTOs are never modified.
+     */
+    private ProductDTO withLiveStock(ProductDTO product) {
+        OptionalInt stock = stockCounters.getStock(product.getId());
+        if (stock.isEmpty()) {
+            return product;
+        }
+        return new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                stock.getAsInt(), product.getReorderPoint(), product.getCategoryId(), product.getCategoryName(),
+                product.getCreatedAt(), product.getUpdatedAt(), product.getVersion());
     }
 }
@@ -0,0 +1,226 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import cue.edu.co.inventariopruebas.application.dto.SuggestionDTO;
+import cue.edu.co.inventariopruebas.application.dto.SuggestionIndexStats;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ProductsImportedEvent;
+import cue.edu.co.inventariopruebas.application.search.PrefixTrie;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.IdAndName;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.SuggestionProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service answering typeahead queries from an in-memory prefix index over product and category names.
+ * The index is loaded once the application is ready and kept current from committed
+ * {@link ProductChangedEvent}s and {@link CategoryChangedEvent}s, so lookups never touch the database.
+ * Every word of a name is indexed, so "book" completes "Programming Book". Applying a change is idempotent,
+ * so a change that is both read by a rebuild and delivered as an event is indexed once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SuggestionProperties suggestionProperties;
+
+    private final PrefixTrie<SuggestionDTO> trie = new PrefixTrie<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Rebuild the index from the database. Lookups wait while the rebuild runs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            try (Stream<IdAndName> products = productRepository.streamIdsAndNames()) {
+                products.forEach(row -> addTerms(
+                        new SuggestionDTO(SuggestionDTO.Type.PRODUCT, row.getId(), row.getName())));
+            }
+            categoryRepository.findAllIdsAndNames().forEach(row -> addTerms(
+                    new SuggestionDTO(SuggestionDTO.Type.CATEGORY, row.getId(), row.getName())));
+            log.info("Suggestion index loaded: {} entries, {} nodes, ~{} bytes",
+                    trie.getValueCount(), trie.getNodeCount(), trie.estimateBytes());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get product and category names with a word starting with the prefix.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the requested number of completions, capped by the configured maximum
+     * @return the completions, in alphabetical order of the matched word
+     */
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        int resultLimit = suggestionProperties.resolveLimit(limit);
+        String normalized = normalize(prefix == null ? "" : prefix.trim());
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int maxKeyLength = suggestionProperties.getMaxKeyLength();
+        boolean truncated = normalized.length() > maxKeyLength;
+        String key = truncated ? normalized.substring(0, maxKeyLength) : normalized;
+
+        List<SuggestionDTO> matches;
+        lock.readLock().lock();
+        try {
+            // Truncated keys can over-match, so fetch everything under the key and filter below
+            matches = trie.search(key, truncated ? Integer.MAX_VALUE : resultLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!truncated) {
+            return matches;
+        }
+        return matches.stream()
+                .filter(match -> hasWordStartingWith(normalize(match.getName()), normalized))
+                .limit(resultLimit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the size and estimated memory footprint of the index.
+     *
+     * @return the index statistics
+     */
+    public SuggestionIndexStats getIndexStats() {
+        lock.readLock().lock();
+        try {
+            return new SuggestionIndexStats(trie.getValueCount(), trie.getKeyCount(),
+                    trie.getNodeCount(), trie.estimateBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a committed product change to the index.
+     *
+     * @param event the product change
+     */
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        SuggestionDTO previous = event.getPreviousName() == null ? null
+                : new SuggestionDTO(SuggestionDTO.Type.PRODUCT, event.getProductId(), event.getPreviousName());
+        SuggestionDTO current = event.getProduct() == null ? null
+                : new SuggestionDTO(SuggestionDTO.Type.PRODUCT, event.getProductId(),
+                        event.getProduct().getName());
+        replace(previous, current);
+    }
+
+    /**
+     * Apply a committed category change to the index.
+     *
+     * @param event the category change
+     */
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        SuggestionDTO previous = event.getPreviousName() == null ? null
+                : new SuggestionDTO(SuggestionDTO.Type.CATEGORY, event.getCategoryId(), event.getPreviousName());
+        SuggestionDTO current = event.getCategory() == null ? null
+                : new SuggestionDTO(SuggestionDTO.Type.CATEGORY, event.getCategoryId(),
+                        event.getCategory().getName());
+        replace(previous, current);
+    }
+
+    /**
+     * Reload the index after a committed bulk import, whose new product IDs are not known.
+     *
+     * @param event the import
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuildIndex();
+    }
+
+    private void replace(SuggestionDTO previous, SuggestionDTO current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                removeTerms(previous);
+            }
+            if (current != null) {
+                // The rebuild may already have read a change committed while it ran, so never index it twice
+                for (String key : keysFor(current.getName())) {
+                    trie.addIfAbsent(key, current);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addTerms(SuggestionDTO suggestion) {
+        for (String key : keysFor(suggestion.getName())) {
+            trie.add(key, suggestion);
+        }
+    }
+
+    private void removeTerms(SuggestionDTO suggestion) {
+        for (String key : keysFor(suggestion.getName())) {
+            trie.remove(key, suggestion);
+        }
+    }
+
+    /**
+     * Index keys for a name: the normalized text from each word start, capped at the max key length.
+     */
+    private List<String> keysFor(String name) {
+        String normalized = normalize(name);
+        int maxKeyLength = suggestionProperties.getMaxKeyLength();
+        List<String> keys = new ArrayList<>();
+        for (int start : wordStarts(normalized)) {
+            keys.add(normalized.substring(start, Math.min(normalized.length(), start + maxKeyLength)));
+        }
+        return keys;
+    }
+
+    private static boolean hasWordStartingWith(String text, String prefix) {
+        for (int start : wordStarts(text)) {
+            if (text.startsWith(prefix, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Integer> wordStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            boolean atBoundary = i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1));
+            if (atBoundary && Character.isLetterOrDigit(text.charAt(i))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,129 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryStatsDTO;
+import cue.edu.co.inventariopruebas.application.dto.ValuationGranularity;
+import cue.edu.co.inventariopruebas.application.dto.ValuationPointDTO;
+import cue.edu.co.inventariopruebas.domain.entity.CategoryValuationSnapshot;
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryValuationSnapshotRepository;
+import cue.edu.co.inventariopruebas.domain.repository.DailyValuation;
+import cue.edu.co.inventariopruebas.infrastructure.config.ValuationProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for the inventory valuation history.
+ * A scheduled job stores each category's product count, total stock and stock value once a day, computed
+ * with the grouped category stats query. Time series are then read from the snapshots alone, so their
+ * cost follows the number of days requested rather than the size of the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ValuationSnapshotService {
+
+    private final CategoryValuationSnapshotRepository snapshotRepository;
+    private final ProductService productService;
+    private final ValuationProperties valuationProperties;
+
+    /**
+     * Take today's snapshot on the configured schedule.
+     */
+    @Scheduled(cron = "${inventory.valuation.snapshot-cron:0 5 0 * * *}")
+    @Transactional
+    public void takeScheduledSnapshot() {
+        saveSnapshot(LocalDate.now());
+    }
+
+    /**
+     * Take the snapshot of a day from the current stock, replacing any snapshot already taken that day.
+     *
+     * @param snapshotDate the day to record the snapshot under
+     * @return the number of categories recorded
+     */
+    @Transactional
+    public int takeSnapshot(LocalDate snapshotDate) {
+        return saveSnapshot(snapshotDate);
+    }
+
+    /**
+     * Get the valuation time series of a date range, downsampled to the given granularity.
+     *
+     * @param from        the first day, or null for the configured default range ending on {@code to}
+     * @param to          the last day, or null for today
+     * @param granularity the period to downsample to: {@code day}, {@code week} or {@code month}
+     * @param categoryId  the category to report, or null for the sum of all categories
+     * @return one point per period with snapshots, ordered by period
+     * @throws InvalidRequestException if the range or the granularity is invalid
+     */
+    @Transactional(readOnly = true)
+    public List<ValuationPointDTO> getValuationSeries(LocalDate from, LocalDate to, String granularity,
+                                                      Long categoryId) {
+        ValuationGranularity period = ValuationGranularity.fromParameter(granularity);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(valuationProperties.getDefaultRangeDays() - 1L);
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("The start date " + start + " is after the end date " + end);
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= valuationProperties.getMaxRangeDays()) {
+            throw new InvalidRequestException(
+                    "The date range must not exceed " + valuationProperties.getMaxRangeDays() + " days");
+        }
+        log.debug("Getting {} valuation series from {} to {} for category id: {}", period, start, end, categoryId);
+
+        List<DailyValuation> days = categoryId == null
+                ? snapshotRepository.findDailyTotals(start, end)
+                : snapshotRepository.findDailyTotalsByCategoryId(categoryId, start, end);
+        return downsample(days, period);
+    }
+
+    private int saveSnapshot(LocalDate snapshotDate) {
+        List<CategoryStatsDTO> stats = productService.getCategoryStats();
+        int replaced = snapshotRepository.deleteBySnapshotDate(snapshotDate);
+        snapshotRepository.saveAll(stats.stream()
+                .map(category -> new CategoryValuationSnapshot(snapshotDate, category.getCategoryId(),
+                        category.getCategoryName(), category.getProductCount(), category.getTotalStock(),
+                        category.getStockValue()))
+                .toList());
+        log.info("Valuation snapshot of {} taken for {} categories (replaced {})",
+                snapshotDate, stats.size(), replaced);
+        return stats.size();
+    }
+
+    /**
+     * Group consecutive days into periods, keeping each period's closing values and average stock value.
+     * The days arrive ordered, so each period is a contiguous run.
+     */
+    private static List<ValuationPointDTO> downsample(List<DailyValuation> days, ValuationGranularity period) {
+        List<ValuationPointDTO> points = new ArrayList<>();
+        ValuationPointDTO current = null;
+        BigDecimal valueSum = BigDecimal.ZERO;
+        for (DailyValuation day : days) {
+            LocalDate periodStart = period.periodStart(day.getSnapshotDate());
+            if (current == null || !current.getPeriodStart().equals(periodStart)) {
+                current = new ValuationPointDTO(periodStart, null, null, null, null, null, 0);
+                points.add(current);
+                valueSum = BigDecimal.ZERO;
+            }
+            valueSum = valueSum.add(day.getStockValue());
+            current.setSnapshotDate(day.getSnapshotDate());
+            current.setProductCount(day.getProductCount());
+            current.setTotalStock(day.getTotalStock());
+            current.setStockValue(day.getStockValue());
+            current.setSnapshotCount(current.getSnapshotCount() + 1);
+            current.setAverageStockValue(
+                    valueSum.divide(BigDecimal.valueOf(current.getSnapshotCount()), 2, RoundingMode.HALF_UP));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,187 @@
+package cue.edu.co.inventariopruebas.application.stock;
+
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.InMemoryStockProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional flash-sale mode keeping the stock of the configured hot products in memory.
+ * <p>
+ * Each product gets a {@link StripedStockCounter} seeded from {@code Product.stock} once the application
+ * is ready. Reservations are checked and applied in memory without touching the database; the
+ * accumulated deltas are written back in one batch every {@code flush-interval} and on shutdown. The
+ * flush adds deltas rather than overwriting the column, so it composes with the stored value.
+ * When the mode is disabled no product is managed and every method is a no-op.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryStockCounters {
+
+    private final ProductRepository productRepository;
+    private final InMemoryStockProperties properties;
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Load the current stock of the configured products.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!properties.isEnabled() || properties.getProductIds().isEmpty()) {
+            return;
+        }
+        for (Product product : productRepository.findAllById(properties.getProductIds())) {
+            counters.put(product.getId(), new StripedStockCounter(properties.getStripes(), product.getStock()));
+        }
+        log.info("In-memory stock active for {} products", counters.size());
+    }
+
+    /**
+     * Check whether a product's stock is held in memory.
+     *
+     * @param productId the product ID
+     * @return true if stock changes for the product must go through this component
+     */
+    public boolean isManaged(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Check whether any product's stock is held in memory.
+     *
+     * @return true if at least one product is managed
+     */
+    public boolean hasManagedProducts() {
+        return !counters.isEmpty();
+    }
+
+    /**
+     * Get the IDs of the products whose stock is held in memory.
+     *
+     * @return the managed product IDs
+     */
+    public Set<Long> getManagedProductIds() {
+        return Set.copyOf(counters.keySet());
+    }
+
+    /**
+     * Get the in-memory stock of a product.
+     *
+     * @param productId the product ID
+     * @return the stock, or empty if the product is not managed
+     */
+    public OptionalInt getStock(Long productId) {
+        StripedStockCounter counter = counters.get(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.get());
+    }
+
+    /**
+     * Apply a stock change in memory unless it would make the stock negative or larger than
+     * {@link Integer#MAX_VALUE}.
+     *
+     * @param productId the product ID, which must be managed
+     * @param delta     the amount to add, negative to reserve units
+     * @return the stock after the change, or empty if the change is refused
+     */
+    public OptionalInt tryAdjust(Long productId, int delta) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter == null || !counter.tryAdd(delta)) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(counter.get());
+    }
+
+    /**
+     * Apply a stock change in memory that must not be refused, e.g. the one of a committed product update.
+     * When the stock no longer covers a negative change, only the units left are taken out; a positive change
+     * adds only up to {@link Integer#MAX_VALUE}.
+     *
+     * @param productId the product ID
+     * @param delta     the amount to add, negative to take units out
+     * @return the change actually applied, or empty if the product is not managed
+     */
+    public OptionalInt adjustUpToAvailable(Long productId, int delta) {
+        StripedStockCounter counter = counters.get(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.addUpToAvailable(delta));
+    }
+
+    /**
+     * Stop managing a deleted product, discarding its unflushed changes.
+     *
+     * @param productId the product ID
+     */
+    public void remove(Long productId) {
+        counters.remove(productId);
+    }
+
+    /**
+     * Stop managing a product once its deletion is committed, so a rolled-back deletion leaves the live
+     * stock and its unflushed changes alone.
+     *
+     * @param event the product change
+     */
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            remove(event.getProductId());
+        }
+    }
+
+    /**
+     * Write the accumulated stock changes to the database in one batch.
+     * Changes that fail to be written are kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.in-memory.flush-interval:500ms}")
+    public void flush() {
+        if (counters.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> deltas = new HashMap<>();
+        counters.forEach((productId, counter) -> {
+            long delta = counter.drainPendingDelta();
+            if (delta != 0) {
+                deltas.put(productId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            productRepository.applyStockDeltas(deltas);
+            log.debug("Flushed in-memory stock changes for {} products", deltas.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush in-memory stock changes, retrying on next flush", e);
+            deltas.forEach((productId, delta) -> {
+                StripedStockCounter counter = counters.get(productId);
+                if (counter != null) {
+                    counter.restorePendingDelta(delta);
+                }
+            });
+        }
+    }
+
+    /**
+     * Flush the remaining changes before the application stops.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,259 @@
+package cue.edu.co.inventariopruebas.application.stock;
+
+import cue.edu.co.inventariopruebas.application.event.StockMovementEvent;
+import cue.edu.co.inventariopruebas.domain.entity.StockMovement;
+import cue.edu.co.inventariopruebas.domain.repository.StockMovementRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.StockMovementProperties;
+import cue.edu.co.inventariopruebas.infrastructure.config.StockMovementProperties.Durability;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only ledger of stock movements, written off the request path.
+ * <p>
+ * Committed movements go into a bounded ring buffer that one writer thread drains in JDBC batches of up
+ * to {@code batch-size}: whatever queued up while the previous batch was written goes out in the next one,
+ * so under load each round-trip carries more movements instead of the writer falling behind.
+ * In {@code async} mode a stock change returns once its movement is queued, and a crash loses the queued
+ * movements; in {@code flush-on-commit} mode it waits, after its own commit, until its batch is written.
+ * Neither mode writes the movement in the change's transaction: a crash between the commit and the write
+ * of its batch loses the movement, and a movement not written within {@code flush-timeout} or dropped is
+ * logged and counted without failing the change.
+ * <p>
+ * When the buffer is full a stock change waits up to {@code offer-timeout} for room and then writes its
+ * movement itself, so producers slow down to the database's pace instead of dropping movements. A batch
+ * that fails is retried once after {@code retry-delay} and then written one movement at a time, so only a
+ * movement whose own write fails is dropped and a bad row never stalls the writer. Buffered, written and
+ * dropped counts are published as {@code inventory.stock.movements.*} metrics.
+ */
+@Component
+@Slf4j
+public class StockMovementLedger implements MeterBinder {
+
+    private static final long POLL_MILLIS = 200;
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockMovementProperties properties;
+
+    private final BlockingQueue<PendingMovement> buffer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public StockMovementLedger(StockMovementRepository stockMovementRepository,
+                               StockMovementProperties properties) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+    }
+
+    /**
+     * Start the writer thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("stock-movement-writer").daemon().start(this::writeLoop);
+        log.info("Stock movement ledger started in {} mode", properties.getDurability());
+    }
+
+    /**
+     * Record a committed stock movement. Movements of changes made outside a transaction are recorded at once.
+     *
+     * @param event the stock movement
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockMoved(StockMovementEvent event) {
+        record(new StockMovement(event.getProductId(), event.getDelta(), event.getStockAfter(),
+                event.getReason(), event.getOccurredAt()));
+    }
+
+    /**
+     * Queue a movement for the writer, waiting for it to be written in {@code flush-on-commit} mode.
+     *
+     * @param movement the movement to append
+     */
+    public void record(StockMovement movement) {
+        boolean flushOnCommit = properties.getDurability() == Durability.FLUSH_ON_COMMIT;
+        PendingMovement pending = new PendingMovement(movement, flushOnCommit ? new CompletableFuture<>() : null);
+        if (!enqueue(pending)) {
+            log.warn("Stock movement buffer full, writing the movement of product {} directly",
+                    movement.getProductId());
+            writeDirectly(movement);
+            return;
+        }
+        if (flushOnCommit) {
+            awaitWritten(pending);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.stock.movements.buffered", buffer, BlockingQueue::size)
+                .description("Stock movements waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("inventory.stock.movements.written", written, AtomicLong::get)
+                .description("Stock movements written to the ledger")
+                .register(registry);
+        FunctionCounter.builder("inventory.stock.movements.dropped", dropped, AtomicLong::get)
+                .description("Stock movements lost because they could not be written")
+                .register(registry);
+    }
+
+    /**
+     * Stop the writer once it has written the buffered movements.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = writer;
+        }
+        if (current == null) {
+            // Never started: write what was queued on this thread
+            writeLoop();
+            return;
+        }
+        current.join(properties.getFlushTimeout().toMillis());
+        if (current.isAlive()) {
+            log.error("Stock movement writer still busy after {}, {} buffered movements may be lost",
+                    properties.getFlushTimeout(), buffer.size());
+        }
+    }
+
+    private boolean enqueue(PendingMovement pending) {
+        try {
+            return buffer.offer(pending, properties.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeDirectly(StockMovement movement) {
+        try {
+            stockMovementRepository.appendAll(List.of(movement));
+            written.incrementAndGet();
+        } catch (RuntimeException e) {
+            dropped.incrementAndGet();
+            log.error("Failed to write stock movement, dropping it: {}", movement, e);
+        }
+    }
+
+    private void awaitWritten(PendingMovement pending) {
+        try {
+            pending.written().get(properties.getFlushTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Stock movement of product {} not written within {}, it stays queued",
+                    pending.movement().getProductId(), properties.getFlushTimeout());
+        } catch (ExecutionException e) {
+            // Dropped by the writer, which logged why
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingMovement> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingMovement first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Write what is still buffered before stopping, with the flag cleared by the exception
+                buffer.drainTo(batch);
+                for (int from = 0; from < batch.size(); from += properties.getBatchSize()) {
+                    writeBatch(batch.subList(from, Math.min(from + properties.getBatchSize(), batch.size())));
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+            buffer.drainTo(batch, properties.getBatchSize() - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<PendingMovement> batch) {
+        try {
+            append(batch);
+            return;
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} stock movements, retrying in {}",
+                    batch.size(), properties.getRetryDelay(), e);
+        }
+        boolean interrupted = false;
+        if (running) {
+            try {
+                Thread.sleep(properties.getRetryDelay().toMillis());
+            } catch (InterruptedException e) {
+                // Retry at once; the flag is restored once the batch is written, as a pool refuses
+                // connections to an interrupted thread
+                interrupted = true;
+            }
+        }
+        try {
+            append(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} stock movements again, writing them one at a time", batch.size(), e);
+            appendOneByOne(batch);
+        }
+        if (interrupted) {
+            // Ends the loop, which writes what is still buffered
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void appendOneByOne(List<PendingMovement> batch) {
+        for (PendingMovement pending : batch) {
+            try {
+                append(List.of(pending));
+            } catch (RuntimeException e) {
+                dropped.incrementAndGet();
+                log.error("Failed to write stock movement, dropping it: {}", pending.movement(), e);
+                if (pending.written() != null) {
+                    pending.written().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void append(List<PendingMovement> batch) {
+        stockMovementRepository.appendAll(batch.stream().map(PendingMovement::movement).toList());
+        written.addAndGet(batch.size());
+        batch.stream()
+                .filter(pending -> pending.written() != null)
+                .forEach(pending -> pending.written().complete(null));
+        log.debug("Wrote {} stock movements", batch.size());
+    }
+
+    private record PendingMovement(StockMovement movement, CompletableFuture<Void> written) {
+    }
+}
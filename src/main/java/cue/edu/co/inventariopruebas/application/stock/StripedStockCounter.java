@@ -0,0 +1,150 @@
+package cue.edu.co.inventariopruebas.application.stock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock of one product split across independent atomic stripes, so concurrent reservations from
+ * different threads usually update different cache lines.
+ * <p>
+ * A reservation first tries a lock-free compare-and-set on the calling thread's stripe, then on the
+ * other stripes. Only when no single stripe holds enough units does it take the lock, gather every
+ * stripe and decide exactly, so a reservation never fails while the total stock would cover it,
+ * except against a concurrent restock. A restock always takes the lock, so the stock never exceeds
+ * {@link Integer#MAX_VALUE}; concurrent reservations only lower it meanwhile. Every applied change is
+ * also added to a pending delta that the write-behind flush drains. The lock is a {@link ReentrantLock}
+ * rather than a monitor so a virtual thread waiting for it unmounts from its carrier instead of pinning it.
+ */
+final class StripedStockCounter {
+
+    // 16 longs = 128 bytes between stripes, so neighbouring stripes never share a cache line
+    private static final int PADDING = 16;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+    private final LongAdder pendingDelta = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    StripedStockCounter(int stripes, int initialStock) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        distribute(initialStock);
+    }
+
+    /**
+     * Get the current stock. Exact when no change is in flight.
+     */
+    int get() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return (int) total;
+    }
+
+    /**
+     * Apply a change unless it would make the stock negative or larger than {@link Integer#MAX_VALUE}.
+     *
+     * @param delta the amount to add, negative to reserve units, at least {@code -Integer.MAX_VALUE}
+     * @return true if the change was applied
+     */
+    boolean tryAdd(int delta) {
+        if (delta > 0) {
+            return tryAddGathered(delta);
+        }
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            if (tryTake((home + i) % stripes, -delta)) {
+                pendingDelta.add(delta);
+                return true;
+            }
+        }
+        return tryAddGathered(delta);
+    }
+
+    /**
+     * Apply a change, taking out only the units left when it would make the stock negative, and adding only
+     * up to {@link Integer#MAX_VALUE}.
+     *
+     * @param delta the amount to add, negative to take units out
+     * @return the change actually applied
+     */
+    int addUpToAvailable(int delta) {
+        if (tryAdd(delta)) {
+            return delta;
+        }
+        lock.lock();
+        try {
+            long total = drain();
+            long applied = Math.min(Math.max(delta, -total), Integer.MAX_VALUE - total);
+            distribute(total + applied);
+            pendingDelta.add(applied);
+            return (int) applied;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the changes applied since the last call, for writing to the database.
+     */
+    long drainPendingDelta() {
+        return pendingDelta.sumThenReset();
+    }
+
+    /**
+     * Give back a drained delta that could not be written, so the next flush retries it.
+     */
+    void restorePendingDelta(long delta) {
+        pendingDelta.add(delta);
+    }
+
+    private boolean tryTake(int stripe, int units) {
+        int index = stripe * PADDING;
+        long available = cells.get(index);
+        while (available >= units) {
+            if (cells.compareAndSet(index, available, available - units)) {
+                return true;
+            }
+            available = cells.get(index);
+        }
+        return false;
+    }
+
+    private boolean tryAddGathered(int delta) {
+        lock.lock();
+        try {
+            long total = drain();
+            long after = total + delta;
+            boolean applied = after >= 0 && after <= Integer.MAX_VALUE;
+            distribute(applied ? after : total);
+            if (applied) {
+                pendingDelta.add(delta);
+            }
+            return applied;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long drain() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    private void distribute(long total) {
+        long share = total / stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.getAndAdd(i * PADDING, i == 0 ? total - share * (stripes - 1) : share);
+        }
+    }
+
+    private int homeStripe() {
+        long mixed = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed >>> 32, (long) stripes);
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,9 +15,12 @@ import java.util.List;
 
 /**
  * Category entity representing a product category.
+ * Kept in the second-level cache: categories are few and rarely change, and every product write loads one.
  */
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +33,8 @@ public class Category {
     @Column(nullable = false, unique = true, length = 100)
     private String name;
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = false)
+    // Not cascaded: products are only deleted one by one, so each leaves its tombstone, events and movement
+    @OneToMany(mappedBy = "category")
     private List<Product> products = new ArrayList<>();
 
     @CreationTimestamp
@@ -39,6 +45,10 @@ public class Category {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Category(String name) {
         this.name = name;
     }
@@ -0,0 +1,59 @@
+package cue.edu.co.inventariopruebas.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Valuation of one category's stock on one day, kept as history.
+ * The category is referenced by ID and name only, so snapshots survive the category's deletion.
+ */
+@Entity
+@Table(name = "category_valuation_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryValuationSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "category_name", nullable = false, length = 100)
+    private String categoryName;
+
+    @Column(name = "product_count", nullable = false)
+    private Long productCount;
+
+    @Column(name = "total_stock", nullable = false)
+    private Long totalStock;
+
+    @Column(name = "stock_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal stockValue;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public CategoryValuationSnapshot(LocalDate snapshotDate, Long categoryId, String categoryName,
+                                     Long productCount, Long totalStock, BigDecimal stockValue) {
+        this.snapshotDate = snapshotDate;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.productCount = productCount;
+        this.totalStock = totalStock;
+        this.stockValue = stockValue;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -12,8 +13,11 @@ import java.time.LocalDateTime;
 
 /**
  * Product entity representing an inventory product.
+ * Updates only write the changed columns, so an update that leaves the stock alone never overwrites stock
+ * flushed from memory in the meantime.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "products")
 @Data
 @NoArgsConstructor
@@ -36,6 +40,9 @@ public class Product {
     @Column(nullable = false)
     private Integer stock;
 
+    @Column(name = "reorder_point", nullable = false)
+    private Integer reorderPoint = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
@@ -48,6 +55,10 @@ public class Product {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Product(String name, String description, BigDecimal price, Integer stock, Category category) {
         this.name = name;
         this.description = description;
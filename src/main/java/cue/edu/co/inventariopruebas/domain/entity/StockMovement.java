@@ -0,0 +1,52 @@
+package cue.edu.co.inventariopruebas.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to the stock of a product, kept as an append-only ledger.
+ * The product is referenced by ID only, so movements survive the product's deletion.
+ */
+@Entity
+@Table(name = "stock_movements")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(name = "stock_after", nullable = false)
+    private Integer stockAfter;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private StockMovementReason reason;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public StockMovement(Long productId, Integer delta, Integer stockAfter, StockMovementReason reason,
+                         LocalDateTime occurredAt) {
+        this.productId = productId;
+        this.delta = delta;
+        this.stockAfter = stockAfter;
+        this.reason = reason;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,23 @@
+package cue.edu.co.inventariopruebas.domain.entity;
+
+/**
+ * Why the stock of a product changed.
+ */
+public enum StockMovementReason {
+    /**
+     * The product was created with its initial stock.
+     */
+    CREATED,
+    /**
+     * The stock was replaced by a product update.
+     */
+    UPDATED,
+    /**
+     * A relative stock adjustment was applied.
+     */
+    ADJUSTED,
+    /**
+     * The product was deleted with its remaining stock.
+     */
+    DELETED
+}
@@ -0,0 +1,15 @@
+package cue.edu.co.inventariopruebas.domain.exception;
+
+/**
+ * Exception thrown when a stock change would leave a product with negative stock.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+
+    public InsufficientStockException(Long productId, int delta) {
+        super(String.format("Insufficient stock for product with id: %d to apply delta: %d", productId, delta));
+    }
+}
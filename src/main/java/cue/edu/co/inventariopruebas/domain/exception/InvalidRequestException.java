@@ -0,0 +1,11 @@
+package cue.edu.co.inventariopruebas.domain.exception;
+
+/**
+ * Exception thrown when a request carries parameters that cannot be processed.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
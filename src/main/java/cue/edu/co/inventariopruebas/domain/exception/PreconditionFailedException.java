@@ -0,0 +1,15 @@
+package cue.edu.co.inventariopruebas.domain.exception;
+
+/**
+ * Exception thrown when a conditional update names a version of a resource that is no longer current.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(String resourceName, Long id) {
+        super(String.format("%s with id %d has been modified since it was read", resourceName, id));
+    }
+}
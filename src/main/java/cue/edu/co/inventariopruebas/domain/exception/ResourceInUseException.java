@@ -0,0 +1,15 @@
+package cue.edu.co.inventariopruebas.domain.exception;
+
+/**
+ * Exception thrown when attempting to delete a resource that other resources still reference.
+ */
+public class ResourceInUseException extends RuntimeException {
+
+    public ResourceInUseException(String message) {
+        super(message);
+    }
+
+    public ResourceInUseException(String resourceName, Long id, String dependents) {
+        super(String.format("%s with id: %d still has %s", resourceName, id, dependents));
+    }
+}
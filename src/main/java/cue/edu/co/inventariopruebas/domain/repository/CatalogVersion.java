@@ -0,0 +1,22 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the latest update time, row count and sum of row versions of both the product and the
+ * category tables. Product listings show category names, so they change with either table.
+ */
+public interface CatalogVersion {
+
+    LocalDateTime getProductsUpdatedAt();
+
+    Long getProductCount();
+
+    Long getProductVersionSum();
+
+    LocalDateTime getCategoriesUpdatedAt();
+
+    Long getCategoryCount();
+
+    Long getCategoryVersionSum();
+}
@@ -1,16 +1,25 @@
 package cue.edu.co.inventariopruebas.domain.repository;
 
 import cue.edu.co.inventariopruebas.domain.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for Category entity.
+ * Name lookups go through the Hibernate query cache, which drops their results whenever a category is
+ * written; lookups by ID are served from the second-level cache.
  */
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryUpsertRepository {
 
     /**
      * Find a category by its name.
@@ -18,6 +27,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      * @param name the category name
      * @return an Optional containing the category if found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByName(String name);
 
     /**
@@ -26,5 +36,51 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      * @param name the category name
      * @return true if exists, false otherwise
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByName(String name);
+
+    /**
+     * Find the version of a category, without loading it.
+     *
+     * @param id the category ID
+     * @return the version, if the category exists
+     */
+    @Query("SELECT c.version FROM Category c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Check whether any product belongs to a category.
+     *
+     * @param id the category ID
+     * @return true if the category has products
+     */
+    @Query("SELECT COUNT(p) > 0 FROM Product p WHERE p.category.id = :id")
+    boolean hasProducts(@Param("id") Long id);
+
+    /**
+     * Find the latest update time, row count and sum of row versions of the categories.
+     *
+     * @return the table version
+     */
+    @Query("SELECT MAX(c.updatedAt) AS lastUpdatedAt, COUNT(c) AS rowCount, SUM(c.version) AS versionSum "
+            + "FROM Category c")
+    TableVersion findTableVersion();
+
+    /**
+     * Find the next page of categories after the given ID (keyset pagination).
+     *
+     * @param after    the last ID already seen, 0 for the first page
+     * @param pageable the page window; only its size is used
+     * @return categories with ID greater than {@code after}, ordered by ID
+     */
+    @Query("SELECT c FROM Category c WHERE c.id > :after ORDER BY c.id")
+    List<Category> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Find the ID and name of every category, for building in-memory indexes.
+     *
+     * @return list of ID/name projections
+     */
+    @Query("SELECT c.id AS id, c.name AS name FROM Category c")
+    List<IdAndName> findAllIdsAndNames();
 }
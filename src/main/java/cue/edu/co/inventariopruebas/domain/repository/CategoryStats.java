@@ -0,0 +1,20 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of a category's product aggregates.
+ * The sums are null for a category without products.
+ */
+public interface CategoryStats {
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+
+    Long getTotalStock();
+
+    BigDecimal getStockValue();
+}
@@ -0,0 +1,20 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import java.util.List;
+
+/**
+ * Bulk upsert of categories by name, bypassing the persistence context.
+ */
+public interface CategoryUpsertRepository {
+
+    /**
+     * Insert the categories whose names do not exist yet and return every requested category, new or not.
+     * On PostgreSQL this is one {@code INSERT ... ON CONFLICT (name) DO NOTHING RETURNING} statement, so
+     * concurrent upserts of the same name never fail; elsewhere a SELECT and a JDBC batch insert.
+     * Runs in the caller's transaction, which is required.
+     *
+     * @param names the distinct category names
+     * @return the categories, in no particular order
+     */
+    List<UpsertedCategory> upsertAllByName(List<String> names);
+}
@@ -0,0 +1,155 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC implementation of {@link CategoryUpsertRepository}.
+ * <p>
+ * On PostgreSQL the insert runs in a data-modifying CTE: its {@code RETURNING} rows are the new categories
+ * and the outer query adds the ones that already existed, read from the statement's snapshot. A name
+ * committed by a concurrent transaction after that snapshot is in neither set, so those few names are read
+ * again with a second SELECT. Since the rows bypass Hibernate, the cached query results are evicted whenever
+ * a category is inserted, both at once and when the transaction completes, as Hibernate does for a native
+ * mutation synchronized with {@link Category}: results cached by other transactions while this one was
+ * still open would otherwise outlive its commit.
+ */
+@RequiredArgsConstructor
+public class CategoryUpsertRepositoryImpl implements CategoryUpsertRepository {
+
+    private static final String COLUMNS = "id, name, created_at, updated_at, version";
+
+    private static final String UPSERT_SQL =
+            "WITH input (name) AS (SELECT DISTINCT unnest(?)), "
+                    + "inserted AS (INSERT INTO categories (name) SELECT name FROM input "
+                    + "ON CONFLICT (name) DO NOTHING RETURNING " + COLUMNS + ") "
+                    + "SELECT " + COLUMNS + ", TRUE AS created FROM inserted "
+                    + "UNION ALL SELECT c.id, c.name, c.created_at, c.updated_at, c.version, FALSE AS created "
+                    + "FROM categories c JOIN input ON input.name = c.name";
+
+    private static final String INSERT_SQL = "INSERT INTO categories (name) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UpsertedCategory> upsertAllByName(List<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        List<UpsertedCategory> categories = jdbcTemplate.execute((ConnectionCallback<List<UpsertedCategory>>)
+                connection -> connection.isWrapperFor(PGConnection.class)
+                        ? upsertReturning(connection, names)
+                        : selectThenInsert(connection, names));
+        if (categories.stream().anyMatch(UpsertedCategory::created)) {
+            evictQueryResults();
+        }
+        return categories;
+    }
+
+    private void evictQueryResults() {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        cache.evictQueryRegions();
+        // The statements return rows, so a native query would not schedule Hibernate's own invalidation
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.evictQueryRegions();
+            }
+        });
+    }
+
+    private List<UpsertedCategory> upsertReturning(Connection connection, List<String> names) throws SQLException {
+        List<UpsertedCategory> categories = new ArrayList<>(names.size());
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+            statement.setArray(1, connection.createArrayOf("varchar", names.toArray()));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    categories.add(new UpsertedCategory(toCategory(rows), rows.getBoolean("created")));
+                }
+            }
+        }
+        if (categories.size() < names.size()) {
+            Set<String> found = categories.stream()
+                    .map(upserted -> upserted.category().getName())
+                    .collect(Collectors.toSet());
+            List<String> concurrentlyCreated = names.stream().filter(name -> !found.contains(name)).toList();
+            selectByNames(connection, concurrentlyCreated)
+                    .forEach(category -> categories.add(new UpsertedCategory(category, false)));
+        }
+        return categories;
+    }
+
+    private List<UpsertedCategory> selectThenInsert(Connection connection, List<String> names) throws SQLException {
+        List<UpsertedCategory> categories = new ArrayList<>(names.size());
+        Set<String> existing = new HashSet<>();
+        for (Category category : selectByNames(connection, names)) {
+            existing.add(category.getName());
+            categories.add(new UpsertedCategory(category, false));
+        }
+        List<String> missing = names.stream().filter(name -> !existing.contains(name)).toList();
+        if (missing.isEmpty()) {
+            return categories;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (String name : missing) {
+                statement.setString(1, name);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        selectByNames(connection, missing).forEach(category -> categories.add(new UpsertedCategory(category, true)));
+        return categories;
+    }
+
+    private static List<Category> selectByNames(Connection connection, Collection<String> names)
+            throws SQLException {
+        String placeholders = String.join(", ", names.stream().map(name -> "?").toList());
+        List<Category> categories = new ArrayList<>(names.size());
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT " + COLUMNS + " FROM categories WHERE name IN (" + placeholders + ")")) {
+            int index = 1;
+            for (String name : names) {
+                statement.setString(index++, name);
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    categories.add(toCategory(rows));
+                }
+            }
+        }
+        return categories;
+    }
+
+    private static Category toCategory(ResultSet row) throws SQLException {
+        Category category = new Category(row.getString("name"));
+        category.setId(row.getLong("id"));
+        category.setCreatedAt(row.getObject("created_at", LocalDateTime.class));
+        category.setUpdatedAt(row.getObject("updated_at", LocalDateTime.class));
+        category.setVersion(row.getLong("version"));
+        return category;
+    }
+}
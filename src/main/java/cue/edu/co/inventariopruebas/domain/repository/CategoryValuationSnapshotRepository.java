@@ -0,0 +1,57 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.domain.entity.CategoryValuationSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for CategoryValuationSnapshot entity.
+ * Range queries read only the snapshot table, through its (snapshot_date, category_id) index.
+ */
+@Repository
+public interface CategoryValuationSnapshotRepository extends JpaRepository<CategoryValuationSnapshot, Long> {
+
+    /**
+     * Delete the snapshots of one day, so the day can be taken again.
+     *
+     * @param snapshotDate the snapshot day
+     * @return the number of deleted snapshots
+     */
+    @Modifying
+    @Query("DELETE FROM CategoryValuationSnapshot s WHERE s.snapshotDate = :snapshotDate")
+    int deleteBySnapshotDate(@Param("snapshotDate") LocalDate snapshotDate);
+
+    /**
+     * Find the valuation of every day in a range, summed over all categories.
+     *
+     * @param from the first day, inclusive
+     * @param to   the last day, inclusive
+     * @return one row per day with snapshots, ordered by day
+     */
+    @Query("SELECT s.snapshotDate AS snapshotDate, SUM(s.productCount) AS productCount, "
+            + "SUM(s.totalStock) AS totalStock, SUM(s.stockValue) AS stockValue "
+            + "FROM CategoryValuationSnapshot s WHERE s.snapshotDate BETWEEN :from AND :to "
+            + "GROUP BY s.snapshotDate ORDER BY s.snapshotDate")
+    List<DailyValuation> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Find the valuation of one category on every day in a range.
+     *
+     * @param categoryId the category ID
+     * @param from       the first day, inclusive
+     * @param to         the last day, inclusive
+     * @return one row per day with a snapshot of the category, ordered by day
+     */
+    @Query("SELECT s.snapshotDate AS snapshotDate, s.productCount AS productCount, "
+            + "s.totalStock AS totalStock, s.stockValue AS stockValue "
+            + "FROM CategoryValuationSnapshot s WHERE s.snapshotDate BETWEEN :from AND :to "
+            + "AND s.categoryId = :categoryId ORDER BY s.snapshotDate")
+    List<DailyValuation> findDailyTotalsByCategoryId(@Param("categoryId") Long categoryId,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
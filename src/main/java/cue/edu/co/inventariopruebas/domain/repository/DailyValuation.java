@@ -0,0 +1,18 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of the valuation snapshots of one day, summed over the selected categories.
+ */
+public interface DailyValuation {
+
+    LocalDate getSnapshotDate();
+
+    Long getProductCount();
+
+    Long getTotalStock();
+
+    BigDecimal getStockValue();
+}
@@ -0,0 +1,11 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+/**
+ * Projection of an entity's ID and name.
+ */
+public interface IdAndName {
+
+    Long getId();
+
+    String getName();
+}
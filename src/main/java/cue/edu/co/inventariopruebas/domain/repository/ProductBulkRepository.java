@@ -0,0 +1,21 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+
+import java.util.List;
+
+/**
+ * Bulk write operations for products that bypass the persistence context.
+ */
+public interface ProductBulkRepository {
+
+    /**
+     * Insert validated products in one round-trip: COPY on PostgreSQL, a JDBC batch elsewhere.
+     * A {@code CREATED} stock movement is written for each product with stock, in a second batch.
+     * Runs in the caller's transaction, or in one of its own, so the movements commit or roll back with the
+     * products; the products must reference existing categories.
+     *
+     * @param products the products to insert
+     */
+    void insertAll(List<ProductRequestDTO> products);
+}
@@ -0,0 +1,170 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.domain.entity.StockMovementReason;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link ProductBulkRepository}.
+ * Timestamps are taken from the application clock when the rows are written, as Hibernate takes them for
+ * single products, rather than left to the column defaults, which hold the transaction's start time on
+ * PostgreSQL and would be on the database clock. On PostgreSQL the IDs are reserved from the sequence before
+ * the COPY, which cannot return them; elsewhere they are read back from the batch's generated keys.
+ */
+@RequiredArgsConstructor
+public class ProductBulkRepositoryImpl implements ProductBulkRepository {
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('products', 'id')) FROM generate_series(1, ?)";
+    private static final String COPY_SQL = "COPY products (id, name, description, price, stock, reorder_point, "
+            + "category_id, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL = "INSERT INTO products "
+            + "(name, description, price, stock, reorder_point, category_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<ProductRequestDTO> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        // Microseconds, as the timestamp columns store
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            long[] ids;
+            if (connection.isWrapperFor(PGConnection.class)) {
+                ids = reserveIds(connection, products.size());
+                copy(connection.unwrap(PGConnection.class), products, ids, now);
+            } else {
+                ids = batchInsert(connection, products, now);
+            }
+            insertMovements(connection, products, ids, now);
+            return null;
+        });
+    }
+
+    private long[] reserveIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement statement = connection.prepareStatement(RESERVE_IDS_SQL)) {
+            statement.setInt(1, count);
+            readIds(statement.executeQuery(), ids);
+        }
+        return ids;
+    }
+
+    private void copy(PGConnection connection, List<ProductRequestDTO> products, long[] ids, LocalDateTime now)
+            throws SQLException {
+        String timestamp = Timestamp.valueOf(now).toString();
+        StringBuilder csv = new StringBuilder(products.size() * 160);
+        for (int i = 0; i < products.size(); i++) {
+            ProductRequestDTO product = products.get(i);
+            csv.append(ids[i]).append(',');
+            appendQuoted(csv, product.getName());
+            csv.append(',');
+            // An unquoted empty field is NULL in COPY's CSV format
+            if (product.getDescription() != null) {
+                appendQuoted(csv, product.getDescription());
+            }
+            csv.append(',').append(product.getPrice().toPlainString())
+                    .append(',').append(product.getStock())
+                    .append(',').append(reorderPoint(product))
+                    .append(',').append(product.getCategoryId())
+                    .append(',').append(timestamp)
+                    .append(',').append(timestamp)
+                    .append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long[] batchInsert(Connection connection, List<ProductRequestDTO> products, LocalDateTime now)
+            throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        long[] ids = new long[products.size()];
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] {"id"})) {
+            for (ProductRequestDTO product : products) {
+                statement.setString(1, product.getName());
+                if (product.getDescription() == null) {
+                    statement.setNull(2, Types.VARCHAR);
+                } else {
+                    statement.setString(2, product.getDescription());
+                }
+                statement.setBigDecimal(3, product.getPrice());
+                statement.setInt(4, product.getStock());
+                statement.setInt(5, reorderPoint(product));
+                statement.setLong(6, product.getCategoryId());
+                statement.setTimestamp(7, timestamp);
+                statement.setTimestamp(8, timestamp);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            readIds(statement.getGeneratedKeys(), ids);
+        }
+        return ids;
+    }
+
+    private void insertMovements(Connection connection, List<ProductRequestDTO> products, long[] ids,
+                                 LocalDateTime now) throws SQLException {
+        Timestamp occurredAt = Timestamp.valueOf(now);
+        try (PreparedStatement statement = connection.prepareStatement(StockMovementSql.INSERT)) {
+            int movements = 0;
+            for (int i = 0; i < products.size(); i++) {
+                int stock = products.get(i).getStock();
+                if (stock == 0) {
+                    continue;
+                }
+                statement.setLong(1, ids[i]);
+                statement.setInt(2, stock);
+                statement.setInt(3, stock);
+                statement.setString(4, StockMovementReason.CREATED.name());
+                statement.setTimestamp(5, occurredAt);
+                statement.addBatch();
+                movements++;
+            }
+            if (movements > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private static void readIds(ResultSet keys, long[] ids) throws SQLException {
+        try (keys) {
+            for (int i = 0; i < ids.length; i++) {
+                if (!keys.next()) {
+                    throw new SQLException("Expected " + ids.length + " product IDs, got " + i);
+                }
+                ids[i] = keys.getLong(1);
+            }
+        }
+    }
+
+    private static int reorderPoint(ProductRequestDTO product) {
+        return product.getReorderPoint() == null ? 0 : product.getReorderPoint();
+    }
+
+    private static void appendQuoted(StringBuilder csv, String value) {
+        csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,20 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+/**
+ * JPQL fragments shared by the product repository and its custom implementations.
+ */
+final class ProductQueries {
+
+    /**
+     * Projection selecting exactly the {@code ProductDTO} columns, with the category joined.
+     * Callers append the WHERE and ORDER BY clauses.
+     */
+    static final String DTO_SELECT =
+            "SELECT new cue.edu.co.inventariopruebas.application.dto.ProductDTO("
+                    + "p.id, p.name, p.description, p.price, p.stock, p.reorderPoint, c.id, c.name, "
+                    + "p.createdAt, p.updatedAt, p.version) "
+                    + "FROM Product p JOIN p.category c ";
+
+    private ProductQueries() {
+    }
+}
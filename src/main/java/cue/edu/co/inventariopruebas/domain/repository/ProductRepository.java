@@ -1,47 +1,191 @@
 package cue.edu.co.inventariopruebas.domain.repository;
 
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
 import cue.edu.co.inventariopruebas.domain.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity.
+ * Read queries project straight into {@link ProductDTO} with the category joined, so a listing costs
+ * one statement whatever its size; entities are only loaded for writes.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStreamRepository,
+        ProductSearchRepository, ProductBulkRepository, ProductStockRepository {
 
     /**
-     * Find all products by category ID.
+     * Find a product by ID as a DTO, with its category name joined in the same statement.
+     *
+     * @param id the product ID
+     * @return the product DTO, if found
+     */
+    @Query(ProductQueries.DTO_SELECT + "WHERE p.id = :id")
+    Optional<ProductDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Find several products by ID as DTOs in one statement, with their category names joined.
+     *
+     * @param ids the product IDs
+     * @return the product DTOs found, in no particular order
+     */
+    @Query(ProductQueries.DTO_SELECT + "WHERE p.id IN :ids")
+    List<ProductDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the products changed after a change feed position as DTOs, through the (updated_at, id) index.
+     *
+     * @param since    the time of the last change already seen
+     * @param afterId  the product ID of the last change already seen
+     * @param until    the time up to which changes are read, exclusive
+     * @param pageable the page window; only its size is used
+     * @return the product DTOs ordered by update time and ID
+     */
+    @Query(ProductQueries.DTO_SELECT + "WHERE p.updatedAt >= :since "
+            + "AND (p.updatedAt > :since OR p.id > :afterId) AND p.updatedAt < :until "
+            + "ORDER BY p.updatedAt, p.id")
+    List<ProductDTO> findDTOsChangedAfter(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                          @Param("until") LocalDateTime until, Pageable pageable);
+
+    /**
+     * Find the version columns of a product, without loading it.
+     *
+     * @param id the product ID
+     * @return the product's update time, stock and category, if found
+     */
+    @Query("SELECT p.version AS version, p.stock AS stock, c.id AS categoryId, c.name AS categoryName "
+            + "FROM Product p JOIN p.category c WHERE p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Find the latest update time, row count and sum of row versions of the products and categories in one
+     * statement.
+     *
+     * @return the catalog version
+     */
+    @Query("SELECT MAX(c.updatedAt) AS categoriesUpdatedAt, COUNT(c) AS categoryCount, "
+            + "SUM(c.version) AS categoryVersionSum, "
+            + "(SELECT MAX(p.updatedAt) FROM Product p) AS productsUpdatedAt, "
+            + "(SELECT COUNT(p) FROM Product p) AS productCount, "
+            + "(SELECT SUM(p.version) FROM Product p) AS productVersionSum "
+            + "FROM Category c")
+    CatalogVersion findCatalogVersion();
+
+    /**
+     * Find the product count, total stock and stock value (sum of price times stock) of every category
+     * in one grouped statement. Categories without products are included with a count of zero.
+     *
+     * @return the aggregates of each category, ordered by category ID
+     */
+    @Query("SELECT c.id AS categoryId, c.name AS categoryName, COUNT(p) AS productCount, "
+            + "SUM(p.stock) AS totalStock, SUM(p.price * p.stock) AS stockValue "
+            + "FROM Category c LEFT JOIN Product p ON p.category = c "
+            + "GROUP BY c.id, c.name ORDER BY c.id")
+    List<CategoryStats> findCategoryStats();
+
+    /**
+     * Find all products as DTOs.
+     *
+     * @return list of all product DTOs, ordered by ID
+     */
+    @Query(ProductQueries.DTO_SELECT + "ORDER BY p.id")
+    List<ProductDTO> findAllDTOs();
+
+    /**
+     * Find all products by category ID as DTOs.
      *
      * @param categoryId the category ID
-     * @return list of products in the category
+     * @return list of product DTOs in the category, ordered by ID
      */
-    List<Product> findByCategoryId(Long categoryId);
+    @Query(ProductQueries.DTO_SELECT + "WHERE c.id = :categoryId ORDER BY p.id")
+    List<ProductDTO> findDTOsByCategoryId(@Param("categoryId") Long categoryId);
 
     /**
-     * Find products by name containing the given string (case-insensitive).
+     * Find products by name containing the given string (case-insensitive) as DTOs.
+     * Written as {@code LOWER(name) LIKE} so PostgreSQL can use the trigram index on {@code lower(name)}.
      *
      * @param name the name to search for
-     * @return list of matching products
+     * @return list of matching product DTOs, ordered by ID
      */
-    List<Product> findByNameContainingIgnoreCase(String name);
+    @Query(ProductQueries.DTO_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY p.id")
+    List<ProductDTO> findDTOsByNameContaining(@Param("name") String name);
 
     /**
-     * Find all products with stock below a given threshold.
+     * Find all products with stock below a given threshold as DTOs.
      *
      * @param threshold the stock threshold
-     * @return list of products with low stock
+     * @return list of product DTOs with low stock, ordered by ID
+     */
+    @Query(ProductQueries.DTO_SELECT + "WHERE p.stock < :threshold ORDER BY p.id")
+    List<ProductDTO> findDTOsByStockLessThan(@Param("threshold") Integer threshold);
+
+    /**
+     * Find the products whose stock is below their own reorder point as DTOs.
+     * The predicate matches the PostgreSQL partial index {@code idx_products_below_reorder_point}, so only
+     * the products to reorder are read.
+     *
+     * @return list of product DTOs to reorder, ordered by ID
+     */
+    @Query(ProductQueries.DTO_SELECT + "WHERE p.stock < p.reorderPoint ORDER BY p.id")
+    List<ProductDTO> findDTOsBelowReorderPoint();
+
+    /**
+     * Find the next page of products after the given ID (keyset pagination).
+     *
+     * @param after    the last ID already seen, 0 for the first page
+     * @param pageable the page window; only its size is used
+     * @return product DTOs with ID greater than {@code after}, ordered by ID
+     */
+    @Query(ProductQueries.DTO_SELECT + "WHERE p.id > :after ORDER BY p.id")
+    List<ProductDTO> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Find the next page of products in a category after the given ID (keyset pagination).
+     *
+     * @param categoryId the category ID
+     * @param after      the last ID already seen, 0 for the first page
+     * @param pageable   the page window; only its size is used
+     * @return product DTOs in the category with ID greater than {@code after}, ordered by ID
+     */
+    @Query(ProductQueries.DTO_SELECT + "WHERE c.id = :categoryId AND p.id > :after ORDER BY p.id")
+    List<ProductDTO> findPageByCategoryIdAfter(@Param("categoryId") Long categoryId,
+                                               @Param("after") Long after,
+                                               Pageable pageable);
+
+    /**
+     * Find the next page of products whose name contains the given string (case-insensitive),
+     * after the given ID (keyset pagination).
+     *
+     * @param name     the name to search for
+     * @param after    the last ID already seen, 0 for the first page
+     * @param pageable the page window; only its size is used
+     * @return matching product DTOs with ID greater than {@code after}, ordered by ID
      */
-    List<Product> findByStockLessThan(Integer threshold);
+    @Query(ProductQueries.DTO_SELECT
+            + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) AND p.id > :after ORDER BY p.id")
+    List<ProductDTO> findPageByNameContainingAfter(@Param("name") String name,
+                                                   @Param("after") Long after,
+                                                   Pageable pageable);
 
     /**
-     * Find all products with their categories (eager loading).
+     * Stream the ID and name of every product, for building in-memory indexes.
+     * Must be consumed inside a transaction and closed by the caller.
      *
-     * @return list of all products with categories loaded
+     * @return a stream of ID/name projections
      */
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category")
-    List<Product> findAllWithCategory();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.name AS name FROM Product p")
+    Stream<IdAndName> streamIdsAndNames();
 }
@@ -0,0 +1,23 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+
+import java.util.List;
+
+/**
+ * Repository fragment for typo-tolerant, ranked product search.
+ */
+public interface ProductSearchRepository {
+
+    /**
+     * Search products by name and description, best matches first.
+     * On PostgreSQL this uses the {@code pg_trgm} word similarity operators, served by the
+     * trigram GIN indexes. On other databases it falls back to a case-insensitive substring scan
+     * that ranks name matches above description matches.
+     *
+     * @param query the text to search for
+     * @param limit the maximum number of results
+     * @return matching product DTOs, ordered by relevance
+     */
+    List<ProductDTO> searchRanked(String query, int limit);
+}
@@ -0,0 +1,85 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JPA implementation of {@link ProductSearchRepository}.
+ */
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    /**
+     * Ranks ids with trigram word similarity. The {@code lower(...)} expressions match the
+     * expression indexes created by the PostgreSQL-only V5 migration. Name matches weigh twice
+     * as much as description matches.
+     */
+    private static final String TRIGRAM_RANK_QUERY =
+            "SELECT p.id FROM products p "
+                    + "WHERE :query <% lower(p.name) OR :query <% lower(p.description) "
+                    + "ORDER BY word_similarity(:query, lower(p.name)) * 2 "
+                    + "+ COALESCE(word_similarity(:query, lower(p.description)), 0) DESC, p.id";
+
+    private static final String BY_IDS_QUERY = ProductQueries.DTO_SELECT + "WHERE p.id IN :ids";
+
+    private static final String SUBSTRING_QUERY = ProductQueries.DTO_SELECT
+            + "WHERE LOWER(p.name) LIKE :pattern OR LOWER(p.description) LIKE :pattern "
+            + "ORDER BY CASE WHEN LOWER(p.name) LIKE :pattern THEN 0 ELSE 1 END, p.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean trigramSupported;
+
+    @Override
+    public List<ProductDTO> searchRanked(String query, int limit) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        if (isTrigramSupported()) {
+            return searchByTrigrams(normalized, limit);
+        }
+        return entityManager.createQuery(SUBSTRING_QUERY, ProductDTO.class)
+                .setParameter("pattern", "%" + normalized + "%")
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private List<ProductDTO> searchByTrigrams(String query, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Number> rankedIds = entityManager.createNativeQuery(TRIGRAM_RANK_QUERY)
+                .setParameter("query", query)
+                .setMaxResults(limit)
+                .getResultList();
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> rank = new HashMap<>();
+        for (Number id : rankedIds) {
+            rank.put(id.longValue(), rank.size());
+        }
+        List<ProductDTO> products = new ArrayList<>(entityManager.createQuery(BY_IDS_QUERY, ProductDTO.class)
+                .setParameter("ids", rank.keySet())
+                .getResultList());
+        products.sort(Comparator.comparing(product -> rank.get(product.getId())));
+        return products;
+    }
+
+    private boolean isTrigramSupported() {
+        if (trigramSupported == null) {
+            trigramSupported = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+        }
+        return trigramSupported;
+    }
+}
@@ -0,0 +1,31 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Atomic stock operations for products.
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Add a delta to the stock of a product in one conditional UPDATE, unless the result would be negative
+     * or would not fit the column.
+     * Joins the current transaction or runs in its own.
+     * Concurrent calls on the same row serialize on its lock and each sees the previous result,
+     * so no update is lost.
+     *
+     * @param id    the product ID
+     * @param delta the amount to add, negative to take units out
+     * @return the stock after the change, or empty if the product does not exist or the change is refused
+     */
+    Optional<Integer> adjustStock(Long id, int delta);
+
+    /**
+     * Add accumulated deltas to the stock of several products in one JDBC batch and transaction.
+     * Products that no longer exist are skipped. The rows' versions are left alone.
+     *
+     * @param deltas the amount to add, by product ID
+     */
+    void applyStockDeltas(Map<Long, Long> deltas);
+}
@@ -0,0 +1,81 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JPA implementation of {@link ProductStockRepository}.
+ * The new stock is read back by the UPDATE itself: {@code RETURNING} on PostgreSQL and a
+ * {@code FINAL TABLE} data change delta table on H2, so each change is a single statement.
+ * A single adjustment also increments the row's version, as a JPA update would, so an editor holding the
+ * product from before the change gets a conflict instead of writing the old stock back. The write-behind
+ * flush does not: its products keep their stock in memory, which a product update never writes to the
+ * column, so flushing is not a conflict and must not invalidate the entity tags clients hold.
+ * Update times come from the application clock, as the ones Hibernate sets do, so the change feed orders
+ * every product write on a single clock.
+ */
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String UPDATE_STOCK =
+            "UPDATE products SET stock = stock + :delta, updated_at = :now, version = version + 1 "
+                    + "WHERE id = :id AND CAST(stock AS BIGINT) + :delta BETWEEN 0 AND " + Integer.MAX_VALUE;
+
+    private static final String RETURNING_QUERY = UPDATE_STOCK + " RETURNING stock";
+
+    private static final String FINAL_TABLE_QUERY = "SELECT stock FROM FINAL TABLE (" + UPDATE_STOCK + ")";
+
+    private static final String APPLY_DELTA =
+            "UPDATE products SET stock = stock + ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String adjustQuery;
+
+    @Override
+    @Transactional
+    public Optional<Integer> adjustStock(Long id, int delta) {
+        @SuppressWarnings("unchecked")
+        List<Number> stock = entityManager.createNativeQuery(getAdjustQuery())
+                .setParameter("id", id)
+                .setParameter("delta", delta)
+                .setParameter("now", LocalDateTime.now())
+                .getResultList();
+        return stock.isEmpty() ? Optional.empty() : Optional.of(stock.get(0).intValue());
+    }
+
+    @Override
+    @Transactional
+    public void applyStockDeltas(Map<Long, Long> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> batch.add(new Object[] {Math.toIntExact(delta), now, id}));
+        jdbcTemplate.batchUpdate(APPLY_DELTA, batch);
+    }
+
+    private String getAdjustQuery() {
+        if (adjustQuery == null) {
+            boolean postgres = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+            adjustQuery = postgres ? RETURNING_QUERY : FINAL_TABLE_QUERY;
+        }
+        return adjustQuery;
+    }
+}
@@ -0,0 +1,22 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+
+import java.util.stream.Stream;
+
+/**
+ * Repository fragment for reading the product catalog through a forward-only cursor.
+ */
+public interface ProductStreamRepository {
+
+    /**
+     * Stream every product with its category name, ordered by ID.
+     * Rows are fetched from the database in batches of {@code fetchSize} as the stream is consumed,
+     * and are projected straight into DTOs so nothing accumulates in the persistence context.
+     * The stream must be consumed inside a transaction and closed by the caller.
+     *
+     * @param fetchSize the number of rows the JDBC driver fetches per round-trip
+     * @return a stream of product DTOs
+     */
+    Stream<ProductDTO> streamAllForExport(int fetchSize);
+}
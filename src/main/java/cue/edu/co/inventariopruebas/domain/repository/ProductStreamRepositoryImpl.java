@@ -0,0 +1,27 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+/**
+ * JPA implementation of {@link ProductStreamRepository}.
+ */
+public class ProductStreamRepositoryImpl implements ProductStreamRepository {
+
+    private static final String EXPORT_QUERY = ProductQueries.DTO_SELECT + "ORDER BY p.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<ProductDTO> streamAllForExport(int fetchSize) {
+        return entityManager.createQuery(EXPORT_QUERY, ProductDTO.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,33 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.domain.entity.ProductTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for ProductTombstone entity.
+ */
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    /**
+     * Find the deletions after a change feed position, through the (deleted_at, product_id) index.
+     *
+     * @param since    the time of the last change already seen
+     * @param afterId  the product ID of the last change already seen
+     * @param until    the time up to which changes are read, exclusive
+     * @param pageable the page window; only its size is used
+     * @return the tombstones ordered by deletion time and product ID
+     */
+    @Query("SELECT t FROM ProductTombstone t WHERE t.deletedAt >= :since "
+            + "AND (t.deletedAt > :since OR t.productId > :afterId) AND t.deletedAt < :until "
+            + "ORDER BY t.deletedAt, t.productId")
+    List<ProductTombstone> findDeletedAfter(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                            @Param("until") LocalDateTime until, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+/**
+ * Projection of the columns a product's representation changes with, for validating cached copies.
+ */
+public interface ProductVersion {
+
+    Long getVersion();
+
+    Integer getStock();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
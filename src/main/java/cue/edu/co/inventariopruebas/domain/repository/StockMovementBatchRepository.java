@@ -0,0 +1,20 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.domain.entity.StockMovement;
+
+import java.util.List;
+
+/**
+ * Batch append of stock movements, bypassing the persistence context.
+ */
+public interface StockMovementBatchRepository {
+
+    /**
+     * Insert stock movements as one JDBC batch in a transaction of its own, on a connection of its own, so it
+     * can be called after the transaction that changed the stock has committed, even while that transaction
+     * still holds its connection.
+     *
+     * @param movements the movements to append
+     */
+    void appendAll(List<StockMovement> movements);
+}
@@ -0,0 +1,42 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.domain.entity.StockMovement;
+import cue.edu.co.inventariopruebas.infrastructure.persistence.StockMovementDataSourceConfiguration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link StockMovementBatchRepository}.
+ * The generated IDs are not read back, so the whole batch is sent in one round-trip.
+ * <p>
+ * Writes go through the ledger's own connection pool, declared in {@link StockMovementDataSourceConfiguration}.
+ */
+public class StockMovementBatchRepositoryImpl implements StockMovementBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockMovementBatchRepositoryImpl(
+            @Qualifier(StockMovementDataSourceConfiguration.JDBC_TEMPLATE) JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
+    @Override
+    public void appendAll(List<StockMovement> movements) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(StockMovementSql.INSERT,
+                movements, movements.size(), (statement, movement) -> {
+                    statement.setLong(1, movement.getProductId());
+                    statement.setInt(2, movement.getDelta());
+                    statement.setInt(3, movement.getStockAfter());
+                    statement.setString(4, movement.getReason().name());
+                    statement.setTimestamp(5, Timestamp.valueOf(movement.getOccurredAt()));
+                }));
+    }
+}
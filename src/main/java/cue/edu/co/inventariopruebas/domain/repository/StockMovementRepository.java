@@ -0,0 +1,22 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.domain.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for StockMovement entity.
+ */
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementBatchRepository {
+
+    /**
+     * Find the movements of a product, oldest first.
+     *
+     * @param productId the product ID
+     * @return the product's movements
+     */
+    List<StockMovement> findByProductIdOrderByOccurredAtAscIdAsc(Long productId);
+}
@@ -0,0 +1,16 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+/**
+ * SQL shared by the JDBC repositories that write stock movements.
+ */
+final class StockMovementSql {
+
+    /**
+     * Insert of one movement, bound in column order: product ID, delta, stock after, reason, occurred at.
+     */
+    static final String INSERT = "INSERT INTO stock_movements "
+            + "(product_id, delta, stock_after, reason, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private StockMovementSql() {
+    }
+}
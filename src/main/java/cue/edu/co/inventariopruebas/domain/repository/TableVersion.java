@@ -0,0 +1,18 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a table's latest update time, row count and sum of row versions, for validating cached
+ * listings. Any insert moves the latest update time, any update raises the sum of versions and any delete
+ * lowers the count. The sum catches an update stamped earlier than the latest update time, as a
+ * transaction that commits after a later-stamped one is.
+ */
+public interface TableVersion {
+
+    LocalDateTime getLastUpdatedAt();
+
+    Long getRowCount();
+
+    Long getVersionSum();
+}
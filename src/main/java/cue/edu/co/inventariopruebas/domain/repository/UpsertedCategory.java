@@ -0,0 +1,12 @@
+package cue.edu.co.inventariopruebas.domain.repository;
+
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+
+/**
+ * A category returned by a bulk upsert, detached from any persistence context.
+ *
+ * @param category the category row
+ * @param created  whether the upsert inserted it, rather than finding it already there
+ */
+public record UpsertedCategory(Category category, boolean created) {
+}
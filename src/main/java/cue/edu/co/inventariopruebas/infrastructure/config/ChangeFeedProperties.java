@@ -0,0 +1,24 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the product change feed.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.changes")
+public class ChangeFeedProperties {
+
+    /**
+     * How old a change must be before the feed returns it. Every product write takes its timestamp from
+     * the application clock while its transaction is open, so without this delay a consumer could move its
+     * cursor past a change that commits later. A change is guaranteed to reach every consumer when its
+     * transaction commits within this time of taking its timestamp and the instances' clocks agree within
+     * the remaining margin. Product writes commit right after their timestamp is taken, bulk imports after
+     * each chunk; a transaction that commits later may be skipped.
+     */
+    private Duration settleTime = Duration.ofSeconds(5);
+}
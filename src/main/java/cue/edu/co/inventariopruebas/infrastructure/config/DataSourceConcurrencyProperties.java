@@ -0,0 +1,31 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the limit on concurrent database work, meant for the virtual-thread mode where the number
+ * of request threads is no longer bounded by the Tomcat pool.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.db.concurrency")
+public class DataSourceConcurrencyProperties {
+
+    /**
+     * Whether connections are handed out through the limiter. The number of permits is the connection
+     * pool's maximum size.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of threads waiting for a permit; further requests fail at once.
+     */
+    private int maxWaiting = 200;
+
+    /**
+     * Maximum time a thread waits for a permit before failing.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,31 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the server-sent stream of inventory changes.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.events")
+public class EventStreamProperties {
+
+    /**
+     * Maximum number of distinct products and categories with a change waiting to be sent to one subscriber.
+     * Repeated changes to the same product or category replace each other; past this many, the pending
+     * changes are dropped and the subscriber is told to reload instead.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * How long a subscription stays open; browsers reconnect on their own once it ends.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * How often an idle subscription is sent a comment, so proxies keep it open and dead clients are found.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,17 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the streaming catalog export.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.export")
+public class ExportProperties {
+
+    /**
+     * Number of rows the JDBC driver fetches per round-trip while streaming the export.
+     */
+    private int fetchSize = 1000;
+}
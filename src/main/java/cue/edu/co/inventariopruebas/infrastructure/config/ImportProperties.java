@@ -0,0 +1,22 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the bulk product import.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.import")
+public class ImportProperties {
+
+    /**
+     * Number of valid rows buffered before they are written to the database in one COPY or batch.
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * Maximum number of row errors reported in the response; further errors are only counted.
+     */
+    private int maxErrors = 1000;
+}
@@ -0,0 +1,37 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Settings for the optional in-memory stock mode used during flash sales.
+ * Only safe with a single application instance: other writers to the stock column are not seen.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.stock.in-memory")
+public class InMemoryStockProperties {
+
+    /**
+     * Whether the configured products keep their stock in memory.
+     */
+    private boolean enabled = false;
+
+    /**
+     * IDs of the contended products whose stock is held in memory.
+     */
+    private Set<Long> productIds = new LinkedHashSet<>();
+
+    /**
+     * Number of independent counters each product's stock is split across.
+     */
+    private int stripes = 8;
+
+    /**
+     * Delay between write-behind flushes of accumulated stock changes.
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+}
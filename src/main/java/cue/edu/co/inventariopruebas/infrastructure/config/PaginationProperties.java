@@ -0,0 +1,45 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits applied to keyset-paginated list endpoints.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.pagination")
+public class PaginationProperties {
+
+    /**
+     * Page size used when the client does not send a limit.
+     */
+    private int defaultLimit = 50;
+
+    /**
+     * Hard upper bound for the page size, regardless of what the client asks for.
+     */
+    private int maxLimit = 500;
+
+    /**
+     * Maximum number of IDs a single multi-get request may ask for.
+     */
+    private int maxBatchIds = 100;
+
+    /**
+     * Resolve the effective page size for a request.
+     *
+     * @param requested the limit sent by the client, may be null
+     * @return the page size to use
+     * @throws InvalidRequestException if the requested limit is not positive
+     */
+    public int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultLimit, maxLimit);
+        }
+        if (requested < 1) {
+            throw new InvalidRequestException("Limit must be greater than 0");
+        }
+        return Math.min(requested, maxLimit);
+    }
+}
@@ -0,0 +1,25 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory product read cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.cache.products")
+public class ProductCacheProperties {
+
+    /**
+     * Maximum number of products kept; the least valuable entries are evicted beyond it.
+     */
+    private long maxEntries = 10_000;
+
+    /**
+     * How long an entry is served after it was written, bounding staleness for changes made
+     * outside this application.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+}
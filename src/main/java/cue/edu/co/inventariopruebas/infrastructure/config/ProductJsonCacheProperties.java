@@ -0,0 +1,23 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the cache of pre-encoded product JSON used to write product listings.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.cache.product-json")
+public class ProductJsonCacheProperties {
+
+    /**
+     * Whether product listings are written from cached JSON fragments instead of plain Jackson.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum total size of the cached fragments; the least valuable entries are evicted beyond it.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+}
@@ -0,0 +1,22 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the Hibernate second-level cache regions.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.cache.second-level")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Maximum number of categories kept in the entity region.
+     */
+    private long categoryMaxEntries = 1_000;
+
+    /**
+     * Maximum number of cached query results, e.g. name lookups.
+     */
+    private long queryMaxEntries = 1_000;
+}
@@ -0,0 +1,64 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the stock movement ledger.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.stock.movements")
+public class StockMovementProperties {
+
+    /**
+     * When a stock change is answered relative to the write of its movement.
+     */
+    private Durability durability = Durability.ASYNC;
+
+    /**
+     * Maximum number of movements waiting to be written.
+     */
+    private int bufferSize = 10_000;
+
+    /**
+     * Maximum number of movements written per JDBC batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long a stock change waits for room in a full buffer before writing its movement itself.
+     */
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    /**
+     * How long a stock change waits for its movement to be written in {@code flush-on-commit} mode.
+     */
+    private Duration flushTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long the writer waits before retrying a batch that failed.
+     */
+    private Duration retryDelay = Duration.ofSeconds(1);
+
+    /**
+     * Size of the ledger's own connection pool: one for the writer, the rest for stock changes that write
+     * their movement themselves while the buffer is full.
+     */
+    private int writerConnections = 2;
+
+    public enum Durability {
+        /**
+         * The change is answered once its movement is queued; a crash loses the queued movements.
+         */
+        ASYNC,
+        /**
+         * The change is answered once its movement is written, batched with the movements of
+         * concurrent changes. The movement is still written after the change commits, so a crash in
+         * between loses it, and a movement that is not written within the flush timeout or is dropped
+         * does not fail the change.
+         */
+        FLUSH_ON_COMMIT
+    }
+}
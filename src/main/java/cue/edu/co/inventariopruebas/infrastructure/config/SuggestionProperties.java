@@ -0,0 +1,46 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the in-memory typeahead index.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.suggest")
+public class SuggestionProperties {
+
+    /**
+     * Number of completions returned when the client does not send a limit.
+     */
+    private int defaultLimit = 10;
+
+    /**
+     * Hard upper bound for the number of completions.
+     */
+    private int maxLimit = 50;
+
+    /**
+     * Longest key stored in the index; longer prefixes are matched on this many characters
+     * and then filtered against the full name.
+     */
+    private int maxKeyLength = 64;
+
+    /**
+     * Resolve the effective number of completions for a request.
+     *
+     * @param requested the limit sent by the client, may be null
+     * @return the number of completions to return
+     * @throws InvalidRequestException if the requested limit is not positive
+     */
+    public int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultLimit, maxLimit);
+        }
+        if (requested < 1) {
+            throw new InvalidRequestException("Limit must be greater than 0");
+        }
+        return Math.min(requested, maxLimit);
+    }
+}
@@ -0,0 +1,27 @@
+package cue.edu.co.inventariopruebas.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the daily valuation snapshots and their time series.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.valuation")
+public class ValuationProperties {
+
+    /**
+     * Cron expression of the snapshot job, in the server's time zone; {@code -} disables it.
+     */
+    private String snapshotCron = "0 5 0 * * *";
+
+    /**
+     * Number of days a time series covers when the request gives no start date.
+     */
+    private int defaultRangeDays = 30;
+
+    /**
+     * Maximum number of days a single time series request may cover.
+     */
+    private int maxRangeDays = 3660;
+}
@@ -1,13 +1,20 @@
 package cue.edu.co.inventariopruebas.infrastructure.controller;
 
+import cue.edu.co.inventariopruebas.application.dto.CategoryBulkRequestDTO;
 import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
 import cue.edu.co.inventariopruebas.application.dto.CategoryRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.CategoryStatsDTO;
+import cue.edu.co.inventariopruebas.application.dto.CategoryUpsertDTO;
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
 import cue.edu.co.inventariopruebas.application.service.CategoryService;
+import cue.edu.co.inventariopruebas.application.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,32 +24,70 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {PaginationHeaders.NEXT_CURSOR, HttpHeaders.ETAG})
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ProductService productService;
 
     /**
-     * Get all categories.
+     * Get a page of categories.
+     * The cursor for the next page is returned in the {@code X-Next-Cursor} header. Answers
+     * {@code If-None-Match} with 304 while no category has changed.
      *
-     * @return list of category DTOs
+     * @param after   the cursor returned with the previous page
+     * @param limit   the page size
+     * @param request the current request, for the conditional headers
+     * @return list of category DTOs, or null once a 304 has been sent
      */
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
-        List<CategoryDTO> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryDTO>> getAllCategories(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String eTag = categoryService.getCategoriesETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        CursorPage<CategoryDTO> page = categoryService.getCategoriesPage(after, limit);
+        return PaginationHeaders.ok(page, eTag);
+    }
+
+    /**
+     * Get the product count, total stock and stock value of every category.
+     * Answers {@code If-None-Match} with 304 while no product or category has changed.
+     *
+     * @param request the current request, for the conditional headers
+     * @return list of category stats DTOs, or null once a 304 has been sent
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStatsDTO>> getCategoryStats(WebRequest request) {
+        String eTag = productService.getProductsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(productService.getCategoryStats());
     }
 
     /**
      * Get a category by ID.
+     * Answers {@code If-None-Match} with 304, checked without loading the category.
      *
-     * @param id the category ID
-     * @return the category DTO
+     * @param id      the category ID
+     * @param request the current request, for the conditional headers
+     * @return the category DTO, or null once a 304 has been sent
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, () -> categoryService.findCategoryETag(id))) {
+            return null;
+        }
         CategoryDTO category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+        return ResponseEntity.ok()
+                .eTag(categoryService.getCategoryETag(category))
+                .body(category);
     }
 
     /**
@@ -57,19 +102,38 @@ public class CategoryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdCategory);
     }
 
+    /**
+     * Make sure categories with the given names exist, creating the missing ones.
+     *
+     * @param requestDTO the category names
+     * @return the ID of every named category and whether it was created, in request order
+     */
+    @PutMapping("/bulk")
+    public ResponseEntity<List<CategoryUpsertDTO>> upsertCategories(
+            @Valid @RequestBody CategoryBulkRequestDTO requestDTO) {
+        return ResponseEntity.ok(categoryService.upsertCategories(requestDTO.getNames()));
+    }
+
     /**
      * Update an existing category.
+     * With {@code If-Match} the update only applies while the category still has one of the given entity
+     * tags, and otherwise fails with 412. The new entity tag is returned in the {@code ETag} header.
      *
      * @param id         the category ID
+     * @param ifMatch    the entity tags of the client's copy, optional
      * @param requestDTO the category request DTO
      * @return the updated category DTO
      */
     @PutMapping("/{id}")
     public ResponseEntity<CategoryDTO> updateCategory(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody CategoryRequestDTO requestDTO) {
-        CategoryDTO updatedCategory = categoryService.updateCategory(id, requestDTO);
-        return ResponseEntity.ok(updatedCategory);
+        CategoryDTO updatedCategory =
+                categoryService.updateCategory(id, requestDTO, ConditionalRequests.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(categoryService.getCategoryETag(updatedCategory))
+                .body(updatedCategory);
     }
 
     /**
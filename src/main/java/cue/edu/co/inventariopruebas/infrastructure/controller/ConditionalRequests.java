@@ -0,0 +1,57 @@
+package cue.edu.co.inventariopruebas.infrastructure.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for conditional requests: answering GETs with {@code 304 Not Modified} before the resource is
+ * read, and reading the {@code If-Match} precondition of updates.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Check an {@code If-None-Match} header against the current entity tag of a resource.
+     * The tag is only looked up when the client sent the header, so unconditional reads cost nothing extra.
+     * When this returns true the 304 response is complete and the handler must return null.
+     *
+     * @param request     the current request
+     * @param currentETag looks up the current entity tag, empty if the resource does not exist
+     * @return true if the client's copy is current
+     */
+    static boolean isNotModified(WebRequest request, Supplier<Optional<String>> currentETag) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return false;
+        }
+        return currentETag.get().map(request::checkNotModified).orElse(false);
+    }
+
+    /**
+     * Parse an {@code If-Match} header into the entity tags an update may apply to.
+     * Weak tags never match, as {@code If-Match} uses strong comparison, so a header holding only weak
+     * tags gives an empty list that no version satisfies.
+     *
+     * @param ifMatch the header value, may be null
+     * @return the unquoted strong tags, or null if the header is absent or {@code *} (any current version)
+     */
+    static List<String> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<String> tags = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+                tags.add(trimmed.substring(1, trimmed.length() - 1));
+            }
+        }
+        return tags;
+    }
+}
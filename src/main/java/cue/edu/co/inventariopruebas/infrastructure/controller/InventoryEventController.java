@@ -0,0 +1,29 @@
+package cue.edu.co.inventariopruebas.infrastructure.controller;
+
+import cue.edu.co.inventariopruebas.infrastructure.events.InventoryEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for the server-sent stream of inventory changes.
+ */
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class InventoryEventController {
+
+    private final InventoryEventBroadcaster inventoryEventBroadcaster;
+
+    /**
+     * Subscribe to committed product, stock and category changes.
+     *
+     * @return the event stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return inventoryEventBroadcaster.subscribe();
+    }
+}
@@ -0,0 +1,37 @@
+package cue.edu.co.inventariopruebas.infrastructure.controller;
+
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Helpers for exposing keyset pagination metadata as response headers.
+ */
+final class PaginationHeaders {
+
+    /**
+     * Header carrying the opaque cursor for the next page; absent on the last page.
+     */
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private PaginationHeaders() {
+    }
+
+    /**
+     * Build a 200 response whose body is the page items and whose headers carry the next cursor and
+     * the listing's entity tag.
+     *
+     * @param page the page to return
+     * @param eTag the entity tag of the listing
+     * @param <T>  the item type
+     * @return the response entity
+     */
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page, String eTag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(eTag);
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return builder.body(page.getItems());
+    }
+}
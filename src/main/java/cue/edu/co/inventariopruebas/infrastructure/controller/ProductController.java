@@ -1,14 +1,32 @@
 package cue.edu.co.inventariopruebas.infrastructure.controller;
 
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import cue.edu.co.inventariopruebas.application.dto.ExportFormat;
+import cue.edu.co.inventariopruebas.application.dto.ProductBatchDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductChangesDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductImportResultDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.StockAdjustmentRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.StockLevelDTO;
+import cue.edu.co.inventariopruebas.application.dto.SuggestionDTO;
+import cue.edu.co.inventariopruebas.application.service.ProductExportService;
+import cue.edu.co.inventariopruebas.application.service.ProductImportService;
 import cue.edu.co.inventariopruebas.application.service.ProductService;
+import cue.edu.co.inventariopruebas.application.service.SuggestionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -17,57 +35,195 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {PaginationHeaders.NEXT_CURSOR, HttpHeaders.ETAG})
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final SuggestionService suggestionService;
 
     /**
-     * Get all products.
+     * Get a page of products, optionally filtered by category or name.
+     * The cursor for the next page is returned in the {@code X-Next-Cursor} header. Answers
+     * {@code If-None-Match} with 304 while no product or category has changed.
      *
-     * @return list of product DTOs
+     * @param categoryId the category ID to filter by
+     * @param search     the name to search for
+     * @param after      the cursor returned with the previous page
+     * @param limit      the page size
+     * @param request    the current request, for the conditional headers
+     * @return list of product DTOs, or null once a 304 has been sent
      */
     @GetMapping
     public ResponseEntity<List<ProductDTO>> getAllProducts(
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) String search) {
-
-        List<ProductDTO> products;
-
-        if (categoryId != null) {
-            products = productService.getProductsByCategoryId(categoryId);
-        } else if (search != null && !search.trim().isEmpty()) {
-            products = productService.searchProductsByName(search);
-        } else {
-            products = productService.getAllProducts();
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String eTag = productService.getProductsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
         }
+        CursorPage<ProductDTO> page = productService.getProductsPage(categoryId, search, after, limit);
+        return PaginationHeaders.ok(page, eTag);
+    }
 
-        return ResponseEntity.ok(products);
+    /**
+     * Get several products by ID in one request, e.g. {@code GET /api/products?ids=3,1,2}.
+     * Products are returned in request order and IDs that do not exist are listed separately.
+     *
+     * @param ids the product IDs, at most the configured maximum
+     * @return the products found and the missing IDs
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatchDTO> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     /**
      * Get a product by ID.
+     * Answers {@code If-None-Match} with 304, checked without loading the product.
      *
-     * @param id the product ID
-     * @return the product DTO
+     * @param id      the product ID
+     * @param request the current request, for the conditional headers
+     * @return the product DTO, or null once a 304 has been sent
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, () -> productService.findProductETag(id))) {
+            return null;
+        }
         ProductDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok()
+                .eTag(productService.getProductETag(product))
+                .body(product);
+    }
+
+    /**
+     * Search products by name and description, ranked by similarity and tolerant of typos.
+     *
+     * @param q       the text to search for
+     * @param limit   the maximum number of results
+     * @param request the current request, for the conditional headers
+     * @return list of matching product DTOs, best matches first, or null once a 304 has been sent
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductDTO>> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String eTag = productService.getProductsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<ProductDTO> products = productService.searchProductsRanked(q, limit);
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    /**
+     * Get typeahead completions for product and category names, served from memory.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of completions
+     * @return list of suggestions
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) Integer limit) {
+        List<SuggestionDTO> suggestions = suggestionService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
     }
 
     /**
      * Get products with low stock.
      *
      * @param threshold the stock threshold
-     * @return list of products with low stock
+     * @param request   the current request, for the conditional headers
+     * @return list of products with low stock, or null once a 304 has been sent
      */
     @GetMapping("/low-stock")
     public ResponseEntity<List<ProductDTO>> getLowStockProducts(
-            @RequestParam(defaultValue = "10") Integer threshold) {
+            @RequestParam(defaultValue = "10") Integer threshold,
+            WebRequest request) {
+        String eTag = productService.getProductsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<ProductDTO> products = productService.getLowStockProducts(threshold);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    /**
+     * Get products whose stock is below their own reorder point.
+     *
+     * @param request the current request, for the conditional headers
+     * @return list of products to reorder, or null once a 304 has been sent
+     */
+    @GetMapping("/below-reorder-point")
+    public ResponseEntity<List<ProductDTO>> getProductsBelowReorderPoint(WebRequest request) {
+        String eTag = productService.getProductsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<ProductDTO> products = productService.getProductsBelowReorderPoint();
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    /**
+     * Get the products changed or deleted since a change feed cursor, for incremental synchronization.
+     *
+     * @param since the cursor returned by the previous call, omitted on the first call
+     * @param limit the maximum number of changes
+     * @return the changed products, the deleted IDs and the cursor for the next call
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesDTO> getProductChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        ProductChangesDTO changes = productService.getProductChanges(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+    /**
+     * Export the full catalog as NDJSON or CSV.
+     * Rows are streamed to the client as they are read, so the response is never held in memory.
+     *
+     * @param format the export format, {@code ndjson} or {@code csv}
+     * @return the streaming response body
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = out -> productExportService.exportProducts(exportFormat, out);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("products." + exportFormat.getFileExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    /**
+     * Import products in bulk from a CSV or NDJSON body, selected by the {@code Content-Type} header.
+     * The body is read as a stream; invalid rows are skipped and reported in the result.
+     *
+     * @param contentType the body content type, {@code text/csv} or {@code application/x-ndjson}
+     * @param body        the request body
+     * @return the number of imported and rejected rows, with the row errors
+     * @throws IOException if reading the body fails
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) throws IOException {
+        ExportFormat format = ExportFormat.fromContentType(contentType);
+        ProductImportResultDTO result = productImportService.importProducts(format, body);
+        return ResponseEntity.ok(result);
     }
 
     /**
@@ -84,17 +240,39 @@ public class ProductController {
 
     /**
      * Update an existing product.
+     * With {@code If-Match} the update only applies while the product still has one of the given entity
+     * tags, and otherwise fails with 412. The new entity tag is returned in the {@code ETag} header.
      *
      * @param id         the product ID
+     * @param ifMatch    the entity tags of the client's copy, optional
      * @param requestDTO the product request DTO
      * @return the updated product DTO
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductRequestDTO requestDTO) {
-        ProductDTO updatedProduct = productService.updateProduct(id, requestDTO);
-        return ResponseEntity.ok(updatedProduct);
+        ProductDTO updatedProduct =
+                productService.updateProduct(id, requestDTO, ConditionalRequests.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(productService.getProductETag(updatedProduct))
+                .body(updatedProduct);
+    }
+
+    /**
+     * Add a delta to the stock of a product atomically.
+     *
+     * @param id         the product ID
+     * @param requestDTO the stock change
+     * @return the stock after the change
+     */
+    @PatchMapping("/{id}/stock")
+    public ResponseEntity<StockLevelDTO> adjustStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentRequestDTO requestDTO) {
+        StockLevelDTO stockLevel = productService.adjustStock(id, requestDTO.getDelta());
+        return ResponseEntity.ok(stockLevel);
     }
 
     /**
@@ -0,0 +1,68 @@
+package cue.edu.co.inventariopruebas.infrastructure.controller;
+
+import cue.edu.co.inventariopruebas.application.cache.ProductJsonCache;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@code List<ProductDTO>} response bodies from the {@link ProductJsonCache}, concatenating each
+ * product's cached JSON straight into the response instead of serializing the list with Jackson.
+ * Registered ahead of the Jackson converter; every other type, and every list when the cache is
+ * disabled or absent, is left to Jackson.
+ */
+@Component
+public class ProductListMessageConverter extends AbstractGenericHttpMessageConverter<List<ProductDTO>> {
+
+    private static final ResolvableType PRODUCT_LIST =
+            ResolvableType.forClassWithGenerics(List.class, ProductDTO.class);
+
+    // Looked up lazily, and optional, so web slices without the cache fall back to Jackson
+    private final ObjectProvider<ProductJsonCache> productJsonCache;
+
+    public ProductListMessageConverter(ObjectProvider<ProductJsonCache> productJsonCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.productJsonCache = productJsonCache;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (type == null || !PRODUCT_LIST.isAssignableFrom(ResolvableType.forType(type))) {
+            return false;
+        }
+        ProductJsonCache cache = productJsonCache.getIfAvailable();
+        return cache != null && cache.isEnabled() && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(List<ProductDTO> products, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        productJsonCache.getObject().writeJsonArray(products, outputMessage.getBody());
+    }
+
+    @Override
+    protected List<ProductDTO> readInternal(Class<? extends List<ProductDTO>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Product lists are not read with this converter", inputMessage);
+    }
+
+    @Override
+    public List<ProductDTO> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Product lists are not read with this converter", inputMessage);
+    }
+}
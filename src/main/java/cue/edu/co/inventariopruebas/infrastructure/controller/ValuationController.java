@@ -0,0 +1,41 @@
+package cue.edu.co.inventariopruebas.infrastructure.controller;
+
+import cue.edu.co.inventariopruebas.application.dto.ValuationPointDTO;
+import cue.edu.co.inventariopruebas.application.service.ValuationSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST Controller for the inventory valuation history.
+ */
+@RestController
+@RequestMapping("/api/valuations")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ValuationController {
+
+    private final ValuationSnapshotService valuationSnapshotService;
+
+    /**
+     * Get the stock valuation over a date range, read from the daily snapshots.
+     *
+     * @param from        the first day (ISO date), defaults to the configured range before {@code to}
+     * @param to          the last day (ISO date), defaults to today
+     * @param granularity the period to downsample to: {@code day}, {@code week} or {@code month}
+     * @param categoryId  optional category, otherwise the sum of all categories
+     * @return one valuation point per period
+     */
+    @GetMapping
+    public ResponseEntity<List<ValuationPointDTO>> getValuationSeries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) Long categoryId) {
+        return ResponseEntity.ok(valuationSnapshotService.getValuationSeries(from, to, granularity, categoryId));
+    }
+}
@@ -0,0 +1,120 @@
+package cue.edu.co.inventariopruebas.infrastructure.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One open event stream and the changes waiting to be written to it.
+ * <p>
+ * Pending changes are keyed by the product or category they concern, so a newer change replaces an unsent
+ * older one and the buffer holds at most one change per key. When a change for a new key arrives at a full
+ * buffer, every pending change is dropped and the client is sent a single {@code resync} event in their
+ * place, telling it to reload. Writes happen on one drain task at a time, never on the publishing thread,
+ * so a slow client only ever delays itself.
+ */
+final class EventSubscriber {
+
+    static final String RESYNC_EVENT = "resync";
+
+    private final SseEmitter emitter;
+    private final int capacity;
+
+    private final Map<String, PendingEvent> pending = new LinkedHashMap<>();
+    private boolean overflowed;
+    private boolean draining;
+    private boolean closed;
+
+    EventSubscriber(SseEmitter emitter, int capacity) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queue an event, replacing any unsent event with the same key.
+     *
+     * @param key  what the event concerns, e.g. {@code product:1}
+     * @param name the SSE event name, or null for a heartbeat comment
+     * @param data the event data, serialized as JSON
+     * @return true if the caller must schedule {@link #drain()}, false if a drain is already scheduled
+     */
+    synchronized boolean offer(String key, String name, Object data) {
+        if (closed) {
+            return false;
+        }
+        if (!overflowed) {
+            // Moving a replaced key to the end keeps the events of different keys in publication order
+            if (pending.remove(key) != null || pending.size() < capacity) {
+                pending.put(key, new PendingEvent(name, data));
+            } else {
+                pending.clear();
+                overflowed = true;
+            }
+        }
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    /**
+     * Write the pending events until none are left. Events offered meanwhile are written by the same call.
+     */
+    void drain() {
+        while (true) {
+            List<PendingEvent> batch;
+            synchronized (this) {
+                if (closed || (pending.isEmpty() && !overflowed)) {
+                    draining = false;
+                    return;
+                }
+                if (overflowed) {
+                    batch = List.of(new PendingEvent(RESYNC_EVENT, Map.of()));
+                    overflowed = false;
+                } else {
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                }
+            }
+            try {
+                for (PendingEvent event : batch) {
+                    emitter.send(event.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                close();
+                emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stop queueing events; pending ones are discarded.
+     */
+    synchronized void close() {
+        closed = true;
+        draining = false;
+        pending.clear();
+    }
+
+    private record PendingEvent(String name, Object data) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+}
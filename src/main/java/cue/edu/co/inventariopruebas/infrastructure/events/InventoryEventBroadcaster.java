@@ -0,0 +1,167 @@
+package cue.edu.co.inventariopruebas.infrastructure.events;
+
+import cue.edu.co.inventariopruebas.application.dto.InventoryEventDTO;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ProductsImportedEvent;
+import cue.edu.co.inventariopruebas.application.event.StockChangedEvent;
+import cue.edu.co.inventariopruebas.infrastructure.config.EventStreamProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes committed product, stock and category changes to every open server-sent event stream.
+ * <p>
+ * Events are {@code product}, {@code stock} and {@code category}, with an {@link InventoryEventDTO} as data,
+ * and {@code resync}, sent after a bulk import or when a subscriber fell too far behind, telling the client
+ * to reload. Each subscriber buffers at most {@code inventory.events.buffer-size} changes (see
+ * {@link EventSubscriber}) and is written to on its own virtual thread, so publishing never blocks on a
+ * client and a stalled client holds a bounded amount of memory.
+ */
+@Component
+@Slf4j
+public class InventoryEventBroadcaster {
+
+    static final String PRODUCT_EVENT = "product";
+    static final String STOCK_EVENT = "stock";
+    static final String CATEGORY_EVENT = "category";
+
+    private final EventStreamProperties properties;
+    private final Executor executor;
+
+    private final Set<EventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public InventoryEventBroadcaster(EventStreamProperties properties) {
+        this(properties, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    InventoryEventBroadcaster(EventStreamProperties properties, Executor executor) {
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    /**
+     * Open a new event stream.
+     *
+     * @return the emitter to return from the request handler
+     */
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        EventSubscriber subscriber = new EventSubscriber(emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onError(error -> unregister(subscriber));
+        // Complete on timeout, so the request ends cleanly instead of with an async timeout error
+        emitter.onTimeout(emitter::complete);
+        subscribers.add(subscriber);
+        log.debug("Event stream opened, {} subscribers", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Get the number of open event streams.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Push a committed product change.
+     *
+     * @param event the product change
+     */
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        publish(PRODUCT_EVENT + ":" + event.getProductId(), PRODUCT_EVENT,
+                new InventoryEventDTO(event.getType(), event.getProductId(), event.getProduct(), null, null));
+    }
+
+    /**
+     * Push a committed stock change. The change is published once its own statement has committed, or once
+     * it is applied to a product held in memory, outside any transaction, hence the fallback. Commits of
+     * concurrent changes can be delivered out of order, but a later product update carries the stock again.
+     *
+     * @param event the stock change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        publish(STOCK_EVENT + ":" + event.getProductId(), STOCK_EVENT,
+                new InventoryEventDTO(ChangeType.UPDATED, event.getProductId(), null, null, event.getStock()));
+    }
+
+    /**
+     * Push a committed category change.
+     *
+     * @param event the category change
+     */
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        publish(CATEGORY_EVENT + ":" + event.getCategoryId(), CATEGORY_EVENT,
+                new InventoryEventDTO(event.getType(), event.getCategoryId(), null, event.getCategory(), null));
+    }
+
+    /**
+     * Tell every client to reload after a committed bulk import, whose new product IDs are not known.
+     *
+     * @param event the import
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        publish(EventSubscriber.RESYNC_EVENT, EventSubscriber.RESYNC_EVENT, Map.of());
+    }
+
+    /**
+     * Send a comment to every subscriber; a write to a closed connection fails and ends its subscription.
+     */
+    @Scheduled(fixedDelayString = "${inventory.events.heartbeat-interval:30s}")
+    public void sendHeartbeats() {
+        publish("heartbeat", null, null);
+    }
+
+    /**
+     * Complete every open stream on shutdown, so clients reconnect to another instance.
+     */
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        });
+        subscribers.clear();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void publish(String key, String name, Object data) {
+        for (EventSubscriber subscriber : subscribers) {
+            if (subscriber.offer(key, name, data)) {
+                executor.execute(subscriber::drain);
+            }
+        }
+    }
+
+    private void unregister(EventSubscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+        log.debug("Event stream closed, {} subscribers", subscribers.size());
+    }
+}
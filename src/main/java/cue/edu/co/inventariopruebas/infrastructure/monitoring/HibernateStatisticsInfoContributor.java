@@ -0,0 +1,39 @@
+package cue.edu.co.inventariopruebas.infrastructure.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Publishes the Hibernate statistics that do not fit a metric on {@code /actuator/info}: the text of the
+ * slowest query, which would be an unbounded tag, next to the counts it should be read against.
+ * The counters themselves are published as {@code hibernate.*} metrics.
+ */
+@Component
+public class HibernateStatisticsInfoContributor implements InfoContributor {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsInfoContributor(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("enabled", statistics.isStatisticsEnabled());
+        details.put("queryExecutions", statistics.getQueryExecutionCount());
+        details.put("entityLoads", statistics.getEntityLoadCount());
+        details.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        details.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        details.put("slowestQueryMillis", statistics.getQueryExecutionMaxTime());
+        details.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        builder.withDetail("hibernate", details);
+    }
+}
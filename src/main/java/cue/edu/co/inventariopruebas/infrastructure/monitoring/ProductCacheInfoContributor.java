@@ -0,0 +1,22 @@
+package cue.edu.co.inventariopruebas.infrastructure.monitoring;
+
+import cue.edu.co.inventariopruebas.application.cache.ProductCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the product cache size, hit and miss rates and eviction count on {@code /actuator/info}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInfoContributor implements InfoContributor {
+
+    private final ProductCache productCache;
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("productCache", productCache.getStats());
+    }
+}
@@ -0,0 +1,101 @@
+package cue.edu.co.inventariopruebas.infrastructure.monitoring;
+
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the product and category services and counts the rows they return.
+ * <p>
+ * Publishes {@code inventory.service.calls} (timer) and {@code inventory.service.rows} (counter, for
+ * methods returning a list or a page), tagged with the {@code service} and {@code method} names and, on
+ * the timer, the {@code exception} class name or {@code none}. Every tag comes from the code, so the
+ * number of series is fixed. The meters of each method are looked up once and kept, so a call only pays
+ * for two clock reads and the timer update.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String CALLS_METRIC = "inventory.service.calls";
+    static final String ROWS_METRIC = "inventory.service.rows";
+
+    private final MeterRegistry registry;
+
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * *(..)) && ("
+            + "within(cue.edu.co.inventariopruebas.application.service.ProductService) "
+            + "|| within(cue.edu.co.inventariopruebas.application.service.CategoryService))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters methodMeters = meters.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), this::createMeters);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodMeters.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            countRows(methodMeters, result);
+            return result;
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            timer(methodMeters, e.getClass().getSimpleName()).record(elapsed, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private MethodMeters createMeters(Method method) {
+        String service = method.getDeclaringClass().getSimpleName();
+        String name = method.getName();
+        Counter rows = null;
+        Class<?> returnType = method.getReturnType();
+        if (Collection.class.isAssignableFrom(returnType) || CursorPage.class.isAssignableFrom(returnType)) {
+            rows = Counter.builder(ROWS_METRIC)
+                    .description("Rows returned by service methods")
+                    .tag("service", service)
+                    .tag("method", name)
+                    .register(registry);
+        }
+        return new MethodMeters(service, name, timer(service, name, "none"), rows);
+    }
+
+    private Timer timer(MethodMeters methodMeters, String exception) {
+        return timer(methodMeters.service(), methodMeters.method(), exception);
+    }
+
+    private Timer timer(String service, String method, String exception) {
+        return Timer.builder(CALLS_METRIC)
+                .description("Duration of service method calls")
+                .tag("service", service)
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(registry);
+    }
+
+    private static void countRows(MethodMeters methodMeters, Object result) {
+        if (methodMeters.rows() == null) {
+            return;
+        }
+        if (result instanceof Collection<?> collection) {
+            methodMeters.rows().increment(collection.size());
+        } else if (result instanceof CursorPage<?> page && page.getItems() != null) {
+            methodMeters.rows().increment(page.getItems().size());
+        }
+    }
+
+    private record MethodMeters(String service, String method, Timer success, Counter rows) {
+    }
+}
@@ -0,0 +1,22 @@
+package cue.edu.co.inventariopruebas.infrastructure.monitoring;
+
+import cue.edu.co.inventariopruebas.application.service.SuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the typeahead index size and estimated memory footprint on {@code /actuator/info}.
+ */
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndexInfoContributor implements InfoContributor {
+
+    private final SuggestionService suggestionService;
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("suggestionIndex", suggestionService.getIndexStats());
+    }
+}
@@ -0,0 +1,133 @@
+package cue.edu.co.inventariopruebas.infrastructure.persistence;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Data source that lets at most a fixed number of threads hold a connection at once.
+ * <p>
+ * Threads beyond the limit wait on a fair semaphore, in arrival order, for at most the acquire timeout,
+ * and no more than {@code maxWaiting} of them wait at a time; the rest fail at once with a
+ * {@link SQLTransientConnectionException}. With one permit per pooled connection, a burst of virtual
+ * threads therefore queues cheaply here instead of piling up in the pool, and an overload is rejected
+ * quickly rather than after every queued request timed out. The permit is released when the connection is
+ * closed.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final Duration acquireTimeout;
+
+    /**
+     * Create a limiter in front of a data source.
+     *
+     * @param target         the data source handing out the connections
+     * @param maxConcurrent  maximum number of connections held at once
+     * @param maxWaiting     maximum number of threads waiting for a connection
+     * @param acquireTimeout maximum time a thread waits for a connection
+     */
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrent, int maxWaiting,
+                                         Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Get the number of connections that can still be taken without waiting.
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Get the number of threads waiting for a connection.
+     */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        // The queue length is an estimate, so the bound on waiting threads is approximate
+        if (permits.getQueueLength() >= maxWaiting) {
+            throw new SQLTransientConnectionException(
+                    "Database concurrency limit reached with " + maxWaiting + " requests already waiting");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database connection available within " + acquireTimeout.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection limited(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> invoke(connection, released, method, args));
+    }
+
+    private Object invoke(Connection connection, AtomicBoolean released, Method method, Object[] args)
+            throws Throwable {
+        if ("close".equals(method.getName())) {
+            try {
+                connection.close();
+            } finally {
+                // close may be called more than once; only the first call gives the permit back
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+            return null;
+        }
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,41 @@
+package cue.edu.co.inventariopruebas.infrastructure.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import cue.edu.co.inventariopruebas.infrastructure.config.DataSourceConcurrencyProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of the connection pool when
+ * {@code inventory.db.concurrency.enabled} is set, with one permit per pooled connection.
+ * The stock movement ledger's pool is left alone, as its writes must not queue behind the changes they record.
+ */
+@Component
+@Slf4j
+public class DataSourceConcurrencyPostProcessor implements BeanPostProcessor {
+
+    // Looked up lazily: post-processors are created before the configuration properties are bound
+    private final ObjectProvider<DataSourceConcurrencyProperties> properties;
+
+    public DataSourceConcurrencyPostProcessor(ObjectProvider<DataSourceConcurrencyProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource pool)
+                || StockMovementDataSourceConfiguration.DATA_SOURCE.equals(beanName)) {
+            return bean;
+        }
+        DataSourceConcurrencyProperties settings = properties.getObject();
+        if (!settings.isEnabled()) {
+            return bean;
+        }
+        log.info("Limiting database concurrency to {} connections with up to {} waiting requests",
+                pool.getMaximumPoolSize(), settings.getMaxWaiting());
+        return new ConcurrencyLimitingDataSource(pool, pool.getMaximumPoolSize(), settings.getMaxWaiting(),
+                settings.getAcquireTimeout());
+    }
+}
@@ -0,0 +1,53 @@
+package cue.edu.co.inventariopruebas.infrastructure.persistence;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.infrastructure.config.SecondLevelCacheProperties;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hands Hibernate a Caffeine JCache manager holding every second-level cache region, each bounded by
+ * {@link SecondLevelCacheProperties}. The manager is private to one entity manager factory, so test
+ * contexts sharing the JVM do not share regions, and Hibernate closes it with the factory.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheCustomizer implements HibernatePropertiesCustomizer {
+
+    static final String CATEGORY_REGION = Category.class.getName();
+
+    private final SecondLevelCacheProperties properties;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(CATEGORY_REGION, region(OptionalLong.of(properties.getCategoryMaxEntries())));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.of(properties.getQueryMaxEntries())));
+        // Never evicted: a dropped table timestamp would let stale query results be served
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty()));
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate already stores disassembled copies, so the entries need not be copied again
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maximumSize);
+        return configuration;
+    }
+}
@@ -0,0 +1,55 @@
+package cue.edu.co.inventariopruebas.infrastructure.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import cue.edu.co.inventariopruebas.infrastructure.config.StockMovementProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The stock movement ledger's own connection pool, outside the application's pool and its concurrency limit:
+ * in {@code flush-on-commit} mode a stock change waits for its movement while it still holds its connection,
+ * so with a shared pool as many concurrent changes as connections would leave the writer none.
+ * <p>
+ * The beans are not default candidates, so they are injected only where asked for by qualifier and leave the
+ * auto-configured data source and JDBC template in place.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StockMovementDataSourceConfiguration {
+
+    /**
+     * Name and qualifier of the ledger's data source.
+     */
+    public static final String DATA_SOURCE = "stockMovementDataSource";
+
+    /**
+     * Name and qualifier of the JDBC template on the ledger's data source.
+     */
+    public static final String JDBC_TEMPLATE = "stockMovementJdbcTemplate";
+
+    @Bean(name = DATA_SOURCE, defaultCandidate = false)
+    public HikariDataSource stockMovementDataSource(DataSourceProperties dataSourceProperties,
+                                                    StockMovementProperties properties,
+                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        // Same database and credentials as the application's pool, sized for the ledger
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("stock-movement-writer");
+        dataSource.setMaximumPoolSize(properties.getWriterConnections());
+        dataSource.setMinimumIdle(0);
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return dataSource;
+    }
+
+    @Bean(name = JDBC_TEMPLATE, defaultCandidate = false)
+    public JdbcTemplate stockMovementJdbcTemplate(@Qualifier(DATA_SOURCE) HikariDataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+}
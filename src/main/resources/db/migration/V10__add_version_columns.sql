@@ -0,0 +1,4 @@
+-- Optimistic locking: every write to a row increments its version, and JPA updates only apply to the
+-- version they read, so concurrent editors no longer overwrite each other's changes
+ALTER TABLE categories ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Change feed: products changed after an (updated_at, id) cursor are read in index order
+CREATE INDEX idx_products_updated_at_id ON products (updated_at, id);
+
+-- Products deleted through the API, so the change feed can report deletions
+CREATE TABLE product_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    -- No foreign key: the product row is gone
+    product_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_product_tombstones_deleted_at_product_id ON product_tombstones (deleted_at, product_id);
@@ -0,0 +1,13 @@
+-- Append-only ledger of stock changes, written in batches by a background writer
+CREATE TABLE stock_movements (
+    id BIGSERIAL PRIMARY KEY,
+    -- No foreign key: the ledger outlives the product, and rows may be written after its deletion
+    product_id BIGINT NOT NULL,
+    delta INTEGER NOT NULL,
+    stock_after INTEGER NOT NULL,
+    reason VARCHAR(20) NOT NULL,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+-- A product's history is read in time order
+CREATE INDEX idx_stock_movements_product_id_occurred_at ON stock_movements (product_id, occurred_at);
@@ -0,0 +1,6 @@
+-- Composite index so category-filtered pages can seek by (category_id, id)
+-- instead of sorting every product in the category
+CREATE INDEX idx_products_category_id_id ON products(category_id, id);
+
+-- The composite index covers category_id lookups, so the single-column index is redundant
+DROP INDEX idx_products_category_id;
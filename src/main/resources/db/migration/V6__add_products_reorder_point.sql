@@ -0,0 +1,3 @@
+-- Per-product stock level below which the product should be reordered; 0 disables the alert
+ALTER TABLE products ADD COLUMN reorder_point INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE products ADD CONSTRAINT chk_products_reorder_point CHECK (reorder_point >= 0);
@@ -0,0 +1,15 @@
+-- Daily per-category inventory valuation, written by the snapshot job
+-- (V8 is the PostgreSQL-only category stats index in db/vendor/postgresql)
+CREATE TABLE category_valuation_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    snapshot_date DATE NOT NULL,
+    -- No foreign key: the history of a category outlives the category, so its name is copied too
+    category_id BIGINT NOT NULL,
+    category_name VARCHAR(100) NOT NULL,
+    product_count BIGINT NOT NULL,
+    total_stock BIGINT NOT NULL,
+    stock_value DECIMAL(19, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- One snapshot per category and day; the index also serves date range scans
+    CONSTRAINT uk_valuation_snapshots_date_category UNIQUE (snapshot_date, category_id)
+);
@@ -49,7 +49,7 @@ document.getElementById('category-form').addEventListener('submit', async (e) =>
         if (response.ok) {
             showNotification('Categoría creada exitosamente');
             document.getElementById('category-form').reset();
-            loadCategories();
+            applyCategoryChange({ change: 'CREATED', id: null, category: await response.json() });
         } else {
             const error = await response.json();
             showNotification(error.message || 'Error al crear categoría', 'error');
@@ -59,33 +59,55 @@ document.getElementById('category-form').addEventListener('submit', async (e) =>
     }
 });
 
+// Pagination: list endpoints return one page and the cursor for the next one in X-Next-Cursor
+async function fetchPage(url, after = null) {
+    const separator = url.includes('?') ? '&' : '?';
+    const pageUrl = after ? `${url}${separator}after=${encodeURIComponent(after)}` : url;
+    const response = await fetch(pageUrl);
+    const items = await response.json();
+    return { items, nextCursor: response.headers.get('X-Next-Cursor') };
+}
+
+async function fetchAllPages(url) {
+    const all = [];
+    let after = null;
+    do {
+        const page = await fetchPage(url, after);
+        all.push(...page.items);
+        after = page.nextCursor;
+    } while (after);
+    return all;
+}
+
 async function loadCategories() {
     try {
-        const response = await fetch(`${API_URL}/categories`);
-        const categories = await response.json();
+        const categories = await fetchAllPages(`${API_URL}/categories`);
 
         const listContainer = document.getElementById('categories-list');
         listContainer.innerHTML = '';
 
-        categories.forEach(category => {
-            const item = document.createElement('div');
-            item.className = 'list-item';
-            item.innerHTML = `
-                <div class="list-item-content">
-                    <h3>${category.name}</h3>
-                    <p>ID: ${category.id}</p>
-                </div>
-                <div class="list-item-actions">
-                    <button class="btn-danger" onclick="deleteCategory(${category.id})">Eliminar</button>
-                </div>
-            `;
-            listContainer.appendChild(item);
-        });
+        categories.forEach(category => listContainer.appendChild(renderCategory(category)));
     } catch (error) {
         showNotification('Error al cargar categorías', 'error');
     }
 }
 
+function renderCategory(category) {
+    const item = document.createElement('div');
+    item.className = 'list-item';
+    item.setAttribute('data-category-id', category.id);
+    item.innerHTML = `
+        <div class="list-item-content">
+            <h3>${category.name}</h3>
+            <p>ID: ${category.id}</p>
+        </div>
+        <div class="list-item-actions">
+            <button class="btn-danger" onclick="deleteCategory(${category.id})">Eliminar</button>
+        </div>
+    `;
+    return item;
+}
+
 async function deleteCategory(id) {
     if (!confirm('¿Está seguro de eliminar esta categoría?')) return;
 
@@ -96,7 +118,7 @@ async function deleteCategory(id) {
 
         if (response.ok) {
             showNotification('Categoría eliminada exitosamente');
-            loadCategories();
+            applyCategoryChange({ change: 'DELETED', id });
         } else {
             const error = await response.json();
             showNotification(error.message || 'Error al eliminar categoría', 'error');
@@ -128,7 +150,7 @@ document.getElementById('product-form').addEventListener('submit', async (e) =>
         if (response.ok) {
             showNotification('Producto creado exitosamente');
             document.getElementById('product-form').reset();
-            loadProducts();
+            applyProductChange({ change: 'CREATED', product: await response.json() });
         } else {
             const error = await response.json();
             showNotification(error.message || 'Error al crear producto', 'error');
@@ -138,55 +160,77 @@ document.getElementById('product-form').addEventListener('submit', async (e) =>
     }
 });
 
+let productsUrl = null;
+let productsCursor = null;
+let productsFilter = { categoryId: null, search: null };
+const renderedProducts = new Map();
+
 async function loadProducts(categoryId = null, search = null) {
-    try {
-        let url = `${API_URL}/products`;
-        const params = new URLSearchParams();
+    let url = `${API_URL}/products`;
+    const params = new URLSearchParams();
 
-        if (categoryId) params.append('categoryId', categoryId);
-        if (search) params.append('search', search);
+    if (categoryId) params.append('categoryId', categoryId);
+    if (search) params.append('search', search);
 
-        if (params.toString()) url += `?${params.toString()}`;
+    if (params.toString()) url += `?${params.toString()}`;
 
-        const response = await fetch(url);
-        const products = await response.json();
+    productsUrl = url;
+    productsCursor = null;
+    productsFilter = { categoryId, search };
+    renderedProducts.clear();
+    document.getElementById('products-list').innerHTML = '';
+    await loadMoreProducts();
+}
 
-        const listContainer = document.getElementById('products-list');
-        listContainer.innerHTML = '';
+async function loadMoreProducts() {
+    try {
+        const url = productsUrl;
+        const page = await fetchPage(url, productsCursor);
+        if (url !== productsUrl) return; // a newer search or filter replaced this listing
+        productsCursor = page.nextCursor;
 
-        products.forEach(product => {
-            const item = document.createElement('div');
-            item.className = 'list-item';
-            item.setAttribute('data-product-id', product.id);
-
-            const stockBadge = product.stock < 10
-                ? `<span class="badge badge-warning">Stock bajo: ${product.stock}</span>`
-                : `<span class="badge badge-success">Stock: ${product.stock}</span>`;
-
-            item.innerHTML = `
-                <div class="list-item-content">
-                    <h3>${product.name}</h3>
-                    <p><strong>Descripción:</strong> ${product.description || 'N/A'}</p>
-                    <p><strong>Precio:</strong> $${product.price.toFixed(2)}</p>
-                    <p><strong>Categoría:</strong> ${product.categoryName}</p>
-                    <p>${stockBadge}</p>
-                </div>
-                <div class="list-item-actions">
-                    <button class="btn-secondary" onclick="openEditModal(${product.id})">Editar</button>
-                    <button class="btn-danger" onclick="deleteProduct(${product.id})">Eliminar</button>
-                </div>
-            `;
-            listContainer.appendChild(item);
+        const listContainer = document.getElementById('products-list');
+        page.items.forEach(product => {
+            renderedProducts.set(product.id, product);
+            listContainer.appendChild(renderProduct(product));
         });
+
+        document.getElementById('load-more-products').style.display = productsCursor ? 'block' : 'none';
     } catch (error) {
         showNotification('Error al cargar productos', 'error');
     }
 }
 
+function renderProduct(product) {
+    const item = document.createElement('div');
+    item.className = 'list-item';
+    item.setAttribute('data-product-id', product.id);
+
+    const stockBadge = product.stock < 10
+        ? `<span class="badge badge-warning">Stock bajo: ${product.stock}</span>`
+        : `<span class="badge badge-success">Stock: ${product.stock}</span>`;
+
+    item.innerHTML = `
+        <div class="list-item-content">
+            <h3>${product.name}</h3>
+            <p><strong>Descripción:</strong> ${product.description || 'N/A'}</p>
+            <p><strong>Precio:</strong> $${product.price.toFixed(2)}</p>
+            <p><strong>Categoría:</strong> ${product.categoryName}</p>
+            <p>${stockBadge}</p>
+        </div>
+        <div class="list-item-actions">
+            <button class="btn-secondary" onclick="openEditModal(${product.id})">Editar</button>
+            <button class="btn-danger" onclick="deleteProduct(${product.id})">Eliminar</button>
+        </div>
+    `;
+    return item;
+}
+
+document.getElementById('load-more-products').addEventListener('click', loadMoreProducts);
+
 async function loadCategoriesForSelect() {
     try {
-        const response = await fetch(`${API_URL}/categories`);
-        const categories = await response.json();
+        const categories = await fetchAllPages(`${API_URL}/categories`);
 
         const selects = [
             document.getElementById('product-category'),
@@ -226,7 +270,7 @@ async function deleteProduct(id) {
 
         if (response.ok) {
             showNotification('Producto eliminado exitosamente');
-            loadProducts();
+            applyProductChange({ change: 'DELETED', id });
         } else {
             const error = await response.json();
             showNotification(error.message || 'Error al eliminar producto', 'error');
@@ -290,7 +334,7 @@ document.getElementById('edit-product-form').addEventListener('submit', async (e
         if (response.ok) {
             showNotification('Producto actualizado exitosamente');
             modal.style.display = 'none';
-            loadProducts();
+            applyProductChange({ change: 'UPDATED', product: await response.json() });
         } else {
             const error = await response.json();
             showNotification(error.message || 'Error al actualizar producto', 'error');
@@ -304,14 +348,145 @@ document.getElementById('edit-product-form').addEventListener('submit', async (e
 document.getElementById('search-input').addEventListener('input', (e) => {
     const search = e.target.value;
     const categoryId = document.getElementById('filter-category').value;
+    loadSuggestions(search);
     loadProducts(categoryId || null, search || null);
 });
 
+// Typeahead: completions come from the in-memory index, without a database round-trip
+async function loadSuggestions(prefix) {
+    const datalist = document.getElementById('search-suggestions');
+    if (!prefix.trim()) {
+        datalist.innerHTML = '';
+        return;
+    }
+
+    try {
+        const response = await fetch(`${API_URL}/products/suggest?prefix=${encodeURIComponent(prefix)}`);
+        const suggestions = await response.json();
+
+        datalist.innerHTML = '';
+        suggestions
+            .filter(suggestion => suggestion.type === 'PRODUCT')
+            .forEach(suggestion => {
+                const option = document.createElement('option');
+                option.value = suggestion.name;
+                datalist.appendChild(option);
+            });
+    } catch (error) {
+        datalist.innerHTML = '';
+    }
+}
+
 document.getElementById('filter-category').addEventListener('change', (e) => {
     const categoryId = e.target.value;
     const search = document.getElementById('search-input').value;
     loadProducts(categoryId || null, search || null);
 });
 
+// Live updates: the server pushes committed changes, and each one patches only the rows it concerns.
+// The tab's own changes are applied from the response as well; applying a change twice is harmless.
+function matchesProductFilter(product) {
+    const { categoryId, search } = productsFilter;
+    if (categoryId && String(product.categoryId) !== String(categoryId)) return false;
+    return !search || product.name.toLowerCase().includes(search.toLowerCase());
+}
+
+function applyProductChange(event) {
+    const id = event.product ? event.product.id : event.id;
+    const listContainer = document.getElementById('products-list');
+    const row = listContainer.querySelector(`[data-product-id="${id}"]`);
+
+    if (event.change === 'DELETED' || !matchesProductFilter(event.product)) {
+        if (row) row.remove();
+        renderedProducts.delete(id);
+        return;
+    }
+    if (row) {
+        renderedProducts.set(id, event.product);
+        row.replaceWith(renderProduct(event.product));
+        return;
+    }
+    // Rows are listed by ID; a row past the last loaded page shows up with "load more"
+    const next = [...listContainer.children].find(item => Number(item.getAttribute('data-product-id')) > id);
+    if (!next && productsCursor) return;
+    renderedProducts.set(id, event.product);
+    listContainer.insertBefore(renderProduct(event.product), next || null);
+}
+
+function applyStockChange(event) {
+    const product = renderedProducts.get(event.id);
+    if (!product) return;
+    applyProductChange({ change: 'UPDATED', product: { ...product, stock: event.stock } });
+}
+
+function applyCategoryChange(event) {
+    const category = event.category;
+    const id = category ? category.id : event.id;
+    const listContainer = document.getElementById('categories-list');
+    const row = listContainer.querySelector(`[data-category-id="${id}"]`);
+
+    if (event.change === 'DELETED') {
+        if (row) row.remove();
+    } else if (row) {
+        row.replaceWith(renderCategory(category));
+    } else {
+        listContainer.appendChild(renderCategory(category));
+    }
+    patchCategoryOptions(id, category);
+
+    // Product rows show the category name, and deleting a category deletes its products
+    renderedProducts.forEach(product => {
+        if (product.categoryId !== id) return;
+        if (event.change === 'DELETED') {
+            applyProductChange({ change: 'DELETED', id: product.id });
+        } else if (product.categoryName !== category.name) {
+            applyProductChange({ change: 'UPDATED', product: { ...product, categoryName: category.name } });
+        }
+    });
+}
+
+function patchCategoryOptions(id, category) {
+    ['product-category', 'edit-product-category', 'filter-category'].forEach(selectId => {
+        const select = document.getElementById(selectId);
+        const option = select.querySelector(`option[value="${id}"]`);
+        if (!category) {
+            if (option) option.remove();
+        } else if (option) {
+            option.textContent = category.name;
+        } else if (select.options.length > 1) {
+            // Only patch selects that were already filled
+            const added = document.createElement('option');
+            added.value = category.id;
+            added.textContent = category.name;
+            select.appendChild(added);
+        }
+    });
+}
+
+function reloadAll() {
+    loadCategories();
+    loadCategoriesForSelect();
+    if (productsUrl) loadProducts(productsFilter.categoryId, productsFilter.search);
+}
+
+function subscribeToChanges() {
+    if (!window.EventSource) return;
+    const events = new EventSource(`${API_URL}/events`);
+    let disconnected = false;
+
+    events.addEventListener('product', e => applyProductChange(JSON.parse(e.data)));
+    events.addEventListener('stock', e => applyStockChange(JSON.parse(e.data)));
+    events.addEventListener('category', e => applyCategoryChange(JSON.parse(e.data)));
+    // Sent after a bulk import, or when this tab fell too far behind and its pending changes were dropped
+    events.addEventListener('resync', reloadAll);
+    events.onerror = () => { disconnected = true; };
+    events.onopen = () => {
+        // Changes made while disconnected were never sent; the browser reconnects on its own
+        if (disconnected) reloadAll();
+        disconnected = false;
+    };
+}
+
 // Initial Load
 loadCategories();
+subscribeToChanges();
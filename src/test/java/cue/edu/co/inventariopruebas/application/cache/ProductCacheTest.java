@@ -0,0 +1,185 @@
+package cue.edu.co.inventariopruebas.application.cache;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductCacheStats;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.infrastructure.config.ProductCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductCache productCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(new ProductCacheProperties());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should load a product once and count hits and misses")
+    void shouldLoadOnceAndRecordStats() {
+        ProductDTO first = productCache.get(1L, loader(product(1L, 10L, "Electronics")));
+        ProductDTO second = productCache.get(1L, loader(product(1L, 10L, "Electronics")));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        ProductCacheStats stats = productCache.getStats();
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Should not cache missing products")
+    void shouldNotCacheMissingProducts() {
+        assertNull(productCache.get(1L, loader(null)));
+        assertNull(productCache.get(1L, loader(null)));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, productCache.getStats().getSize());
+    }
+
+    @Test
+    @DisplayName("Should evict on publish and write through on commit")
+    void shouldWriteThroughProductChanges() {
+        productCache.get(1L, loader(product(1L, 10L, "Electronics")));
+        ProductDTO updated = product(1L, 10L, "Electronics");
+        updated.setStock(3);
+        ProductChangedEvent event = new ProductChangedEvent(ChangeType.UPDATED, 1L, "Laptop", updated);
+
+        productCache.onProductChanging(event);
+        assertEquals(0, productCache.getStats().getSize());
+
+        productCache.onProductChanged(event);
+        assertSame(updated, productCache.get(1L, loader(null)));
+        assertEquals(1, loads.get());
+
+        productCache.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, 1L, "Laptop", null));
+        assertNull(productCache.get(1L, loader(null)));
+    }
+
+    @Test
+    @DisplayName("Should evict only the products of a renamed category")
+    void shouldEvictProductsOfRenamedCategory() {
+        productCache.get(1L, loader(product(1L, 10L, "Electronics")));
+        productCache.get(2L, loader(product(2L, 10L, "Electronics")));
+        productCache.get(3L, loader(product(3L, 20L, "Books")));
+
+        productCache.onCategoryChanged(new CategoryChangedEvent(ChangeType.UPDATED, 10L, "Electronics",
+                new CategoryDTO(10L, "Electronics", null, null, 0L)));
+        assertEquals(3, productCache.getStats().getSize());
+
+        productCache.onCategoryChanged(new CategoryChangedEvent(ChangeType.UPDATED, 10L, "Electronics",
+                new CategoryDTO(10L, "Gadgets", null, null, 1L)));
+        assertEquals(1, productCache.getStats().getSize());
+        assertNotNull(productCache.get(3L, loader(null)));
+    }
+
+    @Test
+    @DisplayName("Should publish cache metrics tagged with the cache name")
+    void shouldPublishMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productCache.bindTo(registry);
+
+        productCache.get(1L, loader(product(1L, 10L, "Electronics")));
+        productCache.get(1L, loader(null));
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertNotNull(registry.get("cache.evictions").tag("cache", ProductCache.CACHE_NAME).functionCounter());
+    }
+
+    @Test
+    @DisplayName("Should share one load between concurrent misses without pinning virtual threads")
+    void shouldShareLoadWithoutPinningVirtualThreads() throws Exception {
+        ProductDTO product = product(1L, 10L, "Electronics");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ProductDTO>> results = new ArrayList<>();
+        AtomicInteger pinned = new AtomicInteger();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 16; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        // A slow database query: blocking here must unmount the virtual thread
+                        return productCache.get(1L, id -> {
+                            loads.incrementAndGet();
+                            sleep(Duration.ofMillis(100));
+                            return product;
+                        });
+                    }));
+                }
+                start.countDown();
+                for (Future<ProductDTO> result : results) {
+                    assertSame(product, result.get());
+                }
+            }
+            recording.stop();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, pinned.get());
+    }
+
+    @Test
+    @DisplayName("Should rethrow a failed load and not cache it")
+    void shouldRethrowFailedLoad() {
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> productCache.get(1L, id -> {
+                    throw failure;
+                })));
+
+        assertEquals(0, productCache.getStats().getSize());
+        assertNotNull(productCache.get(1L, loader(product(1L, 10L, "Electronics"))));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Function<Long, ProductDTO> loader(ProductDTO result) {
+        return id -> {
+            loads.incrementAndGet();
+            return result;
+        };
+    }
+
+    private static ProductDTO product(Long id, Long categoryId, String categoryName) {
+        return new ProductDTO(id, "Product " + id, null, new BigDecimal("9.99"), 10, 0, categoryId,
+                categoryName, null, null, 0L);
+    }
+}
@@ -0,0 +1,85 @@
+package cue.edu.co.inventariopruebas.application.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.infrastructure.config.ProductJsonCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductJsonCacheTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private ObjectMapper objectMapper;
+    private ProductJsonCache productJsonCache;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productJsonCache = new ProductJsonCache(objectMapper, new ProductJsonCacheProperties());
+    }
+
+    @Test
+    @DisplayName("Should write the same bytes as Jackson for a product list")
+    void shouldWriteSameJsonAsJackson() throws Exception {
+        List<ProductDTO> products = List.of(product(1L, 10, "Electronics"), product(2L, 0, "Books"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        productJsonCache.writeJsonArray(products, out);
+        productJsonCache.writeJsonArray(List.of(), out);
+
+        assertEquals(objectMapper.writeValueAsString(products) + "[]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should reuse a fragment while the product is unchanged")
+    void shouldReuseFragmentOfUnchangedProduct() {
+        byte[] first = productJsonCache.getJson(product(1L, 10, "Electronics"));
+
+        assertSame(first, productJsonCache.getJson(product(1L, 10, "Electronics")));
+    }
+
+    @Test
+    @DisplayName("Should re-encode a product when its update time, stock or category name changes")
+    void shouldReencodeChangedProduct() throws Exception {
+        byte[] first = productJsonCache.getJson(product(1L, 10, "Electronics"));
+
+        ProductDTO updated = product(1L, 10, "Electronics");
+        updated.setUpdatedAt(UPDATED_AT.plusSeconds(1));
+        ProductDTO restocked = product(1L, 9, "Electronics");
+        ProductDTO renamed = product(1L, 10, "Gadgets");
+
+        assertNotSame(first, productJsonCache.getJson(updated));
+        assertArrayEquals(objectMapper.writeValueAsBytes(restocked), productJsonCache.getJson(restocked));
+        assertArrayEquals(objectMapper.writeValueAsBytes(renamed), productJsonCache.getJson(renamed));
+    }
+
+    @Test
+    @DisplayName("Should publish cache metrics tagged with the cache name")
+    void shouldPublishMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productJsonCache.bindTo(registry);
+
+        productJsonCache.getJson(product(1L, 10, "Electronics"));
+        productJsonCache.getJson(product(1L, 10, "Electronics"));
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", ProductJsonCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    private static ProductDTO product(Long id, int stock, String categoryName) {
+        return new ProductDTO(id, "Product " + id, "Description \"quoted\"", new BigDecimal("9.99"), stock, 0,
+                10L, categoryName, UPDATED_AT, UPDATED_AT, 0L);
+    }
+}
@@ -2,19 +2,37 @@ package cue.edu.co.inventariopruebas.application.service;
 
 import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
 import cue.edu.co.inventariopruebas.application.dto.CategoryRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.CategoryUpsertDTO;
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
 import cue.edu.co.inventariopruebas.application.mapper.CategoryMapper;
+import cue.edu.co.inventariopruebas.application.mapper.CursorCodec;
 import cue.edu.co.inventariopruebas.domain.entity.Category;
 import cue.edu.co.inventariopruebas.domain.exception.DuplicateResourceException;
+import cue.edu.co.inventariopruebas.domain.exception.PreconditionFailedException;
+import cue.edu.co.inventariopruebas.domain.exception.ResourceInUseException;
 import cue.edu.co.inventariopruebas.domain.exception.ResourceNotFoundException;
 import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.TableVersion;
+import cue.edu.co.inventariopruebas.domain.repository.UpsertedCategory;
+import cue.edu.co.inventariopruebas.infrastructure.config.PaginationProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +50,15 @@ class CategoryServiceTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec();
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -79,6 +106,36 @@ class CategoryServiceTest {
         verify(categoryRepository, times(1)).findById(1L);
     }
 
+    @Test
+    @DisplayName("Should derive the same category ETag from the version and from the loaded category")
+    void shouldDeriveCategoryETagFromVersion() {
+        categoryDTO.setVersion(3L);
+        when(categoryRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertEquals(Optional.of(categoryService.getCategoryETag(categoryDTO)), categoryService.findCategoryETag(1L));
+        verify(categoryRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should change the categories ETag when a category is deleted")
+    void shouldChangeCategoriesETagOnDelete() {
+        TableVersion twoCategories = tableVersion(2L, 0L);
+        TableVersion oneCategory = tableVersion(1L, 0L);
+        when(categoryRepository.findTableVersion()).thenReturn(twoCategories, oneCategory);
+
+        assertNotEquals(categoryService.getCategoriesETag(), categoryService.getCategoriesETag());
+    }
+
+    @Test
+    @DisplayName("Should change the categories ETag when an update commits after a later-stamped one")
+    void shouldChangeCategoriesETagOnLateUpdate() {
+        TableVersion before = tableVersion(2L, 1L);
+        TableVersion after = tableVersion(2L, 2L);
+        when(categoryRepository.findTableVersion()).thenReturn(before, after);
+
+        assertNotEquals(categoryService.getCategoriesETag(), categoryService.getCategoriesETag());
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when category not found")
     void shouldThrowExceptionWhenCategoryNotFound() {
@@ -91,7 +148,6 @@ class CategoryServiceTest {
     @Test
     @DisplayName("Should create category successfully")
     void shouldCreateCategory() {
-        when(categoryRepository.existsByName("Electronics")).thenReturn(false);
         when(categoryMapper.toEntity(categoryRequestDTO)).thenReturn(category);
         when(categoryRepository.save(category)).thenReturn(category);
         when(categoryMapper.toDTO(category)).thenReturn(categoryDTO);
@@ -100,18 +156,57 @@ class CategoryServiceTest {
 
         assertNotNull(result);
         assertEquals("Electronics", result.getName());
-        verify(categoryRepository, times(1)).existsByName("Electronics");
+        verify(categoryRepository, never()).existsByName(any());
         verify(categoryRepository, times(1)).save(category);
     }
 
     @Test
-    @DisplayName("Should throw DuplicateResourceException when category name exists")
+    @DisplayName("Should throw DuplicateResourceException when the insert violates the unique name")
     void shouldThrowExceptionWhenCategoryNameExists() {
-        when(categoryRepository.existsByName("Electronics")).thenReturn(true);
+        when(categoryMapper.toEntity(categoryRequestDTO)).thenReturn(category);
+        when(categoryRepository.save(category)).thenThrow(new DataIntegrityViolationException("categories_name_key"));
 
         assertThrows(DuplicateResourceException.class, () -> categoryService.createCategory(categoryRequestDTO));
-        verify(categoryRepository, times(1)).existsByName("Electronics");
-        verify(categoryRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should upsert distinct category names in request order and publish only the created ones")
+    void shouldUpsertCategories() {
+        Category books = new Category("Books");
+        books.setId(2L);
+        CategoryDTO booksDTO = new CategoryDTO(2L, "Books", null, null, 0L);
+
+        when(categoryRepository.upsertAllByName(List.of("Books", "Electronics")))
+                .thenReturn(List.of(new UpsertedCategory(category, false), new UpsertedCategory(books, true)));
+        when(categoryMapper.toDTO(books)).thenReturn(booksDTO);
+
+        List<CategoryUpsertDTO> result = categoryService.upsertCategories(List.of("Books", "Electronics", "Books"));
+
+        assertEquals(List.of(new CategoryUpsertDTO(2L, "Books", true), new CategoryUpsertDTO(1L, "Electronics", false)),
+                result);
+        ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(ChangeType.CREATED, event.getValue().getType());
+        assertEquals(booksDTO, event.getValue().getCategory());
+    }
+
+    @Test
+    @DisplayName("Should upsert again a category deleted concurrently and fail if it is deleted again")
+    void shouldUpsertAgainCategoryDeletedConcurrently() {
+        Category books = new Category("Books");
+        books.setId(3L);
+        when(categoryRepository.upsertAllByName(List.of("Books", "Electronics")))
+                .thenReturn(List.of(new UpsertedCategory(category, false)));
+        when(categoryRepository.upsertAllByName(List.of("Books")))
+                .thenReturn(List.of(new UpsertedCategory(books, true)), List.of());
+
+        List<CategoryUpsertDTO> result = categoryService.upsertCategories(List.of("Books", "Electronics"));
+
+        assertEquals(List.of(new CategoryUpsertDTO(3L, "Books", true), new CategoryUpsertDTO(1L, "Electronics", false)),
+                result);
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> categoryService.upsertCategories(List.of("Books", "Electronics")));
     }
 
     @Test
@@ -121,34 +216,139 @@ class CategoryServiceTest {
 
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
         when(categoryRepository.existsByName("Updated Electronics")).thenReturn(false);
-        when(categoryRepository.save(category)).thenReturn(category);
+        when(categoryRepository.saveAndFlush(category)).thenReturn(category);
         when(categoryMapper.toDTO(category)).thenReturn(categoryDTO);
 
-        CategoryDTO result = categoryService.updateCategory(1L, updateRequest);
+        CategoryDTO result = categoryService.updateCategory(1L, updateRequest, null);
 
         assertNotNull(result);
         verify(categoryMapper, times(1)).updateEntityFromDTO(category, updateRequest);
-        verify(categoryRepository, times(1)).save(category);
+        verify(categoryRepository, times(1)).saveAndFlush(category);
+
+        ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(ChangeType.UPDATED, event.getValue().getType());
+        assertEquals("Electronics", event.getValue().getPreviousName());
+    }
+
+    @Test
+    @DisplayName("Should update category when the If-Match ETag is current")
+    void shouldUpdateCategoryWhenETagMatches() {
+        CategoryRequestDTO updateRequest = new CategoryRequestDTO("Updated Electronics");
+        category.setVersion(4L);
+        categoryDTO.setVersion(4L);
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.existsByName("Updated Electronics")).thenReturn(false);
+        when(categoryRepository.saveAndFlush(category)).thenReturn(category);
+        when(categoryMapper.toDTO(category)).thenReturn(categoryDTO);
+
+        categoryService.updateCategory(1L, updateRequest, List.of(categoryService.getCategoryETag(categoryDTO)));
+
+        verify(categoryRepository, times(1)).saveAndFlush(category);
+    }
+
+    @Test
+    @DisplayName("Should throw PreconditionFailedException when the If-Match ETag is stale")
+    void shouldRejectCategoryUpdateWithStaleETag() {
+        category.setVersion(5L);
+        categoryDTO.setVersion(4L);
+        List<String> staleETags = List.of(categoryService.getCategoryETag(categoryDTO));
+        CategoryRequestDTO updateRequest = new CategoryRequestDTO("Updated Electronics");
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> categoryService.updateCategory(1L, updateRequest, staleETags));
+        verify(categoryMapper, never()).updateEntityFromDTO(any(), any());
+        verify(categoryRepository, never()).saveAndFlush(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should rethrow a lost optimistic lock race on an unconditional category update")
+    void shouldRethrowOptimisticLockFailureWithoutIfMatch() {
+        CategoryRequestDTO updateRequest = new CategoryRequestDTO("Updated Electronics");
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.existsByName("Updated Electronics")).thenReturn(false);
+        when(categoryRepository.saveAndFlush(category))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Category.class, 1L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> categoryService.updateCategory(1L, updateRequest, null));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     @DisplayName("Should delete category successfully")
     void shouldDeleteCategory() {
-        when(categoryRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
 
         categoryService.deleteCategory(1L);
 
-        verify(categoryRepository, times(1)).existsById(1L);
-        verify(categoryRepository, times(1)).deleteById(1L);
+        verify(categoryRepository, times(1)).findById(1L);
+        verify(categoryRepository, times(1)).delete(category);
+
+        ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(ChangeType.DELETED, event.getValue().getType());
+        assertNull(event.getValue().getCategory());
+    }
+
+    @Test
+    @DisplayName("Should refuse to delete a category that still has products")
+    void shouldRejectDeletingCategoryWithProducts() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.hasProducts(1L)).thenReturn(true);
+
+        assertThrows(ResourceInUseException.class, () -> categoryService.deleteCategory(1L));
+        verify(categoryRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should refuse to delete a category that gains a product before the delete is flushed")
+    void shouldRejectDeletingCategoryGainingProduct() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        doThrow(new DataIntegrityViolationException("fk_category")).when(categoryRepository).flush();
+
+        assertThrows(ResourceInUseException.class, () -> categoryService.deleteCategory(1L));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when deleting non-existent category")
     void shouldThrowExceptionWhenDeletingNonExistentCategory() {
-        when(categoryRepository.existsById(1L)).thenReturn(false);
+        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> categoryService.deleteCategory(1L));
-        verify(categoryRepository, times(1)).existsById(1L);
-        verify(categoryRepository, never()).deleteById(any());
+        verify(categoryRepository, times(1)).findById(1L);
+        verify(categoryRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Should return a page of categories with a cursor when more rows exist")
+    void shouldGetCategoriesPage() {
+        Category nextCategory = new Category();
+        nextCategory.setId(2L);
+        nextCategory.setName("Books");
+
+        when(categoryRepository.findPageAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(category, nextCategory));
+        when(categoryMapper.toDTO(category)).thenReturn(categoryDTO);
+
+        CursorPage<CategoryDTO> result = categoryService.getCategoriesPage(null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, cursorCodec.decode(result.getNextCursor()));
+    }
+
+    private static TableVersion tableVersion(Long rowCount, Long versionSum) {
+        TableVersion version = mock(TableVersion.class);
+        when(version.getLastUpdatedAt()).thenReturn(LocalDateTime.of(2024, 5, 1, 12, 0));
+        when(version.getRowCount()).thenReturn(rowCount);
+        when(version.getVersionSum()).thenReturn(versionSum);
+        return version;
     }
 }
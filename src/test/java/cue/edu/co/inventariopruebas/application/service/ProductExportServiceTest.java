@@ -0,0 +1,84 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cue.edu.co.inventariopruebas.application.dto.ExportFormat;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.ExportProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductExportService productExportService;
+
+    private ProductDTO laptop;
+    private ProductDTO mouse;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ExportProperties exportProperties = new ExportProperties();
+        exportProperties.setFetchSize(250);
+        productExportService = new ProductExportService(productRepository, objectMapper, exportProperties);
+
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30);
+        laptop = new ProductDTO(1L, "Laptop", "High performance, 16\" screen", new BigDecimal("999.99"),
+                10, 5, 1L, "Electronics", timestamp, timestamp, 0L);
+        mouse = new ProductDTO(2L, "Mouse", null, new BigDecimal("29.99"),
+                50, 0, 1L, "Electronics", timestamp, timestamp, 0L);
+    }
+
+    @Test
+    @DisplayName("Should export products as one JSON object per line")
+    void shouldExportProductsAsNdjson() throws Exception {
+        when(productRepository.streamAllForExport(250)).thenReturn(Stream.of(laptop, mouse));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = productExportService.exportProducts(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[0].contains("\"description\":\"High performance, 16\\\" screen\""));
+        assertTrue(lines[1].contains("\"name\":\"Mouse\""));
+        assertTrue(lines[1].contains("\"createdAt\":\"2024-01-15T10:30"));
+        verify(productRepository, times(1)).streamAllForExport(250);
+    }
+
+    @Test
+    @DisplayName("Should export products as CSV with a header and quoted fields")
+    void shouldExportProductsAsCsv() throws Exception {
+        when(productRepository.streamAllForExport(250)).thenReturn(Stream.of(laptop, mouse));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = productExportService.exportProducts(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals("id,name,description,price,stock,reorderPoint,categoryId,categoryName,createdAt,updatedAt",
+                lines[0]);
+        assertEquals("1,Laptop,\"High performance, 16\"\" screen\",999.99,10,5,1,Electronics,"
+                + "2024-01-15T10:30,2024-01-15T10:30", lines[1]);
+        assertEquals("2,Mouse,,29.99,50,0,1,Electronics,2024-01-15T10:30,2024-01-15T10:30", lines[2]);
+    }
+}
@@ -0,0 +1,163 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cue.edu.co.inventariopruebas.application.dto.ExportFormat;
+import cue.edu.co.inventariopruebas.application.dto.ProductImportErrorDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductImportResultDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.event.ProductsImportedEvent;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.IdAndName;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.ImportProperties;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductImportService productImportService;
+    private List<List<ProductRequestDTO>> insertedChunks;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties importProperties = new ImportProperties();
+        importProperties.setChunkSize(2);
+        importProperties.setMaxErrors(2);
+        productImportService = new ProductImportService(productRepository, categoryRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), importProperties,
+                eventPublisher);
+
+        when(categoryRepository.findAllIdsAndNames())
+                .thenReturn(Arrays.asList(category(1L, "Electronics"), category(2L, "Books")));
+        insertedChunks = new ArrayList<>();
+        lenient().doAnswer(invocation -> {
+            insertedChunks.add(new ArrayList<>(invocation.getArgument(0)));
+            return null;
+        }).when(productRepository).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows in chunks and resolve categories by ID or name")
+    void shouldImportCsvInChunks() throws IOException {
+        String csv = "id,Name,description,price,stock,categoryId,categoryName\n"
+                + "7,Laptop,\"Fast, light\",999.99,10,1,\n"
+                + ",Novel,,12.50,3,,books\n"
+                + ",\"Quoted \"\"Mouse\"\"\",,19.99,0,1,Electronics\n";
+
+        ProductImportResultDTO result = productImportService.importProducts(ExportFormat.CSV, body(csv));
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(2, insertedChunks.size());
+        assertEquals(2, insertedChunks.get(0).size());
+        ProductRequestDTO laptop = insertedChunks.get(0).get(0);
+        assertEquals("Fast, light", laptop.getDescription());
+        assertEquals(new BigDecimal("999.99"), laptop.getPrice());
+        assertEquals(2L, insertedChunks.get(0).get(1).getCategoryId());
+        assertEquals("Quoted \"Mouse\"", insertedChunks.get(1).get(0).getName());
+        verify(categoryRepository, times(1)).findAllIdsAndNames();
+
+        ArgumentCaptor<ProductsImportedEvent> eventCaptor = ArgumentCaptor.forClass(ProductsImportedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(3, eventCaptor.getValue().getImported());
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and report invalid ones by row")
+    void shouldReportNdjsonRowErrors() throws IOException {
+        String ndjson = "{\"name\":\"Laptop\",\"price\":999.99,\"stock\":10,\"categoryId\":1}\n"
+                + "\n"
+                + "{\"name\":\"Mouse\",\"price\":\"abc\",\"stock\":5,\"categoryId\":1}\n"
+                + "{\"name\":\"Ghost\",\"price\":5,\"stock\":5,\"categoryId\":99}\n"
+                + "not json\n";
+
+        ProductImportResultDTO result = productImportService.importProducts(ExportFormat.NDJSON, body(ndjson));
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertTrue(result.isErrorsTruncated());
+        assertEquals(Arrays.asList(
+                new ProductImportErrorDTO(2, "price", "Invalid number: abc"),
+                new ProductImportErrorDTO(3, "categoryId", "Category not found with id: 99")),
+                result.getErrors());
+        assertEquals(1, insertedChunks.size());
+    }
+
+    @Test
+    @DisplayName("Should reject rows that break the product constraints")
+    void shouldApplyProductConstraints() throws IOException {
+        String csv = "name,price,stock,categoryId\n"
+                + "X,-1,5,1\n";
+
+        ProductImportResultDTO result = productImportService.importProducts(ExportFormat.CSV, body(csv));
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.getErrors().stream().allMatch(error -> error.getRow() == 1));
+        verify(productRepository, never()).insertAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should stop at an unterminated quoted CSV field")
+    void shouldRejectMalformedCsv() throws IOException {
+        String csv = "name,price,stock,categoryId\n"
+                + "Laptop,999.99,10,1\n"
+                + "\"Broken,1,1,1\n";
+
+        ProductImportResultDTO result = productImportService.importProducts(ExportFormat.CSV, body(csv));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getErrors().get(0).getRow());
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static IdAndName category(Long id, String name) {
+        return new IdAndName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
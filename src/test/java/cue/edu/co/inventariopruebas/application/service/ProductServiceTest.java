@@ -1,27 +1,62 @@
 package cue.edu.co.inventariopruebas.application.service;
 
+import cue.edu.co.inventariopruebas.application.cache.ProductCache;
+import cue.edu.co.inventariopruebas.application.dto.CategoryStatsDTO;
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import cue.edu.co.inventariopruebas.application.dto.ProductBatchDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductChangesDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.StockLevelDTO;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.InMemoryStockUpdateEvent;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.StockChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.StockMovementEvent;
+import cue.edu.co.inventariopruebas.application.mapper.CursorCodec;
 import cue.edu.co.inventariopruebas.application.mapper.ProductMapper;
+import cue.edu.co.inventariopruebas.application.stock.InMemoryStockCounters;
 import cue.edu.co.inventariopruebas.domain.entity.Category;
 import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.entity.ProductTombstone;
+import cue.edu.co.inventariopruebas.domain.entity.StockMovementReason;
+import cue.edu.co.inventariopruebas.domain.exception.InsufficientStockException;
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import cue.edu.co.inventariopruebas.domain.exception.PreconditionFailedException;
 import cue.edu.co.inventariopruebas.domain.exception.ResourceNotFoundException;
+import cue.edu.co.inventariopruebas.domain.repository.CatalogVersion;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryStats;
 import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductTombstoneRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.ChangeFeedProperties;
+import cue.edu.co.inventariopruebas.domain.repository.ProductVersion;
+import cue.edu.co.inventariopruebas.infrastructure.config.PaginationProperties;
+import cue.edu.co.inventariopruebas.infrastructure.config.ProductCacheProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +71,27 @@ class ProductServiceTest {
     @Mock
     private CategoryService categoryService;
 
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec();
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(new ProductCacheProperties());
+
+    @Mock
+    private InMemoryStockCounters stockCounters;
+
+    @Mock
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Spy
+    private ChangeFeedProperties changeFeedProperties = new ChangeFeedProperties();
+
     @InjectMocks
     private ProductService productService;
 
@@ -78,37 +134,162 @@ class ProductServiceTest {
     @Test
     @DisplayName("Should get all products successfully")
     void shouldGetAllProducts() {
-        when(productRepository.findAllWithCategory()).thenReturn(Arrays.asList(product));
-        when(productMapper.toDTO(any(Product.class))).thenReturn(productDTO);
+        when(productRepository.findAllDTOs()).thenReturn(Arrays.asList(productDTO));
 
         List<ProductDTO> result = productService.getAllProducts();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(productRepository, times(1)).findAllWithCategory();
+        verify(productRepository, times(1)).findAllDTOs();
+        verifyNoInteractions(productMapper);
     }
 
     @Test
     @DisplayName("Should get product by ID successfully")
     void shouldGetProductById() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productMapper.toDTO(product)).thenReturn(productDTO);
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(productDTO));
 
         ProductDTO result = productService.getProductById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Laptop", result.getName());
-        verify(productRepository, times(1)).findById(1L);
+        assertEquals("Electronics", result.getCategoryName());
+        verify(productRepository, times(1)).findDTOById(1L);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated product lookups from the cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(productDTO));
+
+        productService.getProductById(1L);
+        ProductDTO result = productService.getProductById(1L);
+
+        assertEquals(productDTO, result);
+        verify(productRepository, times(1)).findDTOById(1L);
+        assertEquals(1, productCache.getStats().getHitCount());
+    }
+
+    @Test
+    @DisplayName("Should get products by ID in request order, loading uncached ones in one query")
+    void shouldGetProductsByIds() {
+        ProductDTO otherDTO = new ProductDTO();
+        otherDTO.setId(2L);
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(productDTO));
+        productService.getProductById(1L);
+        when(productRepository.findDTOsByIdIn(List.of(2L, 3L))).thenReturn(List.of(otherDTO));
+
+        ProductBatchDTO result = productService.getProductsByIds(List.of(2L, 1L, 3L, 2L));
+
+        assertEquals(List.of(otherDTO, productDTO), result.getProducts());
+        assertEquals(List.of(3L), result.getMissingIds());
+        verify(productRepository, times(1)).findDTOsByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should get cached products by ID without querying")
+    void shouldGetCachedProductsByIdsWithoutQuery() {
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(productDTO));
+        productService.getProductById(1L);
+
+        ProductBatchDTO result = productService.getProductsByIds(List.of(1L));
+
+        assertEquals(List.of(productDTO), result.getProducts());
+        assertTrue(result.getMissingIds().isEmpty());
+        verify(productRepository, never()).findDTOsByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty or oversized multi-get")
+    void shouldRejectInvalidMultiGet() {
+        paginationProperties.setMaxBatchIds(2);
+
+        assertThrows(InvalidRequestException.class, () -> productService.getProductsByIds(List.of()));
+        assertThrows(InvalidRequestException.class,
+                () -> productService.getProductsByIds(Arrays.asList(1L, null)));
+        assertThrows(InvalidRequestException.class, () -> productService.getProductsByIds(List.of(1L, 2L, 3L)));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should derive the same product ETag from the metadata query and from the loaded product")
+    void shouldDeriveProductETagFromMetadata() {
+        productDTO.setVersion(3L);
+        ProductVersion version = productVersion(3L, 10, "Electronics");
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        Optional<String> eTag = productService.findProductETag(1L);
+
+        assertEquals(Optional.of(productService.getProductETag(productDTO)), eTag);
+        verify(productRepository, never()).findDTOById(any());
+        assertEquals(0, productCache.getStats().getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should change the product ETag with its version, stock and category name")
+    void shouldChangeProductETagWithRepresentation() {
+        String eTag = productService.getProductETag(productDTO);
+
+        productDTO.setStock(9);
+        String restocked = productService.getProductETag(productDTO);
+        productDTO.setCategoryName("Gadgets");
+        String renamed = productService.getProductETag(productDTO);
+        productDTO.setVersion(1L);
+
+        assertNotEquals(eTag, restocked);
+        assertNotEquals(restocked, renamed);
+        assertNotEquals(renamed, productService.getProductETag(productDTO));
+    }
+
+    @Test
+    @DisplayName("Should take the product ETag from the cache without querying")
+    void shouldTakeProductETagFromCache() {
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(productDTO));
+        productService.getProductById(1L);
+
+        assertEquals(Optional.of(productService.getProductETag(productDTO)), productService.findProductETag(1L));
+        verify(productRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    @DisplayName("Should return no ETag for a missing product")
+    void shouldReturnNoETagForMissingProduct() {
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(productService.findProductETag(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should change the collection ETag with the row count, the row versions and live in-memory stock")
+    void shouldChangeCollectionETag() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        CatalogVersion twoProducts = catalogVersion(updatedAt, 2L, 3L);
+        CatalogVersion oneProduct = catalogVersion(updatedAt, 1L, 3L);
+        when(productRepository.findCatalogVersion()).thenReturn(twoProducts, oneProduct);
+        String before = productService.getProductsETag();
+        assertNotEquals(before, productService.getProductsETag());
+
+        // An update stamped before the latest update time, committed after it
+        CatalogVersion lateUpdate = catalogVersion(updatedAt, 1L, 4L);
+        when(productRepository.findCatalogVersion()).thenReturn(oneProduct, lateUpdate);
+        assertNotEquals(productService.getProductsETag(), productService.getProductsETag());
+
+        when(productRepository.findCatalogVersion()).thenReturn(oneProduct);
+        when(stockCounters.getManagedProductIds()).thenReturn(Set.of(1L));
+        when(stockCounters.getStock(1L)).thenReturn(OptionalInt.of(5), OptionalInt.of(4));
+        assertNotEquals(productService.getProductsETag(), productService.getProductsETag());
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when product not found")
     void shouldThrowExceptionWhenProductNotFound() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(1L));
-        verify(productRepository, times(1)).findById(1L);
+        assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(1L));
+        verify(productRepository, times(2)).findDTOById(1L);
     }
 
     @Test
@@ -125,6 +306,16 @@ class ProductServiceTest {
         assertEquals("Laptop", result.getName());
         verify(categoryService, times(1)).getCategoryEntityById(1L);
         verify(productRepository, times(1)).save(product);
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        ProductChangedEvent event = (ProductChangedEvent) events.getAllValues().get(0);
+        assertEquals(ChangeType.CREATED, event.getType());
+        assertEquals(productDTO, event.getProduct());
+        StockMovementEvent movement = (StockMovementEvent) events.getAllValues().get(1);
+        assertEquals(StockMovementReason.CREATED, movement.getReason());
+        assertEquals(10, movement.getDelta());
+        assertEquals(10, movement.getStockAfter());
     }
 
     @Test
@@ -132,73 +323,518 @@ class ProductServiceTest {
     void shouldUpdateProduct() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
         when(categoryService.getCategoryEntityById(1L)).thenReturn(category);
-        when(productRepository.save(product)).thenReturn(product);
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
         when(productMapper.toDTO(product)).thenReturn(productDTO);
 
-        ProductDTO result = productService.updateProduct(1L, productRequestDTO);
+        ProductDTO result = productService.updateProduct(1L, productRequestDTO, null);
 
         assertNotNull(result);
         verify(productMapper, times(1)).updateEntityFromDTO(product, productRequestDTO, category);
-        verify(productRepository, times(1)).save(product);
+        verify(productRepository, times(1)).saveAndFlush(product);
+
+        // The stock is unchanged, so no stock movement is published
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(ChangeType.UPDATED, event.getValue().getType());
+        assertEquals("Laptop", event.getValue().getPreviousName());
+    }
+
+    @Test
+    @DisplayName("Should publish a stock movement when an update changes the stock")
+    void shouldPublishStockMovementOnUpdate() {
+        productRequestDTO.setStock(4);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryService.getCategoryEntityById(1L)).thenReturn(category);
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+
+        productService.updateProduct(1L, productRequestDTO, null);
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        StockMovementEvent movement = (StockMovementEvent) events.getAllValues().get(1);
+        assertEquals(StockMovementReason.UPDATED, movement.getReason());
+        assertEquals(-6, movement.getDelta());
+        assertEquals(4, movement.getStockAfter());
+    }
+
+    @Test
+    @DisplayName("Should update a product whose current ETag is among the expected ones")
+    void shouldUpdateProductWhenETagMatches() {
+        product.setVersion(2L);
+        productDTO.setVersion(2L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryService.getCategoryEntityById(1L)).thenReturn(category);
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+        List<String> expected = List.of("stale", productService.getProductETag(productDTO));
+
+        productService.updateProduct(1L, productRequestDTO, expected);
+
+        verify(productRepository, times(1)).saveAndFlush(product);
+    }
+
+    @Test
+    @DisplayName("Should reject an update whose expected ETag is stale without writing")
+    void shouldRejectUpdateWithStaleETag() {
+        product.setVersion(2L);
+        productDTO.setVersion(1L);
+        String staleETag = productService.getProductETag(productDTO);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> productService.updateProduct(1L, productRequestDTO, List.of(staleETag)));
+        verify(productRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should keep reservations made between the read and a conditional in-memory stock update")
+    void shouldUpdateInMemoryStockRelativeToTaggedStock() {
+        product.setVersion(2L);
+        productDTO.setVersion(2L);
+        productRequestDTO.setStock(25);
+        when(stockCounters.isManaged(1L)).thenReturn(true);
+        when(stockCounters.getStock(1L)).thenReturn(OptionalInt.of(7));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryService.getCategoryEntityById(1L)).thenReturn(category);
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+        // Read at stock 10, before reservations took 3 units
+        List<String> expected = List.of(productService.getProductETag(productDTO));
+
+        ProductDTO result = productService.updateProduct(1L, productRequestDTO, expected);
+
+        assertEquals(22, result.getStock());
+        assertEquals(10, product.getStock());
+        verify(stockCounters, never()).adjustUpToAvailable(any(), anyInt());
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(22, ((ProductChangedEvent) events.getAllValues().get(0)).getProduct().getStock());
+        assertEquals(15, ((InMemoryStockUpdateEvent) events.getAllValues().get(1)).getDelta());
+    }
+
+    @Test
+    @DisplayName("Should refuse an in-memory stock update whose change the live stock no longer covers")
+    void shouldRejectInMemoryStockUpdateBelowZero() {
+        product.setVersion(2L);
+        productDTO.setVersion(2L);
+        productRequestDTO.setStock(2);
+        when(stockCounters.isManaged(1L)).thenReturn(true);
+        when(stockCounters.getStock(1L)).thenReturn(OptionalInt.of(5));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryService.getCategoryEntityById(1L)).thenReturn(category);
+        List<String> expected = List.of(productService.getProductETag(productDTO));
+
+        assertThrows(InsufficientStockException.class,
+                () -> productService.updateProduct(1L, productRequestDTO, expected));
+        verify(productRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should publish and record the in-memory stock change a committed update actually applied")
+    void shouldApplyCommittedInMemoryStockUpdate() {
+        when(stockCounters.adjustUpToAvailable(1L, -8)).thenReturn(OptionalInt.of(-5));
+        when(stockCounters.getStock(1L)).thenReturn(OptionalInt.of(0));
+
+        productService.onInMemoryStockUpdate(new InMemoryStockUpdateEvent(1L, -8));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        StockChangedEvent event = (StockChangedEvent) events.getAllValues().get(0);
+        assertEquals(-5, event.getDelta());
+        assertEquals(0, event.getStock());
+        StockMovementEvent movement = (StockMovementEvent) events.getAllValues().get(1);
+        assertEquals(StockMovementReason.UPDATED, movement.getReason());
+        assertEquals(-5, movement.getDelta());
+        assertEquals(0, movement.getStockAfter());
+    }
+
+    @Test
+    @DisplayName("Should turn a version conflict on a conditional update into a failed precondition")
+    void shouldRejectConditionalUpdateLosingRace() {
+        product.setVersion(2L);
+        productDTO.setVersion(2L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryService.getCategoryEntityById(1L)).thenReturn(category);
+        when(productRepository.saveAndFlush(product))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+        List<String> expected = List.of(productService.getProductETag(productDTO));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> productService.updateProduct(1L, productRequestDTO, expected));
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> productService.updateProduct(1L, productRequestDTO, null));
+    }
+
+    @Test
+    @DisplayName("Should adjust stock with one conditional update and publish the change")
+    void shouldAdjustStock() {
+        when(productRepository.adjustStock(1L, -3)).thenReturn(Optional.of(7));
+
+        StockLevelDTO result = productService.adjustStock(1L, -3);
+
+        assertEquals(new StockLevelDTO(1L, 7), result);
+        verify(productRepository, never()).findById(any());
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        StockChangedEvent event = (StockChangedEvent) events.getAllValues().get(0);
+        assertEquals(-3, event.getDelta());
+        assertEquals(7, event.getStock());
+        StockMovementEvent movement = (StockMovementEvent) events.getAllValues().get(1);
+        assertEquals(StockMovementReason.ADJUSTED, movement.getReason());
+        assertEquals(-3, movement.getDelta());
+        assertEquals(7, movement.getStockAfter());
+    }
+
+    @Test
+    @DisplayName("Should throw InsufficientStockException when the stock would go negative")
+    void shouldThrowExceptionWhenStockIsInsufficient() {
+        when(productRepository.adjustStock(1L, -30)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> productService.adjustStock(1L, -30));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidRequestException when a restock would overflow the stock")
+    void shouldThrowExceptionWhenStockWouldOverflow() {
+        when(productRepository.adjustStock(1L, 5)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(stockCounters.isManaged(2L)).thenReturn(true);
+        when(stockCounters.tryAdjust(2L, 5)).thenReturn(OptionalInt.empty());
+
+        assertThrows(InvalidRequestException.class, () -> productService.adjustStock(1L, 5));
+        assertThrows(InvalidRequestException.class, () -> productService.adjustStock(2L, 5));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should adjust in-memory stock without touching the database and publish the change")
+    void shouldAdjustInMemoryStock() {
+        when(stockCounters.isManaged(1L)).thenReturn(true);
+        when(stockCounters.tryAdjust(1L, -3)).thenReturn(OptionalInt.of(7));
+
+        StockLevelDTO result = productService.adjustStock(1L, -3);
+
+        assertEquals(new StockLevelDTO(1L, 7), result);
+        verifyNoInteractions(productRepository);
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        StockChangedEvent event = (StockChangedEvent) events.getAllValues().get(0);
+        assertEquals(-3, event.getDelta());
+        assertEquals(7, event.getStock());
+        assertEquals(7, ((StockMovementEvent) events.getAllValues().get(1)).getStockAfter());
+    }
+
+    @Test
+    @DisplayName("Should throw InsufficientStockException when the in-memory stock would go negative")
+    void shouldThrowExceptionWhenInMemoryStockIsInsufficient() {
+        when(stockCounters.isManaged(1L)).thenReturn(true);
+        when(stockCounters.tryAdjust(1L, -30)).thenReturn(OptionalInt.empty());
+
+        assertThrows(InsufficientStockException.class, () -> productService.adjustStock(1L, -30));
+        verifyNoInteractions(productRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should return the live stock of a product held in memory")
+    void shouldOverlayInMemoryStock() {
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(productDTO));
+        when(stockCounters.getStock(1L)).thenReturn(OptionalInt.of(4));
+
+        ProductDTO result = productService.getProductById(1L);
+
+        assertEquals(4, result.getStock());
+        assertEquals(10, productDTO.getStock());
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException when adjusting stock of a missing product")
+    void shouldThrowExceptionWhenAdjustingStockOfMissingProduct() {
+        when(productRepository.adjustStock(1L, 5)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.adjustStock(1L, 5));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     @DisplayName("Should delete product successfully")
     void shouldDeleteProduct() {
-        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
 
         productService.deleteProduct(1L);
 
-        verify(productRepository, times(1)).existsById(1L);
-        verify(productRepository, times(1)).deleteById(1L);
+        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).delete(product);
+        verify(productTombstoneRepository, times(1)).save(argThat(tombstone -> tombstone.getProductId() == 1L));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        ProductChangedEvent event = (ProductChangedEvent) events.getAllValues().get(0);
+        assertEquals(ChangeType.DELETED, event.getType());
+        assertEquals("Laptop", event.getPreviousName());
+        assertNull(event.getProduct());
+        StockMovementEvent movement = (StockMovementEvent) events.getAllValues().get(1);
+        assertEquals(StockMovementReason.DELETED, movement.getReason());
+        assertEquals(-10, movement.getDelta());
+        assertEquals(0, movement.getStockAfter());
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when deleting non-existent product")
     void shouldThrowExceptionWhenDeletingNonExistentProduct() {
-        when(productRepository.existsById(1L)).thenReturn(false);
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> productService.deleteProduct(1L));
-        verify(productRepository, times(1)).existsById(1L);
-        verify(productRepository, never()).deleteById(any());
+        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     @DisplayName("Should get products by category ID")
     void shouldGetProductsByCategoryId() {
-        when(productRepository.findByCategoryId(1L)).thenReturn(Arrays.asList(product));
-        when(productMapper.toDTO(any(Product.class))).thenReturn(productDTO);
+        when(productRepository.findDTOsByCategoryId(1L)).thenReturn(Arrays.asList(productDTO));
 
         List<ProductDTO> result = productService.getProductsByCategoryId(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(productRepository, times(1)).findByCategoryId(1L);
+        verify(productRepository, times(1)).findDTOsByCategoryId(1L);
     }
 
     @Test
     @DisplayName("Should search products by name")
     void shouldSearchProductsByName() {
-        when(productRepository.findByNameContainingIgnoreCase("Laptop")).thenReturn(Arrays.asList(product));
-        when(productMapper.toDTO(any(Product.class))).thenReturn(productDTO);
+        when(productRepository.findDTOsByNameContaining("Laptop")).thenReturn(Arrays.asList(productDTO));
 
         List<ProductDTO> result = productService.searchProductsByName("Laptop");
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(productRepository, times(1)).findByNameContainingIgnoreCase("Laptop");
+        verify(productRepository, times(1)).findDTOsByNameContaining("Laptop");
     }
 
     @Test
     @DisplayName("Should get low stock products")
     void shouldGetLowStockProducts() {
-        when(productRepository.findByStockLessThan(10)).thenReturn(Arrays.asList(product));
-        when(productMapper.toDTO(any(Product.class))).thenReturn(productDTO);
+        when(productRepository.findDTOsByStockLessThan(10)).thenReturn(Arrays.asList(productDTO));
 
         List<ProductDTO> result = productService.getLowStockProducts(10);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(productRepository, times(1)).findByStockLessThan(10);
+        verify(productRepository, times(1)).findDTOsByStockLessThan(10);
+    }
+
+    @Test
+    @DisplayName("Should get products below their reorder point")
+    void shouldGetProductsBelowReorderPoint() {
+        productDTO.setReorderPoint(20);
+        when(productRepository.findDTOsBelowReorderPoint()).thenReturn(Arrays.asList(productDTO));
+
+        List<ProductDTO> result = productService.getProductsBelowReorderPoint();
+
+        assertEquals(Arrays.asList(productDTO), result);
+        verify(productRepository, times(1)).findDTOsBelowReorderPoint();
+    }
+
+    @Test
+    @DisplayName("Should filter products held in memory on their live stock")
+    void shouldFilterBelowReorderPointOnLiveStock() {
+        ProductDTO hotProductDTO = new ProductDTO();
+        hotProductDTO.setId(2L);
+        hotProductDTO.setStock(50);
+        hotProductDTO.setReorderPoint(20);
+        productDTO.setReorderPoint(20);
+        when(productRepository.findDTOsBelowReorderPoint()).thenReturn(Arrays.asList(productDTO));
+        when(stockCounters.hasManagedProducts()).thenReturn(true);
+        when(stockCounters.getManagedProductIds()).thenReturn(Set.of(2L));
+        when(stockCounters.getStock(2L)).thenReturn(OptionalInt.of(5));
+        when(productRepository.findDTOsByIdIn(List.of(2L))).thenReturn(List.of(hotProductDTO));
+
+        List<ProductDTO> result = productService.getProductsBelowReorderPoint();
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(1).getId());
+        assertEquals(5, result.get(1).getStock());
+        verify(productRepository, never()).findDTOById(any());
+    }
+
+    @Test
+    @DisplayName("Should get category stats, with zero totals for categories without products")
+    void shouldGetCategoryStats() {
+        CategoryStats electronics = categoryStats(1L, "Electronics", 2L, 15L, new BigDecimal("1499.95"));
+        CategoryStats empty = categoryStats(2L, "Empty", 0L, null, null);
+        when(productRepository.findCategoryStats()).thenReturn(Arrays.asList(electronics, empty));
+
+        List<CategoryStatsDTO> result = productService.getCategoryStats();
+
+        assertEquals(new CategoryStatsDTO(1L, "Electronics", 2L, 15L, new BigDecimal("1499.95")), result.get(0));
+        assertEquals(new CategoryStatsDTO(2L, "Empty", 0L, 0L, BigDecimal.ZERO), result.get(1));
+        verify(productRepository, never()).findDTOsByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should count the unflushed in-memory stock in category stats")
+    void shouldCountInMemoryStockInCategoryStats() {
+        CategoryStats electronics = categoryStats(1L, "Electronics", 1L, 10L, new BigDecimal("9999.90"));
+        when(productRepository.findCategoryStats()).thenReturn(List.of(electronics));
+        when(stockCounters.getManagedProductIds()).thenReturn(Set.of(1L));
+        when(stockCounters.getStock(1L)).thenReturn(OptionalInt.of(7));
+        when(productRepository.findDTOsByIdIn(Set.of(1L))).thenReturn(List.of(productDTO));
+
+        CategoryStatsDTO result = productService.getCategoryStats().get(0);
+
+        assertEquals(7L, result.getTotalStock());
+        assertEquals(0, new BigDecimal("6999.93").compareTo(result.getStockValue()));
+    }
+
+    @Test
+    @DisplayName("Should return a page of products with a cursor when more rows exist")
+    void shouldGetProductsPageWithNextCursor() {
+        ProductDTO nextProductDTO = new ProductDTO();
+        nextProductDTO.setId(2L);
+
+        when(productRepository.findPageAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(productDTO, nextProductDTO));
+
+        CursorPage<ProductDTO> result = productService.getProductsPage(null, null, null, 1);
+
+        assertEquals(Arrays.asList(productDTO), result.getItems());
+        assertNotNull(result.getNextCursor());
+        assertEquals(1L, cursorCodec.decode(result.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Should resume a category page after the cursor and end without a next cursor")
+    void shouldGetLastProductsPageByCategory() {
+        String cursor = cursorCodec.encode(5L);
+        when(productRepository.findPageByCategoryIdAfter(1L, 5L, PageRequest.of(0, 51)))
+                .thenReturn(Arrays.asList(productDTO));
+
+        CursorPage<ProductDTO> result = productService.getProductsPage(1L, "ignored", cursor, null);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+        verify(productRepository, never()).findPageByNameContainingAfter(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should cap the page size at the configured maximum")
+    void shouldCapPageSizeAtMaxLimit() {
+        when(productRepository.findPageByNameContainingAfter("Laptop", 0L, PageRequest.of(0, 501)))
+                .thenReturn(Arrays.asList(productDTO));
+
+        CursorPage<ProductDTO> result = productService.getProductsPage(null, "Laptop", null, 100_000);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidRequestException.class,
+                () -> productService.getProductsPage(null, null, "not-a-cursor", null));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should merge updates and deletions into one change feed page, oldest first")
+    void shouldGetProductChanges() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 12, 0);
+        productDTO.setUpdatedAt(start.plusSeconds(1));
+        ProductDTO laterDTO = new ProductDTO();
+        laterDTO.setId(3L);
+        laterDTO.setUpdatedAt(start.plusSeconds(3));
+        ProductTombstone tombstone = new ProductTombstone(2L);
+        tombstone.setDeletedAt(start.plusSeconds(2));
+        when(productRepository.findDTOsChangedAfter(eq(start), eq(0L), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(productDTO, laterDTO));
+        when(productTombstoneRepository.findDeletedAfter(eq(start), eq(0L), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(tombstone));
+        String since = cursorCodec.encodeChange(new CursorCodec.ChangePosition(start, 0L));
+
+        ProductChangesDTO result = productService.getProductChanges(since, 2);
+
+        assertEquals(List.of(productDTO), result.getProducts());
+        assertEquals(List.of(2L), result.getDeletedIds());
+        assertTrue(result.isHasMore());
+        assertEquals(new CursorCodec.ChangePosition(start.plusSeconds(2), 2L),
+                cursorCodec.decodeChange(result.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Should keep the cursor when the change feed has nothing new")
+    void shouldKeepCursorWhenNoChanges() {
+        String since = cursorCodec.encodeChange(CursorCodec.FEED_START);
+
+        ProductChangesDTO result = productService.getProductChanges(since, null);
+
+        assertTrue(result.getProducts().isEmpty());
+        assertTrue(result.getDeletedIds().isEmpty());
+        assertFalse(result.isHasMore());
+        assertEquals(since, result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed change feed cursor")
+    void shouldRejectMalformedChangeCursor() {
+        assertThrows(InvalidRequestException.class, () -> productService.getProductChanges("not-a-cursor", null));
+        verifyNoInteractions(productRepository, productTombstoneRepository);
+    }
+
+    @Test
+    @DisplayName("Should delegate ranked search with a trimmed query and resolved limit")
+    void shouldSearchProductsRanked() {
+        when(productRepository.searchRanked("laptp", 20)).thenReturn(Arrays.asList(productDTO));
+
+        List<ProductDTO> result = productService.searchProductsRanked("  laptp ", 20);
+
+        assertEquals(1, result.size());
+        verify(productRepository, times(1)).searchRanked("laptp", 20);
+    }
+
+    @Test
+    @DisplayName("Should reject a blank ranked search query")
+    void shouldRejectBlankRankedSearchQuery() {
+        assertThrows(InvalidRequestException.class, () -> productService.searchProductsRanked("  ", null));
+        verifyNoInteractions(productRepository);
+    }
+
+    private static ProductVersion productVersion(Long versionNumber, Integer stock, String categoryName) {
+        ProductVersion version = mock(ProductVersion.class);
+        when(version.getVersion()).thenReturn(versionNumber);
+        when(version.getStock()).thenReturn(stock);
+        when(version.getCategoryId()).thenReturn(1L);
+        when(version.getCategoryName()).thenReturn(categoryName);
+        return version;
+    }
+
+    private static CatalogVersion catalogVersion(LocalDateTime updatedAt, Long productCount, Long versionSum) {
+        CatalogVersion version = mock(CatalogVersion.class);
+        when(version.getProductsUpdatedAt()).thenReturn(updatedAt);
+        when(version.getProductCount()).thenReturn(productCount);
+        when(version.getProductVersionSum()).thenReturn(versionSum);
+        when(version.getCategoriesUpdatedAt()).thenReturn(updatedAt);
+        when(version.getCategoryCount()).thenReturn(1L);
+        when(version.getCategoryVersionSum()).thenReturn(0L);
+        return version;
+    }
+
+    private static CategoryStats categoryStats(Long categoryId, String categoryName, Long productCount,
+                                               Long totalStock, BigDecimal stockValue) {
+        CategoryStats stats = mock(CategoryStats.class);
+        when(stats.getCategoryId()).thenReturn(categoryId);
+        when(stats.getCategoryName()).thenReturn(categoryName);
+        when(stats.getProductCount()).thenReturn(productCount);
+        when(stats.getTotalStock()).thenReturn(totalStock);
+        when(stats.getStockValue()).thenReturn(stockValue);
+        return stats;
     }
 }
@@ -0,0 +1,139 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.dto.SuggestionDTO;
+import cue.edu.co.inventariopruebas.application.dto.SuggestionIndexStats;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.IdAndName;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.SuggestionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private SuggestionService suggestionService;
+
+    @BeforeEach
+    void setUp() {
+        SuggestionProperties suggestionProperties = new SuggestionProperties();
+        suggestionProperties.setMaxKeyLength(12);
+        suggestionService = new SuggestionService(productRepository, categoryRepository, suggestionProperties);
+
+        when(productRepository.streamIdsAndNames()).thenReturn(Stream.of(
+                row(1L, "Laptop"),
+                row(2L, "Laptop Stand"),
+                row(3L, "Programming Book"),
+                row(4L, "Wireless Mouse for Laptops and Desktops")));
+        when(categoryRepository.findAllIdsAndNames()).thenReturn(List.of(row(10L, "Books")));
+        suggestionService.rebuildIndex();
+    }
+
+    @Test
+    @DisplayName("Should complete any word of product and category names, without duplicates")
+    void shouldSuggestByWordPrefix() {
+        List<String> names = names(suggestionService.suggest("Lap", null));
+        assertEquals(List.of("Laptop", "Laptop Stand", "Wireless Mouse for Laptops and Desktops"), names);
+
+        List<SuggestionDTO> books = suggestionService.suggest("boo", null);
+        assertEquals(2, books.size());
+        assertEquals(SuggestionDTO.Type.PRODUCT, books.get(0).getType());
+        assertEquals(SuggestionDTO.Type.CATEGORY, books.get(1).getType());
+    }
+
+    @Test
+    @DisplayName("Should cap completions at the requested limit and ignore blank prefixes")
+    void shouldApplyLimitAndIgnoreBlankPrefix() {
+        assertEquals(1, suggestionService.suggest("laptop", 1).size());
+        assertTrue(suggestionService.suggest("   ", null).isEmpty());
+        assertTrue(suggestionService.suggest("zzz", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should filter prefixes longer than the stored key length against the full name")
+    void shouldMatchPrefixesLongerThanKeyLength() {
+        assertEquals(List.of("Wireless Mouse for Laptops and Desktops"),
+                names(suggestionService.suggest("wireless mouse f", null)));
+        assertTrue(suggestionService.suggest("wireless mousetrap", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply committed product and category changes to the index")
+    void shouldApplyChangeEvents() {
+        ProductDTO renamed = new ProductDTO();
+        renamed.setId(1L);
+        renamed.setName("Notebook");
+        suggestionService.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, 1L, "Laptop", renamed));
+        suggestionService.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, 2L, "Laptop Stand", null));
+        suggestionService.onCategoryChanged(new CategoryChangedEvent(ChangeType.CREATED, 11L, null,
+                new CategoryDTO(11L, "Notebooks", null, null, 1L)));
+
+        assertEquals(List.of("Wireless Mouse for Laptops and Desktops"), names(suggestionService.suggest("lap", null)));
+        assertEquals(List.of("Notebook", "Notebooks"), names(suggestionService.suggest("note", null)));
+    }
+
+    @Test
+    @DisplayName("Should index a product once when the rebuild already read its creation")
+    void shouldIgnoreCreationAlreadyReadByRebuild() {
+        ProductDTO laptop = new ProductDTO();
+        laptop.setId(1L);
+        laptop.setName("Laptop");
+        suggestionService.onProductChanged(new ProductChangedEvent(ChangeType.CREATED, 1L, null, laptop));
+        assertEquals(12, suggestionService.getIndexStats().getEntries());
+
+        suggestionService.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, 1L, "Laptop", null));
+
+        assertEquals(List.of("Laptop Stand", "Wireless Mouse for Laptops and Desktops"),
+                names(suggestionService.suggest("lap", null)));
+    }
+
+    @Test
+    @DisplayName("Should report index size and estimated footprint")
+    void shouldReportIndexStats() {
+        SuggestionIndexStats stats = suggestionService.getIndexStats();
+
+        assertEquals(12, stats.getEntries());
+        assertTrue(stats.getNodes() > stats.getKeys());
+        assertTrue(stats.getEstimatedBytes() > 0);
+    }
+
+    private static List<String> names(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getName).collect(Collectors.toList());
+    }
+
+    private static IdAndName row(Long id, String name) {
+        return new IdAndName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
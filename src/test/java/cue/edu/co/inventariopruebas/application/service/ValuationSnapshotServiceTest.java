@@ -0,0 +1,147 @@
+package cue.edu.co.inventariopruebas.application.service;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryStatsDTO;
+import cue.edu.co.inventariopruebas.application.dto.ValuationPointDTO;
+import cue.edu.co.inventariopruebas.domain.entity.CategoryValuationSnapshot;
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryValuationSnapshotRepository;
+import cue.edu.co.inventariopruebas.domain.repository.DailyValuation;
+import cue.edu.co.inventariopruebas.infrastructure.config.ValuationProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ValuationSnapshotServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 4, 29);
+
+    @Mock
+    private CategoryValuationSnapshotRepository snapshotRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Spy
+    private ValuationProperties valuationProperties = new ValuationProperties();
+
+    @InjectMocks
+    private ValuationSnapshotService valuationSnapshotService;
+
+    @Test
+    @DisplayName("Should replace the day's snapshot with the current category stats")
+    @SuppressWarnings("unchecked")
+    void shouldTakeSnapshot() {
+        when(productService.getCategoryStats()).thenReturn(List.of(
+                new CategoryStatsDTO(1L, "Electronics", 2L, 15L, new BigDecimal("1499.95")),
+                new CategoryStatsDTO(2L, "Empty", 0L, 0L, BigDecimal.ZERO)));
+
+        int categories = valuationSnapshotService.takeSnapshot(MONDAY);
+
+        assertEquals(2, categories);
+        ArgumentCaptor<List<CategoryValuationSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).deleteBySnapshotDate(MONDAY);
+        verify(snapshotRepository).saveAll(captor.capture());
+        CategoryValuationSnapshot snapshot = captor.getValue().get(0);
+        assertEquals(MONDAY, snapshot.getSnapshotDate());
+        assertEquals("Electronics", snapshot.getCategoryName());
+        assertEquals(15L, snapshot.getTotalStock());
+        assertEquals(new BigDecimal("1499.95"), snapshot.getStockValue());
+    }
+
+    @Test
+    @DisplayName("Should return one point per day at day granularity")
+    void shouldGetDailySeries() {
+        List<DailyValuation> days = List.of(day(MONDAY, "100.00"), day(MONDAY.plusDays(1), "120.00"));
+        when(snapshotRepository.findDailyTotals(MONDAY, MONDAY.plusDays(6))).thenReturn(days);
+
+        List<ValuationPointDTO> result =
+                valuationSnapshotService.getValuationSeries(MONDAY, MONDAY.plusDays(6), "day", null);
+
+        assertEquals(2, result.size());
+        assertEquals(MONDAY.plusDays(1), result.get(1).getPeriodStart());
+        assertEquals(new BigDecimal("120.00"), result.get(1).getStockValue());
+        assertEquals(1, result.get(1).getSnapshotCount());
+    }
+
+    @Test
+    @DisplayName("Should downsample to weeks starting on Monday with closing and average values")
+    void shouldDownsampleToWeeks() {
+        List<DailyValuation> days = List.of(day(MONDAY.minusDays(1), "80.00"), day(MONDAY, "100.00"),
+                day(MONDAY.plusDays(3), "110.00"), day(MONDAY.plusDays(6), "150.00"));
+        when(snapshotRepository.findDailyTotalsByCategoryId(1L, MONDAY.minusDays(1), MONDAY.plusDays(6)))
+                .thenReturn(days);
+
+        List<ValuationPointDTO> result = valuationSnapshotService.getValuationSeries(
+                MONDAY.minusDays(1), MONDAY.plusDays(6), "WEEK", 1L);
+
+        assertEquals(2, result.size());
+        assertEquals(MONDAY.minusDays(7), result.get(0).getPeriodStart());
+        ValuationPointDTO week = result.get(1);
+        assertEquals(MONDAY, week.getPeriodStart());
+        assertEquals(MONDAY.plusDays(6), week.getSnapshotDate());
+        assertEquals(new BigDecimal("150.00"), week.getStockValue());
+        assertEquals(new BigDecimal("120.00"), week.getAverageStockValue());
+        assertEquals(3, week.getSnapshotCount());
+        verify(snapshotRepository, never()).findDailyTotals(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should downsample to calendar months")
+    void shouldDownsampleToMonths() {
+        List<DailyValuation> days = List.of(day(MONDAY, "100.00"), day(MONDAY.plusDays(2), "90.00"),
+                day(MONDAY.plusDays(3), "95.00"));
+        when(snapshotRepository.findDailyTotals(MONDAY, MONDAY.plusDays(3))).thenReturn(days);
+
+        List<ValuationPointDTO> result =
+                valuationSnapshotService.getValuationSeries(MONDAY, MONDAY.plusDays(3), "month", null);
+
+        assertEquals(2, result.size());
+        assertEquals(LocalDate.of(2024, 4, 1), result.get(0).getPeriodStart());
+        assertEquals(LocalDate.of(2024, 5, 1), result.get(1).getPeriodStart());
+        assertEquals(new BigDecimal("92.50"), result.get(1).getAverageStockValue());
+    }
+
+    @Test
+    @DisplayName("Should default to the configured range ending today")
+    void shouldDefaultToConfiguredRange() {
+        LocalDate today = LocalDate.now();
+        when(snapshotRepository.findDailyTotals(today.minusDays(29), today)).thenReturn(List.of());
+
+        assertTrue(valuationSnapshotService.getValuationSeries(null, null, "day", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject an inverted or oversized range and an unknown granularity")
+    void shouldRejectInvalidSeriesRequests() {
+        assertThrows(InvalidRequestException.class,
+                () -> valuationSnapshotService.getValuationSeries(MONDAY, MONDAY.minusDays(1), "day", null));
+        assertThrows(InvalidRequestException.class,
+                () -> valuationSnapshotService.getValuationSeries(MONDAY.minusYears(20), MONDAY, "day", null));
+        assertThrows(InvalidRequestException.class,
+                () -> valuationSnapshotService.getValuationSeries(MONDAY, MONDAY, "hour", null));
+        verifyNoInteractions(snapshotRepository);
+    }
+
+    private static DailyValuation day(LocalDate date, String stockValue) {
+        DailyValuation valuation = mock(DailyValuation.class);
+        when(valuation.getSnapshotDate()).thenReturn(date);
+        when(valuation.getProductCount()).thenReturn(3L);
+        when(valuation.getTotalStock()).thenReturn(10L);
+        when(valuation.getStockValue()).thenReturn(new BigDecimal(stockValue));
+        return valuation;
+    }
+}
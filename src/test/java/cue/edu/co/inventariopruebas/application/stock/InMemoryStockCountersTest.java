@@ -0,0 +1,165 @@
+package cue.edu.co.inventariopruebas.application.stock;
+
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.InMemoryStockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryStockCountersTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private InMemoryStockCounters stockCounters;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryStockProperties properties = new InMemoryStockProperties();
+        properties.setEnabled(true);
+        properties.setProductIds(Set.of(1L));
+        properties.setStripes(4);
+        stockCounters = new InMemoryStockCounters(productRepository, properties);
+
+        Product product = new Product();
+        product.setId(1L);
+        product.setStock(100);
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+        stockCounters.seed();
+    }
+
+    @Test
+    @DisplayName("Should manage only the configured products")
+    void shouldManageConfiguredProducts() {
+        assertTrue(stockCounters.isManaged(1L));
+        assertFalse(stockCounters.isManaged(2L));
+        assertEquals(OptionalInt.of(100), stockCounters.getStock(1L));
+        assertEquals(OptionalInt.empty(), stockCounters.getStock(2L));
+    }
+
+    @Test
+    @DisplayName("Should reject a reservation larger than the stock spread across stripes")
+    void shouldGatherStripesBeforeRejecting() {
+        // 100 units over 4 stripes: no single stripe holds 60
+        assertEquals(OptionalInt.of(40), stockCounters.tryAdjust(1L, -60));
+        assertEquals(OptionalInt.empty(), stockCounters.tryAdjust(1L, -41));
+        assertEquals(OptionalInt.of(0), stockCounters.tryAdjust(1L, -40));
+    }
+
+    @Test
+    @DisplayName("Should never oversell under concurrent reservations")
+    void shouldNotOversellConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int succeeded = 0;
+                    for (int i = 0; i < 50; i++) {
+                        if (stockCounters.tryAdjust(1L, -1).isPresent()) {
+                            succeeded++;
+                        }
+                    }
+                    return succeeded;
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                succeeded += result.get();
+            }
+            assertEquals(100, succeeded);
+            assertEquals(OptionalInt.of(0), stockCounters.getStock(1L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush the accumulated changes in one batch")
+    void shouldFlushAccumulatedDeltas() {
+        stockCounters.tryAdjust(1L, -3);
+        stockCounters.tryAdjust(1L, 1);
+
+        stockCounters.flush();
+        stockCounters.flush();
+
+        verify(productRepository, times(1)).applyStockDeltas(Map.of(1L, -2L));
+    }
+
+    @Test
+    @DisplayName("Should take out only the units left by an update's change and flush what was applied")
+    void shouldAdjustUpToAvailableStock() {
+        stockCounters.tryAdjust(1L, -90);
+
+        assertEquals(OptionalInt.of(-10), stockCounters.adjustUpToAvailable(1L, -15));
+        assertEquals(OptionalInt.of(5), stockCounters.adjustUpToAvailable(1L, 5));
+        assertEquals(OptionalInt.empty(), stockCounters.adjustUpToAvailable(2L, 5));
+        stockCounters.flush();
+
+        verify(productRepository).applyStockDeltas(Map.of(1L, -95L));
+        assertEquals(OptionalInt.of(5), stockCounters.getStock(1L));
+    }
+
+    @Test
+    @DisplayName("Should refuse or cap a restock that would overflow the stock")
+    void shouldNotOverflowStock() {
+        int headroom = Integer.MAX_VALUE - 100;
+
+        assertEquals(OptionalInt.of(Integer.MAX_VALUE), stockCounters.tryAdjust(1L, headroom));
+        assertEquals(OptionalInt.empty(), stockCounters.tryAdjust(1L, 1));
+        assertEquals(OptionalInt.of(-10), stockCounters.adjustUpToAvailable(1L, -10));
+        assertEquals(OptionalInt.of(10), stockCounters.adjustUpToAvailable(1L, 15));
+        assertEquals(OptionalInt.of(Integer.MAX_VALUE), stockCounters.getStock(1L));
+    }
+
+    @Test
+    @DisplayName("Should keep changes that failed to flush for the next flush")
+    void shouldRetryFailedFlush() {
+        stockCounters.tryAdjust(1L, -5);
+        doThrow(new DataAccessResourceFailureException("down")).doNothing()
+                .when(productRepository).applyStockDeltas(anyMap());
+
+        stockCounters.flush();
+        stockCounters.flush();
+
+        verify(productRepository, times(2)).applyStockDeltas(Map.of(1L, -5L));
+    }
+
+    @Test
+    @DisplayName("Should stop managing a product only once its deletion is committed")
+    void shouldRemoveDeletedProduct() {
+        stockCounters.tryAdjust(1L, -5);
+
+        stockCounters.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, 1L, "Hot Product", null));
+
+        assertFalse(stockCounters.isManaged(1L));
+        stockCounters.flush();
+        verify(productRepository, never()).applyStockDeltas(anyMap());
+    }
+}
@@ -0,0 +1,172 @@
+package cue.edu.co.inventariopruebas.application.stock;
+
+import cue.edu.co.inventariopruebas.domain.entity.StockMovement;
+import cue.edu.co.inventariopruebas.domain.entity.StockMovementReason;
+import cue.edu.co.inventariopruebas.domain.repository.StockMovementRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.StockMovementProperties;
+import cue.edu.co.inventariopruebas.infrastructure.config.StockMovementProperties.Durability;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockMovementLedgerTest {
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    private StockMovementProperties properties;
+    private StockMovementLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StockMovementProperties();
+        properties.setBufferSize(2);
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        properties.setRetryDelay(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ledger != null) {
+            ledger.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should queue movements and write them in one batch in async mode")
+    void shouldWriteQueuedMovementsInOneBatch() {
+        ledger = new StockMovementLedger(stockMovementRepository, properties);
+        StockMovement first = movement(1L, -2);
+        StockMovement second = movement(2L, 5);
+
+        ledger.record(first);
+        ledger.record(second);
+        verifyNoInteractions(stockMovementRepository);
+
+        ledger.start();
+
+        verify(stockMovementRepository, timeout(1000).times(1)).appendAll(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Should return only once the movement is written in flush-on-commit mode")
+    void shouldWaitForWriteInFlushOnCommitMode() {
+        properties.setDurability(Durability.FLUSH_ON_COMMIT);
+        ledger = new StockMovementLedger(stockMovementRepository, properties);
+        ledger.start();
+        StockMovement movement = movement(1L, -2);
+
+        ledger.record(movement);
+
+        verify(stockMovementRepository, times(1)).appendAll(List.of(movement));
+    }
+
+    @Test
+    @DisplayName("Should write a movement directly when the buffer stays full")
+    void shouldWriteDirectlyWhenBufferIsFull() {
+        ledger = new StockMovementLedger(stockMovementRepository, properties);
+        ledger.record(movement(1L, 1));
+        ledger.record(movement(1L, 2));
+        StockMovement overflow = movement(1L, 3);
+
+        ledger.record(overflow);
+
+        verify(stockMovementRepository, times(1)).appendAll(List.of(overflow));
+    }
+
+    @Test
+    @DisplayName("Should retry a batch that failed to be written")
+    void shouldRetryFailedBatch() {
+        ledger = new StockMovementLedger(stockMovementRepository, properties);
+        StockMovement movement = movement(1L, -2);
+        doThrow(new DataAccessResourceFailureException("Database down"))
+                .doNothing()
+                .when(stockMovementRepository).appendAll(anyList());
+
+        ledger.start();
+        ledger.record(movement);
+
+        verify(stockMovementRepository, timeout(1000).times(2)).appendAll(List.of(movement));
+    }
+
+    @Test
+    @DisplayName("Should write a batch that keeps failing one movement at a time and drop only the bad one")
+    void shouldDropOnlyMovementThatFails() {
+        ledger = new StockMovementLedger(stockMovementRepository, properties);
+        StockMovement good = movement(1L, -2);
+        StockMovement bad = movement(2L, 5);
+        doAnswer(invocation -> {
+            List<StockMovement> movements = invocation.getArgument(0);
+            if (movements.contains(bad)) {
+                throw new DataIntegrityViolationException("Bad row");
+            }
+            return null;
+        }).when(stockMovementRepository).appendAll(anyList());
+        ledger.record(good);
+        ledger.record(bad);
+
+        ledger.start();
+
+        verify(stockMovementRepository, timeout(1000).times(2)).appendAll(List.of(good, bad));
+        verify(stockMovementRepository, timeout(1000)).appendAll(List.of(good));
+        verify(stockMovementRepository, timeout(1000)).appendAll(List.of(bad));
+        StockMovement next = movement(3L, 1);
+        ledger.record(next);
+        verify(stockMovementRepository, timeout(1000)).appendAll(List.of(next));
+    }
+
+    @Test
+    @DisplayName("Should write the queued movements on shutdown")
+    void shouldWriteQueuedMovementsOnClose() throws InterruptedException {
+        ledger = new StockMovementLedger(stockMovementRepository, properties);
+        StockMovement movement = movement(1L, -2);
+        ledger.record(movement);
+
+        ledger.close();
+        ledger = null;
+
+        verify(stockMovementRepository, times(1)).appendAll(List.of(movement));
+    }
+
+    @Test
+    @DisplayName("Should write a failed batch at once when the writer is interrupted while waiting to retry")
+    void shouldWriteBatchWhenInterruptedBeforeRetry() {
+        properties.setRetryDelay(Duration.ofMinutes(1));
+        ledger = new StockMovementLedger(stockMovementRepository, properties);
+        StockMovement movement = movement(1L, -2);
+        doThrow(new DataAccessResourceFailureException("down")).doNothing()
+                .when(stockMovementRepository).appendAll(anyList());
+        ledger.record(movement);
+        ledger.start();
+        verify(stockMovementRepository, timeout(1000)).appendAll(List.of(movement));
+
+        writerThread().interrupt();
+
+        verify(stockMovementRepository, timeout(1000).times(2)).appendAll(List.of(movement));
+    }
+
+    private static Thread writerThread() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("stock-movement-writer") && thread.isAlive())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static StockMovement movement(Long productId, int delta) {
+        return new StockMovement(productId, delta, 10 + delta, StockMovementReason.ADJUSTED, LocalDateTime.now());
+    }
+}
@@ -1,9 +1,15 @@
 package cue.edu.co.inventariopruebas.infrastructure.controller;
 
+import cue.edu.co.inventariopruebas.application.dto.CategoryBulkRequestDTO;
 import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
 import cue.edu.co.inventariopruebas.application.dto.CategoryRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.CategoryStatsDTO;
+import cue.edu.co.inventariopruebas.application.dto.CategoryUpsertDTO;
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
 import cue.edu.co.inventariopruebas.application.service.CategoryService;
+import cue.edu.co.inventariopruebas.application.service.ProductService;
 import cue.edu.co.inventariopruebas.domain.exception.DuplicateResourceException;
+import cue.edu.co.inventariopruebas.domain.exception.PreconditionFailedException;
 import cue.edu.co.inventariopruebas.domain.exception.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,7 +21,10 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -35,6 +44,9 @@ class CategoryControllerTest {
     @MockitoBean
     private CategoryService categoryService;
 
+    @MockitoBean
+    private ProductService productService;
+
     private CategoryDTO categoryDTO;
     private CategoryRequestDTO categoryRequestDTO;
 
@@ -45,20 +57,76 @@ class CategoryControllerTest {
         categoryDTO.setName("Electronics");
 
         categoryRequestDTO = new CategoryRequestDTO("Electronics");
+
+        when(categoryService.getCategoriesETag()).thenReturn("categories-v1");
+        when(categoryService.getCategoryETag(any(CategoryDTO.class))).thenReturn("category-v1");
     }
 
     @Test
     @DisplayName("GET /api/categories - Should return all categories")
     void shouldGetAllCategories() throws Exception {
-        when(categoryService.getAllCategories()).thenReturn(Arrays.asList(categoryDTO));
+        when(categoryService.getCategoriesPage(null, null))
+                .thenReturn(new CursorPage<>(Arrays.asList(categoryDTO), "next"));
 
         mockMvc.perform(get("/api/categories"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].name").value("Electronics"));
+                .andExpect(jsonPath("$[0].name").value("Electronics"))
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(header().string("ETag", "\"categories-v1\""));
+
+        verify(categoryService, times(1)).getCategoriesPage(null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/categories/stats - Should return the aggregates of each category")
+    void shouldGetCategoryStats() throws Exception {
+        when(productService.getProductsETag()).thenReturn("products-v1");
+        when(productService.getCategoryStats()).thenReturn(List.of(
+                new CategoryStatsDTO(1L, "Electronics", 2L, 15L, new BigDecimal("1499.95"))));
 
-        verify(categoryService, times(1)).getAllCategories();
+        mockMvc.perform(get("/api/categories/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].categoryId").value(1))
+                .andExpect(jsonPath("$[0].categoryName").value("Electronics"))
+                .andExpect(jsonPath("$[0].productCount").value(2))
+                .andExpect(jsonPath("$[0].totalStock").value(15))
+                .andExpect(jsonPath("$[0].stockValue").value(1499.95))
+                .andExpect(header().string("ETag", "\"products-v1\""));
+
+        verify(categoryService, never()).getCategoryById(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/categories/stats - Should return 304 without aggregating when the ETag matches")
+    void shouldReturn304WhenCategoryStatsETagMatches() throws Exception {
+        when(productService.getProductsETag()).thenReturn("products-v1");
+
+        mockMvc.perform(get("/api/categories/stats").header("If-None-Match", "\"products-v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).getCategoryStats();
+    }
+
+    @Test
+    @DisplayName("GET /api/categories - Should return 304 without listing when the ETag matches")
+    void shouldReturn304WhenCategoriesETagMatches() throws Exception {
+        mockMvc.perform(get("/api/categories").header("If-None-Match", "\"categories-v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(categoryService, never()).getCategoriesPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/categories/{id} - Should return 304 without loading the category when the ETag matches")
+    void shouldReturn304WhenCategoryETagMatches() throws Exception {
+        when(categoryService.findCategoryETag(1L)).thenReturn(Optional.of("category-v1"));
+
+        mockMvc.perform(get("/api/categories/1").header("If-None-Match", "\"category-v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(categoryService, never()).getCategoryById(1L);
     }
 
     @Test
@@ -70,7 +138,8 @@ class CategoryControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.name").value("Electronics"));
+                .andExpect(jsonPath("$.name").value("Electronics"))
+                .andExpect(header().string("ETag", "\"category-v1\""));
 
         verify(categoryService, times(1)).getCategoryById(1L);
     }
@@ -103,6 +172,41 @@ class CategoryControllerTest {
         verify(categoryService, times(1)).createCategory(any(CategoryRequestDTO.class));
     }
 
+    @Test
+    @DisplayName("PUT /api/categories/bulk - Should return the ID of every named category")
+    void shouldUpsertCategories() throws Exception {
+        when(categoryService.upsertCategories(List.of("Electronics", "Garden"))).thenReturn(List.of(
+                new CategoryUpsertDTO(1L, "Electronics", false), new CategoryUpsertDTO(5L, "Garden", true)));
+
+        mockMvc.perform(put("/api/categories/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CategoryBulkRequestDTO(List.of("Electronics", "Garden")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].created").value(false))
+                .andExpect(jsonPath("$[1].name").value("Garden"))
+                .andExpect(jsonPath("$[1].created").value(true));
+
+        verify(categoryService, never()).updateCategory(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("PUT /api/categories/bulk - Should return 400 for an empty list or an invalid name")
+    void shouldRejectInvalidBulkUpsert() throws Exception {
+        mockMvc.perform(put("/api/categories/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryBulkRequestDTO(List.of()))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/categories/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryBulkRequestDTO(List.of("Garden", " ")))))
+                .andExpect(status().isBadRequest());
+
+        verify(categoryService, never()).upsertCategories(any());
+    }
+
     @Test
     @DisplayName("POST /api/categories - Should return 409 when category name already exists")
     void shouldReturn409WhenCategoryNameExists() throws Exception {
@@ -133,17 +237,44 @@ class CategoryControllerTest {
     @Test
     @DisplayName("PUT /api/categories/{id} - Should update category successfully")
     void shouldUpdateCategory() throws Exception {
-        when(categoryService.updateCategory(eq(1L), any(CategoryRequestDTO.class))).thenReturn(categoryDTO);
+        when(categoryService.updateCategory(eq(1L), any(CategoryRequestDTO.class), isNull())).thenReturn(categoryDTO);
 
         mockMvc.perform(put("/api/categories/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(categoryRequestDTO)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"category-v1\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value("Electronics"));
 
-        verify(categoryService, times(1)).updateCategory(eq(1L), any(CategoryRequestDTO.class));
+        verify(categoryService, times(1)).updateCategory(eq(1L), any(CategoryRequestDTO.class), isNull());
+    }
+
+    @Test
+    @DisplayName("PUT /api/categories/{id} - Should return 412 when the If-Match entity tag is stale")
+    void shouldReturnPreconditionFailedOnStaleCategoryUpdate() throws Exception {
+        when(categoryService.updateCategory(eq(1L), any(CategoryRequestDTO.class), eq(List.of("category-v0"))))
+                .thenThrow(new PreconditionFailedException("Category", 1L));
+
+        mockMvc.perform(put("/api/categories/1")
+                        .header("If-Match", "\"category-v0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(categoryRequestDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    @DisplayName("PUT /api/categories/{id} - Should treat If-Match: * as an unconditional update")
+    void shouldIgnoreWildcardIfMatch() throws Exception {
+        when(categoryService.updateCategory(eq(1L), any(CategoryRequestDTO.class), isNull())).thenReturn(categoryDTO);
+
+        mockMvc.perform(put("/api/categories/1")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(categoryRequestDTO)))
+                .andExpect(status().isOk());
     }
 
     @Test
@@ -0,0 +1,49 @@
+package cue.edu.co.inventariopruebas.infrastructure.controller;
+
+import cue.edu.co.inventariopruebas.infrastructure.events.InventoryEventBroadcaster;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(InventoryEventController.class)
+class InventoryEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private InventoryEventBroadcaster inventoryEventBroadcaster;
+
+    @Test
+    @DisplayName("GET /api/events - Should open an event stream and write the events sent to it")
+    void shouldStreamEvents() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(inventoryEventBroadcaster.subscribe()).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("product").data(Map.of("id", 1), MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:product\ndata:{\"id\":1}")));
+        verify(inventoryEventBroadcaster, times(1)).subscribe();
+    }
+}
@@ -1,8 +1,24 @@
 package cue.edu.co.inventariopruebas.infrastructure.controller;
 
+import cue.edu.co.inventariopruebas.application.dto.CursorPage;
+import cue.edu.co.inventariopruebas.application.dto.ExportFormat;
+import cue.edu.co.inventariopruebas.application.dto.ProductBatchDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductChangesDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductImportErrorDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductImportResultDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.StockAdjustmentRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.StockLevelDTO;
+import cue.edu.co.inventariopruebas.application.dto.SuggestionDTO;
+import cue.edu.co.inventariopruebas.application.service.ProductExportService;
+import cue.edu.co.inventariopruebas.application.service.ProductImportService;
 import cue.edu.co.inventariopruebas.application.service.ProductService;
+import cue.edu.co.inventariopruebas.application.service.SuggestionService;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.exception.InsufficientStockException;
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import cue.edu.co.inventariopruebas.domain.exception.PreconditionFailedException;
 import cue.edu.co.inventariopruebas.domain.exception.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,12 +28,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +60,15 @@ class ProductControllerTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductExportService productExportService;
+
+    @MockitoBean
+    private ProductImportService productImportService;
+
+    @MockitoBean
+    private SuggestionService suggestionService;
+
     private ProductDTO productDTO;
     private ProductRequestDTO productRequestDTO;
 
@@ -55,21 +89,91 @@ class ProductControllerTest {
         productRequestDTO.setPrice(new BigDecimal("999.99"));
         productRequestDTO.setStock(10);
         productRequestDTO.setCategoryId(1L);
+
+        when(productService.getProductsETag()).thenReturn("catalog-v1");
+        when(productService.getProductETag(any(ProductDTO.class))).thenReturn("product-v1");
     }
 
     @Test
     @DisplayName("GET /api/products - Should return all products")
     void shouldGetAllProducts() throws Exception {
-        when(productService.getAllProducts()).thenReturn(Arrays.asList(productDTO));
+        when(productService.getProductsPage(null, null, null, null))
+                .thenReturn(new CursorPage<>(Arrays.asList(productDTO), null));
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value("Laptop"))
-                .andExpect(jsonPath("$[0].price").value(999.99));
+                .andExpect(jsonPath("$[0].price").value(999.99))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().string("ETag", "\"catalog-v1\""));
+
+        verify(productService, times(1)).getProductsPage(null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/products?ids=1,7 - Should return the products found and the missing IDs")
+    void shouldGetProductsByIds() throws Exception {
+        when(productService.getProductsByIds(List.of(1L, 7L)))
+                .thenReturn(new ProductBatchDTO(List.of(productDTO), List.of(7L)));
+
+        mockMvc.perform(get("/api/products?ids=1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(1))
+                .andExpect(jsonPath("$.products[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.missingIds[0]").value(7));
+
+        verify(productService, never()).getProductsPage(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/products?ids=1,x - Should return 400 for a malformed ID")
+    void shouldReturn400WhenBatchIdIsInvalid() throws Exception {
+        mockMvc.perform(get("/api/products?ids=1,x"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).getProductsByIds(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/changes?since=c - Should return the changes and the next cursor")
+    void shouldGetProductChanges() throws Exception {
+        when(productService.getProductChanges("c", null))
+                .thenReturn(new ProductChangesDTO(List.of(productDTO), List.of(7L), "next", false));
+
+        mockMvc.perform(get("/api/products/changes?since=c"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(1))
+                .andExpect(jsonPath("$.deletedIds[0]").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(false));
 
-        verify(productService, times(1)).getAllProducts();
+        verify(productService, never()).getProductById(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/products?after=c&limit=1 - Should return a page with the next cursor header")
+    void shouldGetProductsPageWithNextCursor() throws Exception {
+        when(productService.getProductsPage(null, null, "c", 1))
+                .thenReturn(new CursorPage<>(Arrays.asList(productDTO), "next"));
+
+        mockMvc.perform(get("/api/products?after=c&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(header().string("X-Next-Cursor", "next"));
+
+        verify(productService, times(1)).getProductsPage(null, null, "c", 1);
+    }
+
+    @Test
+    @DisplayName("GET /api/products?after=bad - Should return 400 for a malformed cursor")
+    void shouldReturn400WhenCursorIsInvalid() throws Exception {
+        when(productService.getProductsPage(null, null, "bad", null))
+                .thenThrow(new InvalidRequestException("Invalid pagination cursor: bad"));
+
+        mockMvc.perform(get("/api/products?after=bad"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -86,6 +190,55 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductById(1L);
     }
 
+    @Test
+    @DisplayName("GET /api/products/{id} - Should return the product's ETag")
+    void shouldReturnProductETag() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(productDTO);
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"product-v1\""));
+
+        verify(productService, never()).findProductETag(1L);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} - Should return 304 without loading the product when the ETag matches")
+    void shouldReturn304WhenProductETagMatches() throws Exception {
+        when(productService.findProductETag(1L)).thenReturn(Optional.of("product-v1"));
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"product-v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"product-v1\""))
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getProductById(1L);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} - Should return the product when the ETag is stale")
+    void shouldReturnProductWhenETagIsStale() throws Exception {
+        when(productService.findProductETag(1L)).thenReturn(Optional.of("product-v1"));
+        when(productService.getProductById(1L)).thenReturn(productDTO);
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"product-v0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"product-v1\""))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/products - Should return 304 without listing when the collection ETag matches")
+    void shouldReturn304WhenCollectionETagMatches() throws Exception {
+        mockMvc.perform(get("/api/products?limit=1").header("If-None-Match", "\"catalog-v1\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/low-stock").header("If-None-Match", "\"catalog-v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).getProductsPage(any(), any(), any(), any());
+        verify(productService, never()).getLowStockProducts(anyInt());
+    }
+
     @Test
     @DisplayName("GET /api/products/{id} - Should return 404 when product not found")
     void shouldReturn404WhenProductNotFound() throws Exception {
@@ -101,27 +254,58 @@ class ProductControllerTest {
     @Test
     @DisplayName("GET /api/products?categoryId=1 - Should return products by category")
     void shouldGetProductsByCategory() throws Exception {
-        when(productService.getProductsByCategoryId(1L)).thenReturn(Arrays.asList(productDTO));
+        when(productService.getProductsPage(1L, null, null, null))
+                .thenReturn(new CursorPage<>(Arrays.asList(productDTO), null));
 
         mockMvc.perform(get("/api/products?categoryId=1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].categoryId").value(1));
 
-        verify(productService, times(1)).getProductsByCategoryId(1L);
+        verify(productService, times(1)).getProductsPage(1L, null, null, null);
     }
 
     @Test
     @DisplayName("GET /api/products?search=Laptop - Should search products by name")
     void shouldSearchProductsByName() throws Exception {
-        when(productService.searchProductsByName("Laptop")).thenReturn(Arrays.asList(productDTO));
+        when(productService.getProductsPage(null, "Laptop", null, null))
+                .thenReturn(new CursorPage<>(Arrays.asList(productDTO), null));
 
         mockMvc.perform(get("/api/products?search=Laptop"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].name").value("Laptop"));
 
-        verify(productService, times(1)).searchProductsByName("Laptop");
+        verify(productService, times(1)).getProductsPage(null, "Laptop", null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/search?q=lapto - Should return ranked search results")
+    void shouldSearchProductsRanked() throws Exception {
+        when(productService.searchProductsRanked("lapto", 5)).thenReturn(Arrays.asList(productDTO));
+
+        mockMvc.perform(get("/api/products/search?q=lapto&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].name").value("Laptop"));
+
+        verify(productService, times(1)).searchProductsRanked("lapto", 5);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggest?prefix=lap - Should return typeahead suggestions")
+    void shouldSuggestNames() throws Exception {
+        when(suggestionService.suggest("lap", null)).thenReturn(Arrays.asList(
+                new SuggestionDTO(SuggestionDTO.Type.PRODUCT, 1L, "Laptop")));
+
+        mockMvc.perform(get("/api/products/suggest?prefix=lap"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("PRODUCT"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Laptop"));
+
+        verify(suggestionService, times(1)).suggest("lap", null);
+        verifyNoInteractions(productService);
     }
 
     @Test
@@ -157,17 +341,117 @@ class ProductControllerTest {
     @Test
     @DisplayName("PUT /api/products/{id} - Should update product successfully")
     void shouldUpdateProduct() throws Exception {
-        when(productService.updateProduct(eq(1L), any(ProductRequestDTO.class))).thenReturn(productDTO);
+        when(productService.updateProduct(eq(1L), any(ProductRequestDTO.class), isNull())).thenReturn(productDTO);
 
         mockMvc.perform(put("/api/products/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(productRequestDTO)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"product-v1\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value("Laptop"));
 
-        verify(productService, times(1)).updateProduct(eq(1L), any(ProductRequestDTO.class));
+        verify(productService, times(1)).updateProduct(eq(1L), any(ProductRequestDTO.class), isNull());
+    }
+
+    @Test
+    @DisplayName("PUT /api/products/{id} - Should pass the If-Match entity tags to the service")
+    void shouldUpdateProductIfMatch() throws Exception {
+        when(productService.updateProduct(eq(1L), any(ProductRequestDTO.class), eq(List.of("product-v1", "other"))))
+                .thenReturn(productDTO);
+
+        mockMvc.perform(put("/api/products/1")
+                        .header("If-Match", "\"product-v1\", W/\"weak\", \"other\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequestDTO)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("PUT /api/products/{id} - Should return 412 when the If-Match entity tag is stale")
+    void shouldReturnPreconditionFailedOnStaleProductUpdate() throws Exception {
+        when(productService.updateProduct(eq(1L), any(ProductRequestDTO.class), eq(List.of("product-v0"))))
+                .thenThrow(new PreconditionFailedException("Product", 1L));
+
+        mockMvc.perform(put("/api/products/1")
+                        .header("If-Match", "\"product-v0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequestDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.message").value("Product with id 1 has been modified since it was read"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/products/{id} - Should return 409 when an unconditional update loses a race")
+    void shouldReturnConflictOnConcurrentProductUpdate() throws Exception {
+        when(productService.updateProduct(eq(1L), any(ProductRequestDTO.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        mockMvc.perform(put("/api/products/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/products/{id}/stock - Should return the new stock")
+    void shouldAdjustStock() throws Exception {
+        when(productService.adjustStock(1L, -3)).thenReturn(new StockLevelDTO(1L, 7));
+
+        mockMvc.perform(patch("/api/products/1/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockAdjustmentRequestDTO(-3))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(1))
+                .andExpect(jsonPath("$.stock").value(7));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/products/{id}/stock - Should return 409 when stock is insufficient")
+    void shouldReturn409WhenStockIsInsufficient() throws Exception {
+        when(productService.adjustStock(1L, -30)).thenThrow(new InsufficientStockException(1L, -30));
+
+        mockMvc.perform(patch("/api/products/1/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockAdjustmentRequestDTO(-30))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("PATCH /api/products/{id}/stock - Should return 400 for a delta whose negation overflows")
+    void shouldReturn400WhenDeltaIsOutOfRange() throws Exception {
+        mockMvc.perform(patch("/api/products/1/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockAdjustmentRequestDTO(Integer.MIN_VALUE))))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).adjustStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id} - Should return 503 when no database connection is available")
+    void shouldReturn503WhenDatabaseIsBusy() throws Exception {
+        when(productService.getProductById(1L)).thenThrow(
+                new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.error").value("Service Unavailable"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/products/{id}/stock - Should return 400 when delta is missing")
+    void shouldReturn400WhenDeltaIsMissing() throws Exception {
+        mockMvc.perform(patch("/api/products/1/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).adjustStock(any(), anyInt());
     }
 
     @Test
@@ -192,4 +476,79 @@ class ProductControllerTest {
 
         verify(productService, times(1)).getLowStockProducts(10);
     }
+
+    @Test
+    @DisplayName("GET /api/products/below-reorder-point - Should return products to reorder")
+    void shouldGetProductsBelowReorderPoint() throws Exception {
+        when(productService.getProductsBelowReorderPoint()).thenReturn(Arrays.asList(productDTO));
+
+        mockMvc.perform(get("/api/products/below-reorder-point"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(productService, times(1)).getProductsBelowReorderPoint();
+    }
+
+    @Test
+    @DisplayName("GET /api/products/export?format=csv - Should stream the catalog as CSV")
+    void shouldExportProductsAsCsv() throws Exception {
+        when(productExportService.exportProducts(eq(ExportFormat.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(1);
+                    out.write("id,name\n1,Laptop\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/products/export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.csv\""))
+                .andExpect(content().string("id,name\n1,Laptop\n"));
+
+        verify(productExportService, times(1)).exportProducts(eq(ExportFormat.CSV), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/export?format=xml - Should return 400 for an unsupported format")
+    void shouldReturn400WhenExportFormatIsUnsupported() throws Exception {
+        mockMvc.perform(get("/api/products/export?format=xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productExportService);
+    }
+
+    @Test
+    @DisplayName("POST /api/products/import - Should import a CSV body and report row errors")
+    void shouldImportProductsFromCsv() throws Exception {
+        ProductImportResultDTO importResult = new ProductImportResultDTO(1, 1,
+                Arrays.asList(new ProductImportErrorDTO(2, "price", "Invalid number: abc")), false);
+        when(productImportService.importProducts(eq(ExportFormat.CSV), any(InputStream.class)))
+                .thenReturn(importResult);
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("name,price,stock,categoryId\nLaptop,999.99,10,1\nMouse,abc,5,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].field").value("price"));
+
+        verify(productImportService, times(1)).importProducts(eq(ExportFormat.CSV), any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/products/import - Should return 400 for an unsupported content type")
+    void shouldReturn400WhenImportContentTypeIsUnsupported() throws Exception {
+        mockMvc.perform(post("/api/products/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<products/>"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productImportService);
+    }
 }
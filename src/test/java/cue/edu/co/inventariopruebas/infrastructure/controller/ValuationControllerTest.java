@@ -0,0 +1,79 @@
+package cue.edu.co.inventariopruebas.infrastructure.controller;
+
+import cue.edu.co.inventariopruebas.application.dto.ValuationPointDTO;
+import cue.edu.co.inventariopruebas.application.service.ValuationSnapshotService;
+import cue.edu.co.inventariopruebas.domain.exception.InvalidRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ValuationController.class)
+class ValuationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ValuationSnapshotService valuationSnapshotService;
+
+    @Test
+    @DisplayName("GET /api/valuations - Should return the downsampled valuation series")
+    void shouldGetValuationSeries() throws Exception {
+        LocalDate from = LocalDate.of(2024, 4, 1);
+        LocalDate to = LocalDate.of(2024, 6, 30);
+        when(valuationSnapshotService.getValuationSeries(from, to, "month", 1L)).thenReturn(List.of(
+                new ValuationPointDTO(from, LocalDate.of(2024, 4, 30), 3L, 10L, new BigDecimal("150.00"),
+                        new BigDecimal("120.00"), 30)));
+
+        mockMvc.perform(get("/api/valuations?from=2024-04-01&to=2024-06-30&granularity=month&categoryId=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].periodStart").value("2024-04-01"))
+                .andExpect(jsonPath("$[0].snapshotDate").value("2024-04-30"))
+                .andExpect(jsonPath("$[0].stockValue").value(150.0))
+                .andExpect(jsonPath("$[0].averageStockValue").value(120.0))
+                .andExpect(jsonPath("$[0].snapshotCount").value(30));
+    }
+
+    @Test
+    @DisplayName("GET /api/valuations - Should default to daily points over the default range")
+    void shouldUseDefaults() throws Exception {
+        when(valuationSnapshotService.getValuationSeries(null, null, "day", null)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/valuations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/valuations - Should return 400 for a malformed date")
+    void shouldReturn400ForMalformedDate() throws Exception {
+        mockMvc.perform(get("/api/valuations?from=yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for parameter 'from': yesterday"));
+
+        verify(valuationSnapshotService, never()).getValuationSeries(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/valuations - Should return 400 for an invalid range")
+    void shouldReturn400ForInvalidRange() throws Exception {
+        when(valuationSnapshotService.getValuationSeries(any(), any(), any(), any()))
+                .thenThrow(new InvalidRequestException("Unsupported granularity: hour"));
+
+        mockMvc.perform(get("/api/valuations?granularity=hour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported granularity: hour"));
+    }
+}
@@ -0,0 +1,137 @@
+package cue.edu.co.inventariopruebas.infrastructure.events;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.event.CategoryChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.ChangeType;
+import cue.edu.co.inventariopruebas.application.event.ProductChangedEvent;
+import cue.edu.co.inventariopruebas.application.event.StockChangedEvent;
+import cue.edu.co.inventariopruebas.infrastructure.config.EventStreamProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryEventBroadcasterTest {
+
+    /**
+     * Drain tasks, run only when the test says so, as if the client were slow.
+     */
+    private final List<Runnable> drains = new ArrayList<>();
+
+    private InventoryEventBroadcaster broadcaster;
+    private RecordingEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        EventStreamProperties properties = new EventStreamProperties();
+        properties.setBufferSize(2);
+        broadcaster = new InventoryEventBroadcaster(properties, drains::add);
+        emitter = new RecordingEmitter();
+        broadcaster.register(emitter);
+    }
+
+    @Test
+    @DisplayName("Should push committed product, stock and category changes as named events")
+    void shouldPushChanges() {
+        broadcaster.onProductChanged(productEvent(ChangeType.CREATED, 1L, "Laptop"));
+        broadcaster.onStockChanged(new StockChangedEvent(1L, -2, 8, false));
+        broadcaster.onCategoryChanged(new CategoryChangedEvent(ChangeType.DELETED, 3L, "Garden", null));
+        runDrains();
+
+        assertEquals(3, emitter.events.size());
+        assertTrue(emitter.events.get(0).startsWith("event:product\n"));
+        assertTrue(emitter.events.get(0).contains("name=Laptop"));
+        assertTrue(emitter.events.get(1).startsWith("event:stock\n"));
+        assertTrue(emitter.events.get(1).contains("stock=8"));
+        assertTrue(emitter.events.get(2).startsWith("event:category\n"));
+        assertTrue(emitter.events.get(2).contains("change=DELETED, id=3"));
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest unsent change per product, with one drain scheduled")
+    void shouldCoalesceChangesForSlowSubscriber() {
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 1L, "v1"));
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 2L, "Other"));
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 1L, "v2"));
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 1L, "v3"));
+
+        assertEquals(1, drains.size());
+        runDrains();
+
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("name=Other"));
+        assertTrue(emitter.events.get(1).contains("name=v3"));
+    }
+
+    @Test
+    @DisplayName("Should replace the pending changes with one resync event when the buffer overflows")
+    void shouldResyncSubscriberThatFellBehind() {
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 1L, "A"));
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 2L, "B"));
+        broadcaster.onCategoryChanged(new CategoryChangedEvent(ChangeType.CREATED, 1L, null,
+                new CategoryDTO(1L, "Garden", null, null, 0L)));
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 3L, "C"));
+        runDrains();
+
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).startsWith("event:resync\n"));
+
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 4L, "D"));
+        runDrains();
+
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(1).contains("name=D"));
+    }
+
+    @Test
+    @DisplayName("Should stop writing to a subscriber whose connection failed")
+    void shouldDropFailedSubscriber() {
+        emitter.failing = true;
+        broadcaster.onProductChanged(productEvent(ChangeType.CREATED, 1L, "Laptop"));
+        runDrains();
+
+        broadcaster.onProductChanged(productEvent(ChangeType.UPDATED, 1L, "Laptop v2"));
+
+        assertTrue(drains.isEmpty());
+        assertEquals(1, emitter.events.size());
+    }
+
+    private void runDrains() {
+        while (!drains.isEmpty()) {
+            drains.remove(0).run();
+        }
+    }
+
+    private static ProductChangedEvent productEvent(ChangeType type, Long id, String name) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        return new ProductChangedEvent(type, id, null, product);
+    }
+
+    /**
+     * Emitter that records the text of every event instead of writing it to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+        }
+    }
+}
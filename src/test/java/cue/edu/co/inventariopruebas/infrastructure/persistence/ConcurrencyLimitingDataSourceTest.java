@@ -0,0 +1,111 @@
+package cue.edu.co.inventariopruebas.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitingDataSource(target, 2, 1, Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("Should hold a permit per open connection and release it once on close")
+    void shouldReleasePermitOnceOnClose() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        first.close();
+        first.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Should delegate connection calls to the pooled connection")
+    void shouldDelegateConnectionCalls() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        try (Connection limited = dataSource.getConnection()) {
+            assertFalse(limited.getAutoCommit());
+        }
+    }
+
+    @Test
+    @DisplayName("Should time out when every permit is held")
+    void shouldTimeOutWhenLimitReached() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should reject at once when too many requests are already waiting")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        dataSource = new ConcurrencyLimitingDataSource(target, 1, 1, Duration.ofSeconds(10));
+        when(target.getConnection()).thenReturn(connection);
+        Connection held = dataSource.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CountDownLatch waiting = new CountDownLatch(1);
+            Future<Connection> queued = executor.submit(() -> {
+                waiting.countDown();
+                return dataSource.getConnection();
+            });
+            waiting.await();
+            while (dataSource.getWaitingThreads() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+            held.close();
+            assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the permit back when the pool fails to connect")
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+}
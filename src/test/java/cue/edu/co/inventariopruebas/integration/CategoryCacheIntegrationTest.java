@@ -0,0 +1,104 @@
+package cue.edu.co.inventariopruebas.integration;
+
+import cue.edu.co.inventariopruebas.application.dto.CategoryRequestDTO;
+import cue.edu.co.inventariopruebas.application.service.CategoryService;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that category lookups are served from the second-level and query caches once loaded, and
+ * that category writes evict them. The cache only holds committed data, so this test is not
+ * {@code @Transactional} and cleans up after itself.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryCacheIntegrationTest {
+
+    private static final String NAME = "Cached Category";
+    private static final String NEW_NAME = "Renamed Cached Category";
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        category = categoryRepository.save(new Category(NAME));
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("Integration: Should load a category by ID without SQL after the first lookup")
+    void shouldServeCategoryByIdFromSecondLevelCache() {
+        categoryService.getCategoryEntityById(category.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        categoryService.getCategoryEntityById(category.getId());
+        categoryService.getCategoryEntityById(category.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Integration: Should answer repeated name lookups without SQL")
+    void shouldServeNameLookupsFromQueryCache() {
+        assertTrue(categoryRepository.existsByName(NAME));
+        assertTrue(categoryRepository.findByName(NAME).isPresent());
+        statistics.clear();
+
+        assertTrue(categoryRepository.existsByName(NAME));
+        assertEquals(category.getId(), categoryRepository.findByName(NAME).orElseThrow().getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Integration: Should evict cached lookups when a category is renamed")
+    void shouldEvictCachedLookupsOnCategoryWrite() {
+        assertFalse(categoryRepository.existsByName(NEW_NAME));
+        categoryService.getCategoryEntityById(category.getId());
+
+        categoryService.updateCategory(category.getId(), new CategoryRequestDTO(NEW_NAME), null);
+        statistics.clear();
+
+        // The cached "not found" result is stale, so the lookup goes to the database
+        assertTrue(categoryRepository.existsByName(NEW_NAME));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // The entity region was updated on commit and serves the new name
+        assertEquals(NEW_NAME, categoryService.getCategoryEntityById(category.getId()).getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,6 +1,8 @@
 package cue.edu.co.inventariopruebas.integration;
 
+import cue.edu.co.inventariopruebas.application.dto.CategoryBulkRequestDTO;
 import cue.edu.co.inventariopruebas.application.dto.CategoryRequestDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -69,6 +75,75 @@ class CategoryIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Integration: Should answer If-None-Match with 304 until the category changes")
+    void shouldRevalidateCategoryWithETag() throws Exception {
+        String response = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO("Conditional Category"))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long categoryId = objectMapper.readTree(response).get("id").asLong();
+
+        String eTag = mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        String listingETag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/categories/" + categoryId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/categories").header("If-None-Match", listingETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/categories/" + categoryId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", listingETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories/" + categoryId).header("If-None-Match", eTag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Integration: Should apply If-Match updates only to the version the client read")
+    void shouldRejectUpdateWithStaleIfMatch() throws Exception {
+        long categoryId = createCategory("Versioned Category");
+
+        String eTag = mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        String newETag = mockMvc.perform(put("/api/categories/" + categoryId)
+                        .header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO("Versioned Category 2"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(put("/api/categories/" + categoryId)
+                        .header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO("Lost Update"))))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/categories/" + categoryId).header("If-None-Match", newETag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @DisplayName("Integration: Should prevent duplicate category names")
     void shouldPreventDuplicateCategoryNames() throws Exception {
@@ -87,6 +162,43 @@ class CategoryIntegrationTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    @DisplayName("Integration: Should upsert categories by name, creating only the missing ones")
+    void shouldUpsertCategoriesInBulk() throws Exception {
+        long existingId = createCategory("Bulk Existing");
+        String body = objectMapper.writeValueAsString(
+                new CategoryBulkRequestDTO(List.of("Bulk New", "Bulk Existing", "Bulk New")));
+
+        String response = mockMvc.perform(put("/api/categories/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Bulk New"))
+                .andExpect(jsonPath("$[0].created").value(true))
+                .andExpect(jsonPath("$[1].id").value(existingId))
+                .andExpect(jsonPath("$[1].created").value(false))
+                .andReturn().getResponse().getContentAsString();
+        long newId = objectMapper.readTree(response).get(0).get("id").asLong();
+
+        mockMvc.perform(get("/api/categories/" + newId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Bulk New"));
+
+        // Syncing again creates nothing and returns the same IDs
+        mockMvc.perform(put("/api/categories/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(newId))
+                .andExpect(jsonPath("$[0].created").value(false));
+
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO("Bulk New"))))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("Integration: Should validate category name requirements")
     void shouldValidateCategoryNameRequirements() throws Exception {
@@ -113,4 +225,59 @@ class CategoryIntegrationTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray());
     }
+
+    @Test
+    @DisplayName("Integration: Should aggregate product count, stock and stock value per category")
+    void shouldGetCategoryStats() throws Exception {
+        long categoryId = createCategory("Stats Category");
+        long emptyCategoryId = createCategory("Stats Empty Category");
+        createProduct("Stats Product A", new BigDecimal("10.50"), 2, categoryId);
+        createProduct("Stats Product B", new BigDecimal("4.00"), 3, categoryId);
+
+        String category = "$[?(@.categoryId == " + categoryId + ")]";
+        String emptyCategory = "$[?(@.categoryId == " + emptyCategoryId + ")]";
+        mockMvc.perform(get("/api/categories/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath(category + ".categoryName").value(hasItem("Stats Category")))
+                .andExpect(jsonPath(category + ".productCount").value(hasItem(2)))
+                .andExpect(jsonPath(category + ".totalStock").value(hasItem(5)))
+                .andExpect(jsonPath(category + ".stockValue").value(hasItem(33.0)))
+                .andExpect(jsonPath(emptyCategory + ".productCount").value(hasItem(0)))
+                .andExpect(jsonPath(emptyCategory + ".totalStock").value(hasItem(0)))
+                .andExpect(jsonPath(emptyCategory + ".stockValue").value(hasItem(0)));
+    }
+
+    @Test
+    @DisplayName("Integration: Should refuse to delete a category that still has products")
+    void shouldRejectDeletingCategoryWithProducts() throws Exception {
+        long categoryId = createCategory("Non-Empty Category");
+        createProduct("Non-Empty Category Product", new BigDecimal("1.00"), 1, categoryId);
+
+        mockMvc.perform(delete("/api/categories/" + categoryId))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/categories/" + categoryId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products").param("categoryId", String.valueOf(categoryId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    private long createCategory(String name) throws Exception {
+        String response = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO(name))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private void createProduct(String name, BigDecimal price, int stock, long categoryId) throws Exception {
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductRequestDTO(name, null, price, stock, null, categoryId))))
+                .andExpect(status().isCreated());
+    }
 }
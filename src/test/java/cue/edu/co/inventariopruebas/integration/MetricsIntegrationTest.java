@@ -0,0 +1,95 @@
+package cue.edu.co.inventariopruebas.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the service, Hibernate and connection pool metrics and their Prometheus exposition.
+ * Metrics export is off in tests unless observability is auto-configured explicitly.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@Transactional
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Integration: Should time service calls by outcome and count returned rows")
+    void shouldRecordServiceMetrics() throws Exception {
+        double rowsBefore = rows("getProductsPage");
+
+        mockMvc.perform(get("/api/products?limit=2")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/999999")).andExpect(status().isNotFound());
+
+        assertTrue(calls("getProductsPage", "none") >= 1);
+        assertTrue(calls("getProductById", "ResourceNotFoundException") >= 1);
+        assertEquals(rowsBefore + 2, rows("getProductsPage"));
+    }
+
+    @Test
+    @DisplayName("Integration: Should expose service, Hibernate and Hikari metrics on /actuator/prometheus")
+    void shouldExposePrometheusMetrics() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("inventory_service_calls_seconds_count{")))
+                .andExpect(content().string(containsString("service=\"CategoryService\"")))
+                .andExpect(content().string(containsString("inventory_service_rows_total{")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("application=\"inventario-pruebas\"")));
+    }
+
+    @Test
+    @DisplayName("Integration: Should publish Hibernate statistics on /actuator/info")
+    void shouldPublishHibernateStatistics() throws Exception {
+        mockMvc.perform(get("/api/products?limit=2")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/info"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hibernate.enabled").value(true))
+                .andExpect(jsonPath("$.hibernate.queryExecutions").isNumber())
+                .andExpect(jsonPath("$.hibernate.slowestQueryMillis").isNumber());
+    }
+
+    private long calls(String method, String exception) {
+        Timer timer = meterRegistry.find("inventory.service.calls")
+                .tags("service", "ProductService", "method", method, "exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double rows(String method) {
+        Counter counter = meterRegistry.find("inventory.service.rows")
+                .tags("service", "ProductService", "method", method)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -2,6 +2,7 @@ package cue.edu.co.inventariopruebas.integration;
 
 import cue.edu.co.inventariopruebas.application.dto.CategoryRequestDTO;
 import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,10 +13,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -163,6 +169,34 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$[?(@.categoryId == " + categoryId + ")]").exists());
     }
 
+    @Test
+    @DisplayName("Integration: Should list only products below their own reorder point")
+    void shouldListProductsBelowReorderPoint() throws Exception {
+        ProductRequestDTO product = new ProductRequestDTO();
+        product.setName("Reorder Me");
+        product.setPrice(new BigDecimal("5.00"));
+        product.setStock(3);
+        product.setReorderPoint(5);
+        product.setCategoryId(categoryId);
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.reorderPoint").value(5));
+
+        product.setName("Well Stocked");
+        product.setStock(50);
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/products/below-reorder-point"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Reorder Me')]").exists())
+                .andExpect(jsonPath("$[?(@.name == 'Well Stocked')]").doesNotExist());
+    }
+
     @Test
     @DisplayName("Integration: Should search products by name")
     void shouldSearchProductsByName() throws Exception {
@@ -186,6 +220,203 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$[?(@.name =~ /.*Searchable.*/i)]").exists());
     }
 
+    @Test
+    @DisplayName("Integration: Should rank name matches above description matches")
+    void shouldRankSearchResults() throws Exception {
+        ProductRequestDTO described = new ProductRequestDTO();
+        described.setName("Carrying Case");
+        described.setDescription("Fits any Zephyrbook model");
+        described.setPrice(new BigDecimal("49.99"));
+        described.setStock(10);
+        described.setCategoryId(categoryId);
+
+        ProductRequestDTO named = new ProductRequestDTO();
+        named.setName("Zephyrbook Pro");
+        named.setDescription("Ultralight notebook");
+        named.setPrice(new BigDecimal("1499.99"));
+        named.setStock(3);
+        named.setCategoryId(categoryId);
+
+        for (ProductRequestDTO product : new ProductRequestDTO[] {described, named}) {
+            mockMvc.perform(post("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(product)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/products/search?q=zephyrbook&limit=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Zephyrbook Pro"))
+                .andExpect(jsonPath("$[1].name").value("Carrying Case"));
+
+        mockMvc.perform(get("/api/products/search?q=zephyrbook&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("Integration: Should suggest names loaded into the index at startup")
+    void shouldSuggestNamesLoadedAtStartup() throws Exception {
+        mockMvc.perform(get("/api/products/suggest?prefix=LAP"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.type == 'PRODUCT' && @.name == 'Laptop')]").exists());
+
+        mockMvc.perform(get("/api/products/suggest?prefix=electr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.type == 'CATEGORY' && @.name == 'Electronics')]").exists());
+    }
+
+    @Test
+    @DisplayName("Integration: Should not serve a cached product after its category is renamed")
+    void shouldRefreshCachedProductAfterCategoryRename() throws Exception {
+        ProductRequestDTO product = new ProductRequestDTO();
+        product.setName("Cached Product");
+        product.setDescription("Test product");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStock(10);
+        product.setCategoryId(categoryId);
+
+        String response = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long productId = objectMapper.readTree(response).get("id").asLong();
+
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("Electronics Integration Test"));
+
+        mockMvc.perform(put("/api/categories/" + categoryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO("Renamed Integration Test"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("Renamed Integration Test"));
+    }
+
+    @Test
+    @DisplayName("Integration: Should answer If-None-Match with 304 until the product changes")
+    void shouldRevalidateProductWithETag() throws Exception {
+        ProductRequestDTO product = new ProductRequestDTO();
+        product.setName("Conditional Product");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStock(10);
+        product.setCategoryId(categoryId);
+
+        String response = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long productId = objectMapper.readTree(response).get("id").asLong();
+
+        String eTag = mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/products/" + productId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(patch("/api/products/" + productId + "/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -1}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/" + productId).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(9))
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    @DisplayName("Integration: Should reject a stock change that would overflow the stock and keep the stock")
+    void shouldRejectStockOverflow() throws Exception {
+        ProductRequestDTO product = new ProductRequestDTO();
+        product.setName("Overflow Product");
+        product.setPrice(new BigDecimal("1.00"));
+        product.setStock(Integer.MAX_VALUE - 1);
+        product.setCategoryId(categoryId);
+
+        String response = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long productId = objectMapper.readTree(response).get("id").asLong();
+
+        mockMvc.perform(patch("/api/products/" + productId + "/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": 2}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/products/" + productId + "/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": 1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Integration: Should answer If-None-Match on the product listing until the catalog changes")
+    void shouldRevalidateProductListingWithETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/low-stock").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/categories/" + categoryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO("Renamed Listing Test"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Integration: Should bulk import a CSV body through the JDBC batch fallback")
+    void shouldImportProductsFromCsv() throws Exception {
+        String csv = "name,description,price,stock,categoryName\n"
+                + "Imported Widget,\"Bulk, loaded\",5.00,3,electronics integration test\n"
+                + "Imported Ghost,,5.00,3,No Such Category\n";
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].field").value("categoryId"));
+
+        mockMvc.perform(get("/api/products").param("search", "Imported"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Imported Widget"))
+                .andExpect(jsonPath("$[0].description").value("Bulk, loaded"))
+                .andExpect(jsonPath("$[0].categoryId").value(categoryId));
+    }
+
     @Test
     @DisplayName("Integration: Should get all products")
     void shouldGetAllProducts() throws Exception {
@@ -195,6 +426,96 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    @DisplayName("Integration: Should page through products with a keyset cursor")
+    void shouldPageThroughProductsWithCursor() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            ProductRequestDTO product = new ProductRequestDTO();
+            product.setName("Paged Product " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(i);
+            product.setCategoryId(categoryId);
+
+            mockMvc.perform(post("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(product)))
+                    .andExpect(status().isCreated());
+        }
+
+        String cursor = mockMvc.perform(get("/api/products?categoryId=" + categoryId + "&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Paged Product 1"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/products?categoryId=" + categoryId + "&limit=2&after=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Paged Product 3"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("Integration: Should report updates and deletions through the change feed cursor")
+    void shouldFollowProductChangeFeed() throws Exception {
+        // Read the feed to its end, so only the changes made below follow the cursor
+        JsonNode changes;
+        String cursor = "";
+        do {
+            changes = changes(cursor);
+            cursor = changes.get("nextCursor").asText();
+        } while (changes.get("hasMore").asBoolean());
+
+        Long keptId = createProduct("Feed Kept Product");
+        Long deletedId = createProduct("Feed Deleted Product");
+        ProductRequestDTO update = new ProductRequestDTO();
+        update.setName("Feed Kept Product v2");
+        update.setPrice(new BigDecimal("12.00"));
+        update.setStock(3);
+        update.setCategoryId(categoryId);
+        mockMvc.perform(put("/api/products/" + keptId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/products/" + deletedId))
+                .andExpect(status().isNoContent());
+
+        String next = mockMvc.perform(get("/api/products/changes?since=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(1))
+                .andExpect(jsonPath("$.products[0].id").value(keptId))
+                .andExpect(jsonPath("$.products[0].name").value("Feed Kept Product v2"))
+                .andExpect(jsonPath("$.deletedIds.length()").value(1))
+                .andExpect(jsonPath("$.deletedIds[0]").value(deletedId))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonNode empty = changes(objectMapper.readTree(next).get("nextCursor").asText());
+        assertEquals(0, empty.get("products").size());
+        assertEquals(0, empty.get("deletedIds").size());
+
+        mockMvc.perform(get("/api/products/changes?since=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Integration: Should stream the committed catalog as CSV")
+    void shouldExportCatalogAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/products/export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("id,name,description,price,stock,categoryId")))
+                .andExpect(content().string(containsString(",Laptop,High performance laptop,999.99,")));
+    }
+
     @Test
     @DisplayName("Integration: Should fail when creating product with non-existent category")
     void shouldFailWhenCreatingProductWithNonExistentCategory() throws Exception {
@@ -210,4 +531,30 @@ class ProductIntegrationTest {
                         .content(objectMapper.writeValueAsString(product)))
                 .andExpect(status().isNotFound());
     }
+
+    private Long createProduct(String name) throws Exception {
+        ProductRequestDTO product = new ProductRequestDTO();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(1);
+        product.setCategoryId(categoryId);
+
+        String response = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private JsonNode changes(String since) throws Exception {
+        String response = mockMvc.perform(get("/api/products/changes?limit=100&since=" + since))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response);
+    }
 }
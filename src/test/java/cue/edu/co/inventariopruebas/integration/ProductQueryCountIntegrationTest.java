@@ -0,0 +1,206 @@
+package cue.edu.co.inventariopruebas.integration;
+
+import cue.edu.co.inventariopruebas.application.service.ProductService;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that product read paths run a fixed number of SQL statements, however many rows and
+ * distinct categories they return. The persistence context is cleared before each call so lazy
+ * category loads would show up as extra statements.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ProductQueryCountIntegrationTest {
+
+    private static final int CATEGORIES = 5;
+    private static final int PRODUCTS_PER_CATEGORY = 4;
+    // Listings run the collection ETag query before the listing itself
+    private static final int LISTING_STATEMENTS = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = categoryRepository.save(new Category("Query Count Category " + i));
+            categoryIds.add(category.getId());
+            for (int j = 0; j < PRODUCTS_PER_CATEGORY; j++) {
+                Product product = productRepository.save(new Product("Query Count Product " + i + "-" + j,
+                        "Seeded for statement counting", new BigDecimal("10.00"), j, category));
+                productId = product.getId();
+                productIds.add(productId);
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Integration: Should get a product by ID in one statement")
+    void shouldGetProductByIdInOneStatement() throws Exception {
+        assertEquals(1, countStatements(get("/api/products/" + productId)));
+    }
+
+    @Test
+    @DisplayName("Integration: Should list products in a fixed number of statements whatever the page size")
+    void shouldListProductsInFixedStatements() throws Exception {
+        assertEquals(LISTING_STATEMENTS, countStatements(get("/api/products?limit=1")));
+        assertEquals(LISTING_STATEMENTS, countStatements(get("/api/products?limit=500")));
+    }
+
+    @Test
+    @DisplayName("Integration: Should filter products by category in a fixed number of statements")
+    void shouldFilterByCategoryInFixedStatements() throws Exception {
+        for (Long categoryId : categoryIds) {
+            assertEquals(LISTING_STATEMENTS, countStatements(get("/api/products?categoryId=" + categoryId)));
+        }
+    }
+
+    @Test
+    @DisplayName("Integration: Should search products across categories in a fixed number of statements")
+    void shouldSearchInFixedStatements() throws Exception {
+        assertEquals(LISTING_STATEMENTS,
+                countStatements(get("/api/products").param("search", "Query Count Product 0-0")));
+        assertEquals(LISTING_STATEMENTS, countStatements(get("/api/products")
+                .param("search", "Query Count Product")
+                .param("limit", "500")));
+    }
+
+    @Test
+    @DisplayName("Integration: Should list products below their reorder point in a fixed number of statements")
+    void shouldListBelowReorderPointInFixedStatements() throws Exception {
+        assertEquals(LISTING_STATEMENTS, countStatements(get("/api/products/below-reorder-point")));
+    }
+
+    @Test
+    @DisplayName("Integration: Should list low-stock products across categories in a fixed number of statements")
+    void shouldListLowStockInFixedStatements() throws Exception {
+        assertEquals(LISTING_STATEMENTS, countStatements(get("/api/products/low-stock?threshold=1")));
+        assertEquals(LISTING_STATEMENTS,
+                countStatements(get("/api/products/low-stock?threshold=" + PRODUCTS_PER_CATEGORY)));
+    }
+
+    @Test
+    @DisplayName("Integration: Should aggregate every category's stats in a fixed number of statements")
+    void shouldGetCategoryStatsInFixedStatements() throws Exception {
+        assertEquals(LISTING_STATEMENTS, countStatements(get("/api/categories/stats")));
+    }
+
+    @Test
+    @DisplayName("Integration: Should get products by ID across categories in one statement, in request order")
+    void shouldGetProductsByIdsInOneStatement() throws Exception {
+        Long firstId = productIds.get(0);
+        Long secondToLastId = productIds.get(productIds.size() - 2);
+        entityManager.clear();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/products")
+                        .param("ids", productId + "," + firstId + ",999999," + secondToLastId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(3))
+                .andExpect(jsonPath("$.products[0].id").value(productId))
+                .andExpect(jsonPath("$.products[1].id").value(firstId))
+                .andExpect(jsonPath("$.products[1].categoryName").value("Query Count Category 0"))
+                .andExpect(jsonPath("$.products[2].id").value(secondToLastId))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Integration: Should answer a matching If-None-Match without loading or listing products")
+    void shouldRevalidateWithMetadataQueryOnly() throws Exception {
+        String listingETag = mockMvc.perform(get("/api/products?limit=500"))
+                .andReturn().getResponse().getHeader("ETag");
+        String productETag = mockMvc.perform(get("/api/products/" + productId))
+                .andReturn().getResponse().getHeader("ETag");
+
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(get("/api/products?limit=500").header("If-None-Match", listingETag))
+                .andExpect(status().isNotModified());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/products/" + productId).header("If-None-Match", productETag))
+                .andExpect(status().isNotModified());
+        assertTrue(statistics.getPrepareStatementCount() <= 1);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Integration: Should run unpaginated service listings in one statement")
+    void shouldRunServiceListingsInOneStatement() {
+        entityManager.clear();
+        statistics.clear();
+        assertEquals(CATEGORIES * PRODUCTS_PER_CATEGORY,
+                productService.searchProductsByName("Query Count Product").size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(PRODUCTS_PER_CATEGORY, productService.getProductsByCategoryId(categoryIds.get(0)).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        productService.getAllProducts();
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private long countStatements(RequestBuilder request) throws Exception {
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").exists());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,197 @@
+package cue.edu.co.inventariopruebas.integration;
+
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.event.StockChangedEvent;
+import cue.edu.co.inventariopruebas.application.service.ProductService;
+import cue.edu.co.inventariopruebas.application.stock.InMemoryStockCounters;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.exception.InsufficientStockException;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.infrastructure.config.InMemoryStockProperties;
+import cue.edu.co.inventariopruebas.infrastructure.events.InventoryEventBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs concurrent stock changes against one row with real commits, so it is not {@code @Transactional}
+ * and cleans up after itself.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductStockConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int DECREMENTS_PER_THREAD = 50;
+    private static final int INITIAL_STOCK = 300;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InMemoryStockCounters stockCounters;
+
+    @Autowired
+    private InMemoryStockProperties inMemoryStockProperties;
+
+    @MockitoSpyBean
+    private InventoryEventBroadcaster inventoryEventBroadcaster;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Stock Concurrency Test"));
+        product = productRepository.save(new Product("Hot Product", "Flash sale item",
+                new BigDecimal("9.99"), INITIAL_STOCK, category));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteById(product.getId());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("Integration: Should apply every concurrent decrement and never oversell")
+    void shouldNotLoseConcurrentDecrements() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(decrements(start)));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                succeeded += result.get();
+            }
+
+            // THREADS * DECREMENTS_PER_THREAD exceeds the stock: exactly INITIAL_STOCK succeed
+            assertEquals(INITIAL_STOCK, succeeded);
+            assertEquals(0, productService.getProductById(product.getId()).getStock());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Integration: Should accept an If-Match update of an in-memory product and keep the reservation "
+            + "made since the read")
+    void shouldKeepETagValidAcrossInMemoryFlush() {
+        inMemoryStockProperties.setEnabled(true);
+        inMemoryStockProperties.setProductIds(Set.of(product.getId()));
+        try {
+            stockCounters.seed();
+            assertTrue(stockCounters.isManaged(product.getId()));
+            ProductDTO read = productService.getProductById(product.getId());
+            String eTag = productService.getProductETag(read);
+
+            // A reservation lands between the client's read and its update
+            productService.adjustStock(product.getId(), -5);
+            stockCounters.flush();
+            assertEquals(INITIAL_STOCK - 5, productRepository.findById(product.getId()).orElseThrow().getStock());
+
+            ProductRequestDTO request = new ProductRequestDTO();
+            request.setName("Hot Product v2");
+            request.setDescription(read.getDescription());
+            request.setPrice(read.getPrice());
+            request.setStock(100);
+            request.setCategoryId(category.getId());
+            ProductDTO updated = productService.updateProduct(product.getId(), request, List.of(eTag));
+
+            // The client set 100 over the stock it read, so the 5 reserved units stay taken
+            assertEquals("Hot Product v2", updated.getName());
+            assertEquals(95, updated.getStock());
+            assertEquals(95, productService.getProductById(product.getId()).getStock());
+            stockCounters.flush();
+            assertEquals(95, productRepository.findById(product.getId()).orElseThrow().getStock());
+        } finally {
+            stockCounters.remove(product.getId());
+            inMemoryStockProperties.setProductIds(Set.of());
+            inMemoryStockProperties.setEnabled(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Integration: Should push the stock changes of an in-memory product to event subscribers")
+    void shouldBroadcastInMemoryStockChanges() {
+        inMemoryStockProperties.setEnabled(true);
+        inMemoryStockProperties.setProductIds(Set.of(product.getId()));
+        try {
+            stockCounters.seed();
+            ProductDTO read = productService.getProductById(product.getId());
+
+            productService.adjustStock(product.getId(), -5);
+
+            verify(inventoryEventBroadcaster).onStockChanged(argThat(event -> isStock(event, INITIAL_STOCK - 5)));
+
+            ProductRequestDTO request = new ProductRequestDTO();
+            request.setName(read.getName());
+            request.setDescription(read.getDescription());
+            request.setPrice(read.getPrice());
+            request.setStock(100);
+            request.setCategoryId(category.getId());
+            productService.updateProduct(product.getId(), request, null);
+
+            // Pushed once the update commits and its change is applied in memory
+            verify(inventoryEventBroadcaster).onStockChanged(argThat(event -> isStock(event, 100)));
+        } finally {
+            stockCounters.remove(product.getId());
+            inMemoryStockProperties.setProductIds(Set.of());
+            inMemoryStockProperties.setEnabled(false);
+        }
+    }
+
+    private boolean isStock(StockChangedEvent event, int stock) {
+        return event.getProductId().equals(product.getId()) && event.getStock() == stock && event.isInMemory();
+    }
+
+    private Callable<Integer> decrements(CountDownLatch start) {
+        return () -> {
+            start.await();
+            int succeeded = 0;
+            for (int i = 0; i < DECREMENTS_PER_THREAD; i++) {
+                try {
+                    productService.adjustStock(product.getId(), -1);
+                    succeeded++;
+                } catch (InsufficientStockException e) {
+                    // Expected once the stock runs out
+                }
+            }
+            return succeeded;
+        };
+    }
+}
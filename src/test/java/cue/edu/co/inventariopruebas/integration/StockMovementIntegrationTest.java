@@ -0,0 +1,174 @@
+package cue.edu.co.inventariopruebas.integration;
+
+import cue.edu.co.inventariopruebas.application.dto.ExportFormat;
+import cue.edu.co.inventariopruebas.application.dto.ProductDTO;
+import cue.edu.co.inventariopruebas.application.dto.ProductRequestDTO;
+import cue.edu.co.inventariopruebas.application.service.ProductImportService;
+import cue.edu.co.inventariopruebas.application.service.ProductService;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.entity.StockMovement;
+import cue.edu.co.inventariopruebas.domain.entity.StockMovementReason;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import cue.edu.co.inventariopruebas.domain.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every stock change is appended to the stock movement ledger once committed. Movements are
+ * written after commit (in {@code flush-on-commit} mode under the test profile), so this test is not
+ * {@code @Transactional} and cleans up after itself. The pool is kept small behind the concurrency limiter,
+ * so concurrent changes can hold every pooled connection while they wait for their movements.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + StockMovementIntegrationTest.POOL_SIZE,
+        "inventory.db.concurrency.enabled=true"
+})
+@ActiveProfiles("test")
+class StockMovementIntegrationTest {
+
+    static final int POOL_SIZE = 2;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    private Category category;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Stock Ledger Test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long productId : productIds) {
+            stockMovementRepository.deleteAll(
+                    stockMovementRepository.findByProductIdOrderByOccurredAtAscIdAsc(productId));
+        }
+        productRepository.deleteAllById(productIds);
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("Integration: Should record a movement for every stock change of a product")
+    void shouldRecordStockMovements() {
+        Long productId = productService.createProduct(request(10)).getId();
+        productIds.add(productId);
+        productService.adjustStock(productId, -3);
+        productService.updateProduct(productId, request(12), null);
+        productService.updateProduct(productId, request(12), null);
+        productService.deleteProduct(productId);
+
+        List<StockMovement> movements = stockMovementRepository.findByProductIdOrderByOccurredAtAscIdAsc(productId);
+
+        assertEquals(List.of(StockMovementReason.CREATED, StockMovementReason.ADJUSTED, StockMovementReason.UPDATED,
+                StockMovementReason.DELETED), movements.stream().map(StockMovement::getReason).toList());
+        assertEquals(List.of(10, -3, 5, -12), movements.stream().map(StockMovement::getDelta).toList());
+        assertEquals(List.of(10, 7, 12, 0), movements.stream().map(StockMovement::getStockAfter).toList());
+    }
+
+    @Test
+    @DisplayName("Integration: Should write movements while more changes than pooled connections wait for them")
+    void shouldWriteMovementsOfMoreConcurrentChangesThanConnections() throws Exception {
+        int changes = POOL_SIZE * 3;
+        for (int i = 0; i < changes; i++) {
+            productIds.add(productService.createProduct(request(10)).getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(changes);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (Long productId : productIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    // Each update waits for its movement inside its commit, still holding its connection
+                    return productService.updateProduct(productId, request(4), null);
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            // Had a change waited out the flush timeout, its movement would be missing or late
+            assertTrue(elapsed.compareTo(Duration.ofSeconds(5)) < 0, "Took " + elapsed);
+            for (Long productId : productIds) {
+                assertEquals(List.of(StockMovementReason.CREATED, StockMovementReason.UPDATED),
+                        stockMovementRepository.findByProductIdOrderByOccurredAtAscIdAsc(productId).stream()
+                                .map(StockMovement::getReason).toList());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Integration: Should record a creation movement for every imported product with stock")
+    void shouldRecordMovementsOfImportedProducts() throws Exception {
+        String csv = "name,price,stock,categoryId\n"
+                + "Imported Ledger A,5.00,8," + category.getId() + "\n"
+                + "Imported Ledger B,5.00,0," + category.getId() + "\n";
+
+        productImportService.importProducts(ExportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        List<ProductDTO> imported = productRepository.findDTOsByCategoryId(category.getId());
+        imported.forEach(product -> productIds.add(product.getId()));
+
+        assertEquals(2, imported.size());
+        for (ProductDTO product : imported) {
+            List<StockMovement> movements =
+                    stockMovementRepository.findByProductIdOrderByOccurredAtAscIdAsc(product.getId());
+            if (product.getStock() == 0) {
+                assertTrue(movements.isEmpty());
+            } else {
+                assertEquals(1, movements.size());
+                assertEquals(StockMovementReason.CREATED, movements.get(0).getReason());
+                assertEquals(8, movements.get(0).getDelta());
+                assertEquals(8, movements.get(0).getStockAfter());
+            }
+        }
+    }
+
+    private ProductRequestDTO request(int stock) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Ledger Product");
+        request.setPrice(new BigDecimal("5.00"));
+        request.setStock(stock);
+        request.setCategoryId(category.getId());
+        return request;
+    }
+}
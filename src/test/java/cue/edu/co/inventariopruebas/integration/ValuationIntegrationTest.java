@@ -0,0 +1,110 @@
+package cue.edu.co.inventariopruebas.integration;
+
+import cue.edu.co.inventariopruebas.application.service.ValuationSnapshotService;
+import cue.edu.co.inventariopruebas.domain.entity.Category;
+import cue.edu.co.inventariopruebas.domain.entity.Product;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryRepository;
+import cue.edu.co.inventariopruebas.domain.repository.CategoryValuationSnapshotRepository;
+import cue.edu.co.inventariopruebas.domain.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ValuationIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ValuationSnapshotService valuationSnapshotService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryValuationSnapshotRepository snapshotRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Integration: Should snapshot category valuations and read them back as a monthly series")
+    void shouldSnapshotAndDownsampleValuations() throws Exception {
+        Category category = categoryRepository.save(new Category("Valuation Category"));
+        Product product = productRepository.save(
+                new Product("Valuation Product", null, new BigDecimal("2.50"), 4, category));
+        valuationSnapshotService.takeSnapshot(FIRST_DAY);
+        product.setStock(8);
+        productRepository.save(product);
+        valuationSnapshotService.takeSnapshot(FIRST_DAY.plusDays(1));
+        product.setStock(6);
+        productRepository.save(product);
+        valuationSnapshotService.takeSnapshot(FIRST_DAY.plusDays(2));
+        // Taking a day again replaces it
+        valuationSnapshotService.takeSnapshot(FIRST_DAY.plusDays(2));
+
+        mockMvc.perform(get("/api/valuations")
+                        .param("from", FIRST_DAY.toString())
+                        .param("to", FIRST_DAY.plusDays(2).toString())
+                        .param("granularity", "month")
+                        .param("categoryId", category.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].periodStart").value("2024-01-01"))
+                .andExpect(jsonPath("$[0].snapshotDate").value("2024-01-31"))
+                .andExpect(jsonPath("$[0].totalStock").value(8))
+                .andExpect(jsonPath("$[0].stockValue").value(20.0))
+                .andExpect(jsonPath("$[0].averageStockValue").value(15.0))
+                .andExpect(jsonPath("$[0].snapshotCount").value(2))
+                .andExpect(jsonPath("$[1].periodStart").value("2024-02-01"))
+                .andExpect(jsonPath("$[1].productCount").value(1))
+                .andExpect(jsonPath("$[1].stockValue").value(15.0));
+    }
+
+    @Test
+    @DisplayName("Integration: Should read the series from the snapshot table alone")
+    void shouldReadSeriesFromSnapshotsOnly() throws Exception {
+        categoryRepository.save(new Category("Valuation Scan Category"));
+        valuationSnapshotService.takeSnapshot(FIRST_DAY);
+        long categories = categoryRepository.count();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/valuations")
+                        .param("from", FIRST_DAY.toString())
+                        .param("to", FIRST_DAY.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].snapshotCount").value(1));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(categories, snapshotRepository.count());
+    }
+}